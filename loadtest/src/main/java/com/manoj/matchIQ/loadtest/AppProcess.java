@@ -0,0 +1,96 @@
+package com.manoj.matchIQ.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application under test, started from its jar in a separate JVM with the LLM pointed at
+ * the stub and MongoDB at the run's database. Its log goes to {@code target/loadtest-app.log}.
+ */
+final class AppProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process process;
+    private final String baseUrl;
+
+    private AppProcess(Process process, String baseUrl) {
+        this.process = process;
+        this.baseUrl = baseUrl;
+    }
+
+    static AppProcess start(LoadTestConfig config, String llmUrl, String mongoUri) throws IOException, InterruptedException {
+        if (!Files.isRegularFile(config.appJar())) {
+            throw new IOException("Application jar not found: " + config.appJar().toAbsolutePath()
+                    + " (run ./mvnw package first or pass app-jar=...)");
+        }
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                // as in production: SIMD similarity scoring
+                "--add-modules", "jdk.incubator.vector",
+                "-jar", config.appJar().toString(),
+                "--server.port=" + config.appPort(),
+                "--spring.data.mongodb.uri=" + mongoUri,
+                "--spring.docker.compose.enabled=false",
+                "--llm.api.url=" + llmUrl,
+                "--llm.api.key=loadtest",
+                "--llm.model=loadtest-stub",
+                "--logging.level.matchiq.pipeline.events=WARN"));
+        Path log = Path.of("target", "loadtest-app.log");
+        Files.createDirectories(log.getParent());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        AppProcess app = new AppProcess(process, "http://127.0.0.1:" + config.appPort());
+        try {
+            app.awaitHealthy();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            app.close();
+            throw e;
+        }
+        return app;
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    private void awaitHealthy() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(5)).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("Application exited with " + process.exitValue() + ", see target/loadtest-app.log");
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            TimeUnit.MILLISECONDS.sleep(500);
+        }
+        throw new IOException("Application not healthy after " + STARTUP_TIMEOUT.toSeconds() + "s, see target/loadtest-app.log");
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
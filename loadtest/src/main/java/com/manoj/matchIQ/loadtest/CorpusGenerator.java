@@ -0,0 +1,195 @@
+package com.manoj.matchIQ.loadtest;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic (per seed) synthetic resumes and job postings. Postings mix skills, duties and
+ * the boilerplate real pages carry; resumes overlap a random subset of the same skills so ATS
+ * scores vary. Resumes rotate through TXT, PDF and DOCX, the formats the upload endpoints parse.
+ */
+final class CorpusGenerator {
+
+    private static final String[] SKILLS = {
+            "Java", "Spring Boot", "Kotlin", "Python", "Go", "TypeScript", "React", "Angular", "Node.js",
+            "MongoDB", "PostgreSQL", "MySQL", "Redis", "Kafka", "RabbitMQ", "Elasticsearch", "Docker",
+            "Kubernetes", "Terraform", "AWS", "GCP", "Azure", "CI/CD", "Jenkins", "GitHub Actions",
+            "Microservices", "REST", "GraphQL", "gRPC", "OAuth", "Prometheus", "Grafana", "Linux",
+            "Machine Learning", "Spark", "Airflow", "Hibernate", "JUnit", "Agile", "Scrum"};
+    private static final String[] ROLES = {
+            "Backend Engineer", "Senior Software Engineer", "Platform Engineer", "Full Stack Developer",
+            "Site Reliability Engineer", "Data Engineer", "Staff Engineer", "Java Developer"};
+    private static final String[] COMPANIES = {
+            "Acme Analytics", "Northwind Systems", "Globex", "Initech", "Umbrella Health", "Hooli",
+            "Stark Logistics", "Wayne Fintech", "Soylent Retail", "Cyberdyne Robotics"};
+    private static final String[] DUTIES = {
+            "design and build %s services that handle millions of requests a day",
+            "own the reliability of our %s platform end to end",
+            "mentor engineers and review designs involving %s",
+            "migrate legacy systems to %s with zero downtime",
+            "improve observability and latency of %s workloads",
+            "collaborate with product teams to ship features on %s"};
+    private static final String[] ACHIEVEMENTS = {
+            "Built %s services processing 2M events per day with p99 latency under 50 ms",
+            "Migrated a monolith to %s, cutting deployment time from hours to minutes",
+            "Led a team of 5 engineers delivering a %s platform used by 300 internal teams",
+            "Reduced cloud costs by 35%% by right-sizing %s workloads",
+            "Introduced %s based alerting that halved incident response time",
+            "Designed a %s pipeline that replaced nightly batch jobs with streaming updates"};
+    private static final String[] BOILERPLATE = {
+            "We are an equal opportunity employer and value diversity at our company.",
+            "Benefits include health insurance, dental, 401(k) matching and paid time off.",
+            "By applying you agree to our privacy policy and terms of use.",
+            "Share this job with a friend. Sign up for job alerts to hear about similar jobs.",
+            "Reasonable accommodation is available on request during the hiring process."};
+    private static final String[] FORMATS = {"txt", "pdf", "docx"};
+
+    private final Random random;
+
+    CorpusGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    List<String> jobDescriptions(int count) {
+        List<String> postings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<String> skills = pick(SKILLS, 6 + random.nextInt(6));
+            StringBuilder sb = new StringBuilder();
+            sb.append(pick(ROLES)).append(" at ").append(pick(COMPANIES)).append("\n\n");
+            sb.append("About the role. We are looking for an engineer to join our growing team.\n");
+            for (int d = 0; d < 4; d++) {
+                sb.append("You will ").append(String.format(pick(DUTIES), skills.get(d % skills.size()))).append(".\n");
+            }
+            sb.append("Requirements: ").append(String.join(", ", skills)).append(".\n");
+            sb.append("Nice to have: ").append(String.join(", ", pick(SKILLS, 3))).append(".\n");
+            for (String line : pick(BOILERPLATE, 3)) {
+                sb.append(line).append("\n");
+            }
+            postings.add(sb.toString());
+        }
+        return postings;
+    }
+
+    List<ResumeFile> resumes(int count) throws IOException {
+        List<ResumeFile> resumes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String text = resumeText(i);
+            String format = FORMATS[i % FORMATS.length];
+            byte[] content = switch (format) {
+                case "pdf" -> pdf(text);
+                case "docx" -> docx(text);
+                default -> text.getBytes(StandardCharsets.UTF_8);
+            };
+            resumes.add(new ResumeFile("resume-" + i + "." + format, content, text));
+        }
+        return resumes;
+    }
+
+    private String resumeText(int index) {
+        List<String> skills = pick(SKILLS, 5 + random.nextInt(10));
+        StringBuilder sb = new StringBuilder();
+        sb.append("Candidate ").append(index).append("\n");
+        sb.append(pick(ROLES)).append(" with ").append(3 + random.nextInt(12)).append(" years of experience.\n\n");
+        sb.append("Skills: ").append(String.join(", ", skills)).append("\n\n");
+        sb.append("Experience\n");
+        for (int job = 0; job < 2 + random.nextInt(3); job++) {
+            sb.append(pick(ROLES)).append(", ").append(pick(COMPANIES)).append("\n");
+            for (int bullet = 0; bullet < 3; bullet++) {
+                sb.append("- ").append(String.format(pick(ACHIEVEMENTS), skills.get(random.nextInt(skills.size())))).append("\n");
+            }
+        }
+        sb.append("\nEducation\nB.Sc. Computer Science\n");
+        return sb.toString();
+    }
+
+    /**
+     * Plain Helvetica text, wrapped and paginated; enough for PDFTextStripper to give the text back.
+     */
+    static byte[] pdf(String text) throws IOException {
+        float fontSize = 11;
+        float leading = 14;
+        float margin = 50;
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPageContentStream stream = null;
+            float y = 0;
+            for (String line : wrap(text, 90)) {
+                if (stream == null || y < margin) {
+                    if (stream != null) {
+                        stream.endText();
+                        stream.close();
+                    }
+                    PDPage page = new PDPage(PDRectangle.LETTER);
+                    document.addPage(page);
+                    stream = new PDPageContentStream(document, page);
+                    stream.beginText();
+                    stream.setFont(PDType1Font.HELVETICA, fontSize);
+                    y = page.getMediaBox().getHeight() - margin;
+                    stream.newLineAtOffset(margin, y);
+                }
+                stream.showText(line);
+                stream.newLineAtOffset(0, -leading);
+                y -= leading;
+            }
+            if (stream != null) {
+                stream.endText();
+                stream.close();
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    static byte[] docx(String text) throws IOException {
+        try (XWPFDocument document = new XWPFDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (String line : text.split("\n", -1)) {
+                document.createParagraph().createRun().setText(line);
+            }
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static List<String> wrap(String text, int width) {
+        List<String> lines = new ArrayList<>();
+        for (String line : text.split("\n", -1)) {
+            while (line.length() > width) {
+                int cut = line.lastIndexOf(' ', width);
+                cut = cut > 0 ? cut : width;
+                lines.add(line.substring(0, cut));
+                line = line.substring(cut).stripLeading();
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private List<String> pick(String[] values, int count) {
+        List<String> pool = new ArrayList<>(List.of(values));
+        List<String> picked = new ArrayList<>();
+        for (int i = 0; i < Math.min(count, values.length); i++) {
+            picked.add(pool.remove(random.nextInt(pool.size())));
+        }
+        return picked;
+    }
+
+    /**
+     * @param text what the application should extract from {@code content}
+     */
+    record ResumeFile(String filename, byte[] content, String text) {
+    }
+}
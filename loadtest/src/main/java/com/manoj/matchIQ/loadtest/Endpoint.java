@@ -0,0 +1,39 @@
+package com.manoj.matchIQ.loadtest;
+
+/**
+ * The API calls the load mixes; all but {@link #SCORE} create a job.
+ */
+enum Endpoint {
+    SUBMIT("submit", "POST /api/optimizations", true),
+    UPLOAD_RESUME("upload-resume", "POST /api/optimizations/upload-resume", true),
+    UPLOAD("upload", "POST /api/optimizations/upload", true),
+    FETCH_JOB("fetch-job", "POST /api/optimizations/fetch-job", true),
+    SCORE("score", "POST /api/optimizations/score", false);
+
+    private final String key;
+    private final String label;
+    private final boolean createsJob;
+
+    Endpoint(String key, String label, boolean createsJob) {
+        this.key = key;
+        this.label = label;
+        this.createsJob = createsJob;
+    }
+
+    String label() {
+        return label;
+    }
+
+    boolean createsJob() {
+        return createsJob;
+    }
+
+    static Endpoint byKey(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint in mix: " + key);
+    }
+}
@@ -0,0 +1,108 @@
+package com.manoj.matchIQ.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manoj.matchIQ.loadtest.LoadResults.SubmittedJob;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows up on accepted jobs once the load is over: reads each one with {@code timings=true}
+ * until it is terminal or the drain timeout passes. A job fell back when any of its LLM stages
+ * has a {@code fallback:*} outcome; its end-to-end latency runs from the intended submission
+ * time to the end of its last recorded stage.
+ */
+final class JobTracker {
+
+    private final String apiUrl;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    JobTracker(String baseUrl) {
+        this.apiUrl = baseUrl + "/api/optimizations/";
+    }
+
+    Outcomes track(List<SubmittedJob> jobs, Duration drainTimeout) throws InterruptedException {
+        Outcomes outcomes = new Outcomes();
+        List<SubmittedJob> pending = new ArrayList<>(jobs);
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            List<SubmittedJob> still = new ArrayList<>();
+            for (SubmittedJob job : pending) {
+                if (!check(job, outcomes)) {
+                    still.add(job);
+                }
+            }
+            pending = still;
+            if (!pending.isEmpty()) {
+                TimeUnit.SECONDS.sleep(1);
+            }
+        }
+        outcomes.unfinished = pending.size();
+        return outcomes;
+    }
+
+    /**
+     * @return whether the job is terminal (and recorded)
+     */
+    private boolean check(SubmittedJob job, Outcomes outcomes) throws InterruptedException {
+        JsonNode result;
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(apiUrl + job.id() + "?timings=true")).timeout(Duration.ofSeconds(10)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return false;
+            }
+            result = mapper.readTree(response.body());
+        } catch (IOException e) {
+            return false;
+        }
+        String status = result.path("status").asText();
+        if (!status.equals("COMPLETED") && !status.equals("FAILED")) {
+            return false;
+        }
+        boolean fallback = false;
+        Instant lastEnd = null;
+        for (JsonNode timing : result.path("timings")) {
+            fallback |= timing.path("outcome").asText().startsWith("fallback");
+            if (timing.hasNonNull("endedAt")) {
+                Instant ended = Instant.parse(timing.get("endedAt").asText());
+                lastEnd = lastEnd == null || ended.isAfter(lastEnd) ? ended : lastEnd;
+            }
+        }
+        if (status.equals("COMPLETED")) {
+            outcomes.completed++;
+        } else {
+            outcomes.failed++;
+        }
+        if (fallback) {
+            outcomes.fallback++;
+        }
+        if (lastEnd != null) {
+            outcomes.endToEndNanos.add(Duration.between(job.submittedAt(), lastEnd).toNanos());
+        }
+        return true;
+    }
+
+    static final class Outcomes {
+        long completed;
+        long failed;
+        long fallback;
+        long unfinished;
+        final List<Long> endToEndNanos = new ArrayList<>();
+
+        long[] sortedEndToEnd() {
+            return endToEndNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+    }
+}
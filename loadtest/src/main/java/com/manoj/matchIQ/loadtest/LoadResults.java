@@ -0,0 +1,106 @@
+package com.manoj.matchIQ.loadtest;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What the load generator observed: per-endpoint latencies and status codes, arrivals dropped
+ * at the client, and the jobs the API accepted (for {@link JobTracker} to follow up on).
+ */
+final class LoadResults {
+
+    private final Map<Endpoint, EndpointStats> endpoints = new EnumMap<>(Endpoint.class);
+    private final Queue<SubmittedJob> jobs = new ConcurrentLinkedQueue<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    LoadResults() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            endpoints.put(endpoint, new EndpointStats());
+        }
+    }
+
+    void recordResponse(Endpoint endpoint, int status, long latencyNanos) {
+        EndpointStats stats = endpoints.get(endpoint);
+        stats.latencies.add(latencyNanos);
+        stats.statuses.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+    }
+
+    void recordError(Endpoint endpoint, Throwable error) {
+        endpoints.get(endpoint).errors.computeIfAbsent(error.getClass().getSimpleName(), e -> new AtomicLong()).incrementAndGet();
+    }
+
+    void recordDropped() {
+        dropped.incrementAndGet();
+    }
+
+    void recordJob(SubmittedJob job) {
+        jobs.add(job);
+    }
+
+    EndpointStats endpoint(Endpoint endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    List<SubmittedJob> jobs() {
+        return List.copyOf(jobs);
+    }
+
+    static final class EndpointStats {
+        private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final Map<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+        private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+        long[] sortedLatencies() {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        long responsesInRange(int from, int to) {
+            return statuses.entrySet().stream()
+                    .filter(entry -> entry.getKey() >= from && entry.getKey() < to)
+                    .mapToLong(entry -> entry.getValue().get())
+                    .sum();
+        }
+
+        Map<Integer, AtomicLong> statuses() {
+            return statuses;
+        }
+
+        Map<String, AtomicLong> errors() {
+            return errors;
+        }
+
+        long errorCount() {
+            return errors.values().stream().mapToLong(AtomicLong::get).sum();
+        }
+    }
+
+    /**
+     * @param submittedAt intended send time of the request, on the wall clock the server also uses
+     */
+    record SubmittedJob(String id, Endpoint endpoint, Instant submittedAt) {
+    }
+
+    /**
+     * Nearest-rank percentile of a sorted array, 0 when empty.
+     */
+    static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
@@ -0,0 +1,63 @@
+package com.manoj.matchIQ.loadtest;
+
+import com.manoj.matchIQ.loadtest.CorpusGenerator.ResumeFile;
+
+import java.util.List;
+
+/**
+ * Entry point: generates the corpus, starts the stub LLM, MongoDB and the application (unless
+ * {@code app-url} names a running one), offers the load, waits for the accepted jobs and prints
+ * the report. Settings are {@code key=value} arguments, see {@link LoadTestConfig}.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+
+        CorpusGenerator corpus = new CorpusGenerator(config.seed());
+        List<String> postings = corpus.jobDescriptions(config.corpusSize());
+        List<ResumeFile> resumes = corpus.resumes(config.corpusSize());
+        System.out.printf("Generated %d resumes (TXT/PDF/DOCX) and %d job postings%n", resumes.size(), postings.size());
+
+        try (StubLlmServer stub = new StubLlmServer(config, postings)) {
+            System.out.println("Stub LLM at " + stub.completionsUrl());
+            if (!config.appUrl().isBlank()) {
+                run(config, config.appUrl(), resumes, postings, stub);
+                return;
+            }
+            MongoContainer mongo = config.mongoUri().isBlank() ? MongoContainer.start(config.mongoImage()) : null;
+            try {
+                String mongoUri = mongo != null ? mongo.uri() : config.mongoUri();
+                System.out.println("Starting " + config.appJar() + " against " + mongoUri);
+                try (AppProcess app = AppProcess.start(config, stub.completionsUrl(), mongoUri)) {
+                    run(config, app.baseUrl(), resumes, postings, stub);
+                }
+            } finally {
+                if (mongo != null) {
+                    mongo.close();
+                }
+            }
+        }
+    }
+
+    private static void run(LoadTestConfig config, String baseUrl, List<ResumeFile> resumes, List<String> postings,
+                            StubLlmServer stub) throws Exception {
+        LoadResults results = new LoadResults();
+        System.out.printf("Offering %.1f req/s to %s for %ds%n", config.rate(), baseUrl, config.duration().toSeconds());
+        long start = System.nanoTime();
+        new OpenModelLoad(config, baseUrl, resumes, postings, stub, results).run();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Waiting up to %ds for %d accepted jobs%n", config.drainTimeout().toSeconds(), results.jobs().size());
+        JobTracker.Outcomes outcomes = new JobTracker(baseUrl).track(results.jobs(), config.drainTimeout());
+
+        String report = Report.render(config, elapsedSeconds, results, outcomes, stub.stats());
+        System.out.println();
+        System.out.print(report);
+        Report.write(config.reportFile(), report);
+        System.out.println("Report written to " + config.reportFile().toAbsolutePath());
+    }
+}
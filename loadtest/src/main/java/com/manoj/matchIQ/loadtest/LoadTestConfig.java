@@ -0,0 +1,113 @@
+package com.manoj.matchIQ.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of one load-test run, given as {@code key=value} arguments; every key has a default.
+ *
+ * @param appJar        application jar to start; ignored when {@code appUrl} is set
+ * @param appUrl        base URL of an already running application (it must point
+ *                      {@code llm.api.url} at the stub itself, see {@code stubPort})
+ * @param mongoUri      MongoDB to start the application against; empty starts a throwaway container
+ * @param rate          offered load in requests per second, with Poisson arrivals
+ * @param duration      how long load is offered
+ * @param mix           relative weight of each endpoint
+ * @param drainTimeout  how long to wait after the load for submitted jobs to finish
+ * @param maxInFlight   requests outstanding before new arrivals are dropped (and counted)
+ * @param stubMedian    median stub LLM latency; latencies are log-normal around it
+ * @param stubSigma     log-normal shape; 0 makes every call take exactly the median
+ * @param stubErrorRate fraction of stub LLM calls answered with 503
+ * @param stubHangRate  fraction of stub LLM calls that never answer in time
+ */
+record LoadTestConfig(
+        Path appJar,
+        String appUrl,
+        String mongoUri,
+        String mongoImage,
+        int appPort,
+        double rate,
+        Duration duration,
+        Map<Endpoint, Integer> mix,
+        int corpusSize,
+        long seed,
+        Duration drainTimeout,
+        int maxInFlight,
+        int stubPort,
+        Duration stubMedian,
+        double stubSigma,
+        double stubErrorRate,
+        double stubHangRate,
+        Path reportFile) {
+
+    private static final Set<String> KNOWN_KEYS = Set.of(
+            "app-jar", "app-url", "mongo-uri", "mongo-image", "app-port", "rate", "duration", "mix",
+            "corpus-size", "seed", "drain-timeout", "max-in-flight", "stub-port", "stub-latency-median",
+            "stub-latency-sigma", "stub-error-rate", "stub-hang-rate", "report");
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            String trimmed = arg.startsWith("--") ? arg.substring(2) : arg;
+            int eq = trimmed.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            values.put(trimmed.substring(0, eq), trimmed.substring(eq + 1));
+        }
+        LoadTestConfig config = new LoadTestConfig(
+                Path.of(values.getOrDefault("app-jar", "../target/matchIQ-0.0.1-SNAPSHOT.jar")),
+                values.getOrDefault("app-url", ""),
+                values.getOrDefault("mongo-uri", ""),
+                values.getOrDefault("mongo-image", "mongo:7"),
+                Integer.parseInt(values.getOrDefault("app-port", "18080")),
+                Double.parseDouble(values.getOrDefault("rate", "10")),
+                duration(values.getOrDefault("duration", "60s")),
+                mix(values.getOrDefault("mix", "submit:4,upload-resume:3,upload:1,fetch-job:1,score:1")),
+                Integer.parseInt(values.getOrDefault("corpus-size", "50")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                duration(values.getOrDefault("drain-timeout", "180s")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "5000")),
+                Integer.parseInt(values.getOrDefault("stub-port", "0")),
+                duration(values.getOrDefault("stub-latency-median", "800ms")),
+                Double.parseDouble(values.getOrDefault("stub-latency-sigma", "0.5")),
+                Double.parseDouble(values.getOrDefault("stub-error-rate", "0.02")),
+                Double.parseDouble(values.getOrDefault("stub-hang-rate", "0")),
+                Path.of(values.getOrDefault("report", "target/loadtest-report.txt")));
+        values.keySet().removeAll(KNOWN_KEYS);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown settings: " + values.keySet());
+        }
+        return config;
+    }
+
+    /** {@code 500ms}, {@code 30s}, {@code 5m} or an ISO-8601 duration. */
+    static Duration duration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+
+    /** {@code submit:4,score:1}; endpoints left out get no traffic. */
+    static Map<Endpoint, Integer> mix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String part : value.split(",")) {
+            String[] kv = part.trim().split(":");
+            mix.put(Endpoint.byKey(kv[0]), kv.length > 1 ? Integer.parseInt(kv[1]) : 1);
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,50 @@
+package com.manoj.matchIQ.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throwaway MongoDB for one run: {@code docker run --rm} with the data directory on tmpfs and a
+ * random loopback port, stopped (and so removed) on close.
+ */
+final class MongoContainer implements AutoCloseable {
+
+    private final String containerId;
+    private final String uri;
+
+    private MongoContainer(String containerId, String uri) {
+        this.containerId = containerId;
+        this.uri = uri;
+    }
+
+    static MongoContainer start(String image) throws IOException, InterruptedException {
+        String id = docker("run", "-d", "--rm", "--tmpfs", "/data/db", "-p", "127.0.0.1::27017", image).strip();
+        String mapping = docker("port", id, "27017/tcp").lines().findFirst()
+                .orElseThrow(() -> new IOException("MongoDB container " + id + " exposes no port"));
+        // mongod accepts connections a moment after the container starts; the driver retries meanwhile
+        return new MongoContainer(id, "mongodb://" + mapping.strip() + "/matchIQ");
+    }
+
+    String uri() {
+        return uri;
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        docker("stop", containerId);
+    }
+
+    private static String docker(String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("docker"));
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (!process.waitFor(2, TimeUnit.MINUTES) || process.exitValue() != 0) {
+            throw new IOException("docker " + String.join(" ", args) + " failed: " + output);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,189 @@
+package com.manoj.matchIQ.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manoj.matchIQ.loadtest.CorpusGenerator.ResumeFile;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests arrive as a Poisson process at the configured rate no matter how
+ * fast the API answers, the way independent users would. Latency is measured from the intended
+ * arrival time, so a generator that falls behind does not hide queueing (coordinated omission).
+ * Every request carries a unique reference in its job description, so coalescing never merges them.
+ */
+final class OpenModelLoad {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(120);
+
+    private final LoadTestConfig config;
+    private final String apiUrl;
+    private final List<ResumeFile> resumes;
+    private final List<String> postings;
+    private final StubLlmServer stub;
+    private final LoadResults results;
+    private final Random random;
+    private final List<Endpoint> weighted = new ArrayList<>();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newFixedThreadPool(8, StubLlmServer.daemon("load-http")))
+            .build();
+
+    OpenModelLoad(LoadTestConfig config, String baseUrl, List<ResumeFile> resumes, List<String> postings,
+                  StubLlmServer stub, LoadResults results) {
+        this.config = config;
+        this.apiUrl = baseUrl + "/api/optimizations";
+        this.resumes = resumes;
+        this.postings = postings;
+        this.stub = stub;
+        this.results = results;
+        this.random = new Random(config.seed());
+        for (Map.Entry<Endpoint, Integer> entry : config.mix().entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                weighted.add(entry.getKey());
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("mix selects no endpoint");
+        }
+    }
+
+    /**
+     * Offers load for the configured duration, then waits for outstanding responses.
+     */
+    void run() throws InterruptedException {
+        long startNanos = System.nanoTime();
+        Instant startWall = Instant.now();
+        long endNanos = startNanos + config.duration().toNanos();
+        long next = startNanos;
+        long sequence = 0;
+        while (true) {
+            next += (long) (-Math.log(1 - random.nextDouble()) / config.rate() * 1e9);
+            if (next >= endNanos) {
+                break;
+            }
+            long wait;
+            while ((wait = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = weighted.get(random.nextInt(weighted.size()));
+            fire(endpoint, sequence++, next, startWall.plusNanos(next - startNanos));
+        }
+        long drainUntil = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+    }
+
+    private void fire(Endpoint endpoint, long sequence, long intendedNanos, Instant intendedWall) {
+        if (inFlight.get() >= config.maxInFlight()) {
+            results.recordDropped();
+            return;
+        }
+        HttpRequest request = request(endpoint, sequence);
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            try {
+                if (error != null) {
+                    results.recordError(endpoint, error.getCause() != null ? error.getCause() : error);
+                    return;
+                }
+                results.recordResponse(endpoint, response.statusCode(), System.nanoTime() - intendedNanos);
+                if (endpoint.createsJob() && response.statusCode() == 202) {
+                    JsonNode body = mapper.readTree(response.body());
+                    results.recordJob(new LoadResults.SubmittedJob(body.path("jobId").asText(), endpoint, intendedWall));
+                }
+            } catch (Exception e) {
+                results.recordError(endpoint, e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    private HttpRequest request(Endpoint endpoint, long sequence) {
+        ResumeFile resume = resumes.get((int) (sequence % resumes.size()));
+        int postingIndex = (int) ((sequence * 31) % postings.size());
+        String jobDescription = postings.get(postingIndex) + "Reference: load-" + sequence;
+        return switch (endpoint) {
+            case SUBMIT -> json(apiUrl, resume.text(), jobDescription);
+            case SCORE -> json(apiUrl + "/score", resume.text(), jobDescription);
+            case UPLOAD_RESUME -> multipart(apiUrl + "/upload-resume", resume, "jobDescription", jobDescription);
+            case UPLOAD -> multipart(apiUrl + "/upload", resume, "jobUrl", stub.postingUrl(postingIndex, sequence));
+            case FETCH_JOB -> form(apiUrl + "/fetch-job", Map.of(
+                    "resumeText", resume.text(),
+                    "jobUrl", stub.postingUrl(postingIndex, sequence)));
+        };
+    }
+
+    private HttpRequest json(String url, String resumeText, String jobDescription) {
+        String body = mapper.createObjectNode()
+                .put("resumeText", resumeText)
+                .put("jobDescription", jobDescription)
+                .toString();
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest form(String url, Map<String, String> fields) {
+        StringBuilder body = new StringBuilder();
+        fields.forEach((name, value) -> {
+            if (!body.isEmpty()) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        });
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private static HttpRequest multipart(String url, ResumeFile resume, String fieldName, String fieldValue) {
+        String boundary = "----matchiq-loadtest-" + Long.toHexString(System.nanoTime());
+        ByteArrayOutputStream body = new ByteArrayOutputStream(resume.content().length + 1024);
+        write(body, "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"resumeFile\"; filename=\"" + resume.filename() + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n");
+        body.writeBytes(resume.content());
+        write(body, "\r\n--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + fieldName + "\"\r\n"
+                + "Content-Type: text/plain; charset=UTF-8\r\n\r\n"
+                + fieldValue
+                + "\r\n--" + boundary + "--\r\n");
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+
+    private static void write(ByteArrayOutputStream out, String text) {
+        out.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,83 @@
+package com.manoj.matchIQ.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Plain-text summary of a run, printed and written to {@code report}.
+ */
+final class Report {
+
+    private Report() {
+    }
+
+    static String render(LoadTestConfig config, double elapsedSeconds, LoadResults results,
+                         JobTracker.Outcomes jobs, StubLlmServer.Stats stub) {
+        StringBuilder sb = new StringBuilder();
+        long sent = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            LoadResults.EndpointStats stats = results.endpoint(endpoint);
+            sent += stats.sortedLatencies().length + stats.errorCount();
+        }
+        sb.append(String.format("Offered %.1f req/s for %ds (mix %s); stub LLM median %dms sigma %.2f, errors %.1f%%, hangs %.1f%%%n",
+                config.rate(), config.duration().toSeconds(), config.mix(), config.stubMedian().toMillis(),
+                config.stubSigma(), config.stubErrorRate() * 100, config.stubHangRate() * 100));
+        sb.append(String.format("Completed %d requests in %.1fs (%.1f req/s), dropped at client: %d%n%n",
+                sent, elapsedSeconds, sent / elapsedSeconds, results.dropped()));
+
+        sb.append(String.format("%-42s %7s %7s %7s %7s %7s %8s %8s %8s %8s%n",
+                "endpoint", "count", "2xx", "4xx", "5xx", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (Endpoint endpoint : Endpoint.values()) {
+            LoadResults.EndpointStats stats = results.endpoint(endpoint);
+            long[] latencies = stats.sortedLatencies();
+            if (latencies.length == 0 && stats.errorCount() == 0) {
+                continue;
+            }
+            sb.append(String.format("%-42s %7d %7d %7d %7d %7d %8.1f %8.1f %8.1f %8.1f%n",
+                    endpoint.label(), latencies.length + stats.errorCount(),
+                    stats.responsesInRange(200, 300), stats.responsesInRange(400, 500), stats.responsesInRange(500, 600),
+                    stats.errorCount(),
+                    millis(LoadResults.percentile(latencies, 0.50)), millis(LoadResults.percentile(latencies, 0.90)),
+                    millis(LoadResults.percentile(latencies, 0.99)), millis(LoadResults.percentile(latencies, 1.0))));
+            Map<Integer, Long> unusual = new TreeMap<>();
+            stats.statuses().forEach((status, count) -> {
+                if (status >= 400) {
+                    unusual.put(status, count.get());
+                }
+            });
+            if (!unusual.isEmpty() || stats.errorCount() > 0) {
+                Map<String, Long> errors = new TreeMap<>();
+                stats.errors().forEach((type, count) -> errors.put(type, count.get()));
+                sb.append(String.format("    statuses %s errors %s%n", unusual, errors));
+            }
+        }
+
+        long finished = jobs.completed + jobs.failed;
+        long[] endToEnd = jobs.sortedEndToEnd();
+        sb.append(String.format("%nJobs accepted %d: completed %d, failed %d, unfinished after drain %d%n",
+                finished + jobs.unfinished, jobs.completed, jobs.failed, jobs.unfinished));
+        sb.append(String.format("Jobs with an LLM fallback: %d (%.1f%% of finished)%n",
+                jobs.fallback, finished == 0 ? 0.0 : 100.0 * jobs.fallback / finished));
+        sb.append(String.format("Job end-to-end ms: p50 %.0f, p90 %.0f, p99 %.0f, max %.0f%n",
+                millis(LoadResults.percentile(endToEnd, 0.50)), millis(LoadResults.percentile(endToEnd, 0.90)),
+                millis(LoadResults.percentile(endToEnd, 0.99)), millis(LoadResults.percentile(endToEnd, 1.0))));
+        sb.append(String.format("Stub LLM calls %d (503s %d, hangs %d), job page fetches %d%n",
+                stub.calls(), stub.errors(), stub.hangs(), stub.pageViews()));
+        return sb.toString();
+    }
+
+    static void write(Path file, String report) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, report);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
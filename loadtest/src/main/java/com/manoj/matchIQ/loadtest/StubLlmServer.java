@@ -0,0 +1,161 @@
+package com.manoj.matchIQ.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OpenAI-compatible {@code /v1/chat/completions} stub with log-normal latency, a 503 rate and a
+ * hang rate, plus {@code /jobs/{n}} pages serving the synthetic postings to the URL-fetching
+ * endpoints. Responses are delayed on a scheduler, so slow calls do not hold a thread each.
+ */
+final class StubLlmServer implements AutoCloseable {
+
+    /** A hung call is answered (with 504) only after this, long past the client's read timeout. */
+    private static final Duration HANG = Duration.ofMinutes(5);
+
+    private final HttpServer server;
+    private final ScheduledExecutorService responder = Executors.newScheduledThreadPool(4, daemon("stub-llm"));
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Random random;
+    private final Duration median;
+    private final double sigma;
+    private final double errorRate;
+    private final double hangRate;
+    private final List<String> postings;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong hangs = new AtomicLong();
+    private final AtomicLong pageViews = new AtomicLong();
+
+    StubLlmServer(LoadTestConfig config, List<String> postings) throws IOException {
+        this.random = new Random(config.seed());
+        this.median = config.stubMedian();
+        this.sigma = config.stubSigma();
+        this.errorRate = config.stubErrorRate();
+        this.hangRate = config.stubHangRate();
+        this.postings = postings;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", config.stubPort()), 1024);
+        server.createContext("/v1/chat/completions", this::completion);
+        server.createContext("/jobs/", this::posting);
+        server.setExecutor(Executors.newFixedThreadPool(8, daemon("stub-http")));
+        server.start();
+    }
+
+    String completionsUrl() {
+        return baseUrl() + "/v1/chat/completions";
+    }
+
+    /**
+     * @param variant makes the page (and so the stored job description) unique per request
+     */
+    String postingUrl(int index, long variant) {
+        return baseUrl() + "/jobs/" + index + "?v=" + variant;
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void completion(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        calls.incrementAndGet();
+        double roll;
+        long delayMs;
+        synchronized (random) {
+            roll = random.nextDouble();
+            delayMs = Math.round(median.toMillis() * Math.exp(sigma * random.nextGaussian()));
+        }
+        if (roll < hangRate) {
+            hangs.incrementAndGet();
+            responder.schedule(() -> respond(exchange, 504, "{\"error\":\"stub hang\"}"), HANG.toMillis(), TimeUnit.MILLISECONDS);
+        } else if (roll < hangRate + errorRate) {
+            errors.incrementAndGet();
+            responder.schedule(() -> respond(exchange, 503, "{\"error\":\"stub overloaded\"}"), delayMs / 10, TimeUnit.MILLISECONDS);
+        } else {
+            responder.schedule(() -> respond(exchange, 200, completionBody()), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private String completionBody() {
+        ObjectNode body = mapper.createObjectNode();
+        body.putArray("choices").addObject().putObject("message")
+                .put("role", "assistant")
+                .put("content", "- Delivered measurable results with the required stack\n"
+                        + "- Improved reliability and latency of production services\n"
+                        + "- Collaborated across teams to ship features on schedule");
+        body.putObject("usage").put("prompt_tokens", 900).put("completion_tokens", 120);
+        return body.toString();
+    }
+
+    private void posting(HttpExchange exchange) {
+        pageViews.incrementAndGet();
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getQuery();
+        try {
+            int index = Integer.parseInt(path.substring("/jobs/".length()));
+            String text = postings.get(index % postings.size()) + "Reference: " + (query == null ? "" : query);
+            StringBuilder html = new StringBuilder("<html><head><title>Job ").append(index)
+                    .append("</title></head><body><nav>Sign in | Jobs</nav><div class=\"job-description\">");
+            for (String line : text.split("\n")) {
+                html.append("<p>").append(line).append("</p>");
+            }
+            html.append("</div><footer>Copyright Stub Jobs</footer></body></html>");
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+            respond(exchange, 200, html.toString());
+        } catch (RuntimeException e) {
+            respond(exchange, 404, "not found");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        try {
+            if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+            }
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (IOException e) {
+            // the client gave up (hedged, cancelled or timed out)
+        } finally {
+            exchange.close();
+        }
+    }
+
+    Stats stats() {
+        return new Stats(calls.get(), errors.get(), hangs.get(), pageViews.get());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        responder.shutdownNow();
+    }
+
+    static ThreadFactory daemon(String name) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    record Stats(long calls, long errors, long hangs, long pageViews) {
+    }
+}
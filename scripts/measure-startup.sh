@@ -0,0 +1,86 @@
+#!/usr/bin/env bash
+# Compares startup of the plain jar, the AOT + CDS build and (if built) the native image.
+#
+#   ./mvnw clean package -DskipTests && cp target/matchIQ-*.jar /tmp/matchIQ-plain.jar
+#   ./mvnw -Pcds clean package -DskipTests -Dmatchiq.aot.profile=api
+#   ./mvnw -Pnative clean native:compile -DskipTests      # optional, needs GraalVM
+#   PLAIN_JAR=/tmp/matchIQ-plain.jar scripts/measure-startup.sh
+#
+# For each variant it records, as the median of RUNS runs: time until /actuator/health answers
+# 200, Spring's own "Started ... in" time, and the resident set size once healthy.
+# MongoDB comes from MONGO_URI, or a throwaway Docker container otherwise.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+PROFILE=${PROFILE:-api}
+PLAIN_JAR=${PLAIN_JAR:-}
+CDS_DIR=target/cds
+NATIVE_BIN=target/matchIQ
+
+mongo_container=""
+cleanup() {
+    if [[ -n "$mongo_container" ]]; then
+        docker rm -f "$mongo_container" >/dev/null
+    fi
+}
+trap cleanup EXIT
+
+if [[ -z "${MONGO_URI:-}" ]]; then
+    mongo_container=$(docker run -d --rm -p 127.0.0.1::27017 --tmpfs /data/db mongo:7)
+    MONGO_URI="mongodb://$(docker port "$mongo_container" 27017/tcp | head -1)/matchIQ"
+    sleep 3
+fi
+
+app_args=(--server.port="$PORT" --spring.profiles.active="$PROFILE" --spring.data.mongodb.uri="$MONGO_URI"
+          --llm.api.key=unused --logging.level.root=INFO)
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+# measure <label> <workdir> <command...>
+measure() {
+    local label=$1 dir=$2
+    shift 2
+    local ready=() started=() rss=()
+    for ((i = 1; i <= RUNS; i++)); do
+        local log
+        log=$(mktemp)
+        local t0
+        t0=$(date +%s%N)
+        (cd "$dir" && exec "$@" "${app_args[@]}") >"$log" 2>&1 &
+        local pid=$!
+        until curl -sf "http://localhost:$PORT/actuator/health" >/dev/null; do
+            if ! kill -0 "$pid" 2>/dev/null; then
+                echo "$label did not start, see $log" >&2
+                return 1
+            fi
+            sleep 0.02
+        done
+        ready+=($(( ($(date +%s%N) - t0) / 1000000 )))
+        started+=("$(grep -o 'Started MatchIqApplication in [0-9.]*' "$log" | awk '{ print $4 * 1000 }' || true)")
+        rss+=($(( $(ps -o rss= -p "$pid") / 1024 )))
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+        rm -f "$log"
+    done
+    printf '| %s | %s | %s | %s |\n' "$label" \
+        "$(printf '%s\n' "${ready[@]}" | median)" \
+        "$(printf '%s\n' "${started[@]}" | median)" \
+        "$(printf '%s\n' "${rss[@]}" | median)"
+}
+
+echo "| Variant | Healthy (ms) | Spring started (ms) | RSS (MB) |"
+echo "|---------|--------------|---------------------|----------|"
+if [[ -n "$PLAIN_JAR" ]]; then
+    measure "JVM" . java -jar "$PLAIN_JAR"
+fi
+if [[ -f "$CDS_DIR/application.jsa" ]]; then
+    jar=$(basename "$(ls "$CDS_DIR"/*.jar | head -1)")
+    measure "JVM + AOT + CDS" "$CDS_DIR" java -XX:SharedArchiveFile=application.jsa --add-modules jdk.incubator.vector -Dspring.aot.enabled=true -jar "$jar"
+fi
+if [[ -x "$NATIVE_BIN" ]]; then
+    measure "Native image" . "$NATIVE_BIN"
+fi
@@ -1,11 +1,16 @@
 package com.manoj.matchIQ;
 
+import com.manoj.matchIQ.config.MatchIqRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableAsync
+@EnableScheduling
+@ImportRuntimeHints(MatchIqRuntimeHints.class)
 public class MatchIqApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,59 @@
+package com.manoj.matchIQ.config;
+
+import com.manoj.matchIQ.service.TenantPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Authenticates requests carrying an {@code X-API-Key} header as the {@link TenantPrincipal}
+ * holding that key; an unknown key is answered with 401 right away. Requests without a key are
+ * left to the anonymous filter, see {@link SecurityConfig}.
+ */
+public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private final TenantProperties tenants;
+
+    public ApiKeyAuthenticationFilter(TenantProperties tenants) {
+        this.tenants = tenants;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey != null) {
+            Optional<TenantPrincipal> tenant = tenants.authenticate(apiKey);
+            if (tenant.isEmpty()) {
+                response.sendError(HttpStatus.UNAUTHORIZED.value(), "Unknown API key");
+                return;
+            }
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(authentication(tenant.get()));
+            SecurityContextHolder.setContext(context);
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Shared with the reactive filter. Analytics tenants also get {@code ROLE_ANALYTICS}.
+     */
+    static Authentication authentication(TenantPrincipal tenant) {
+        return new PreAuthenticatedAuthenticationToken(tenant, null, tenant.analytics()
+                ? AuthorityUtils.createAuthorityList("ROLE_TENANT", "ROLE_ANALYTICS")
+                : AuthorityUtils.createAuthorityList("ROLE_TENANT"));
+    }
+}
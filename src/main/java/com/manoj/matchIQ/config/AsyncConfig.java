@@ -1,22 +1,77 @@
 package com.manoj.matchIQ.config;
 
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
+    /**
+     * Declared as {@link ThreadPoolTaskExecutor} so Actuator binds its pool and queue
+     * gauges ({@code executor.queued}, {@code executor.active}, ...) under
+     * {@code name=optimizationExecutor}; rejections are counted separately.
+     */
     @Bean(name = "optimizationExecutor")
-    public Executor optimizationExecutor() {
+    public ThreadPoolTaskExecutor optimizationExecutor(PipelineMetrics metrics) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(25);
         executor.setThreadNamePrefix("Optimization-");
+        ThreadPoolExecutor.AbortPolicy abort = new ThreadPoolExecutor.AbortPolicy();
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            metrics.recordExecutorRejection("optimizationExecutor");
+            abort.rejectedExecution(task, pool);
+        });
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Score-only requests ({@code POST /api/optimizations/score}) are CPU-bound and short, so
+     * they get their own pool sized to the CPUs instead of queueing behind LLM generation.
+     */
+    @Bean(name = "scoringExecutor")
+    public ThreadPoolTaskExecutor scoringExecutor(PipelineMetrics metrics) {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cpus);
+        executor.setMaxPoolSize(cpus);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("Scoring-");
+        ThreadPoolExecutor.AbortPolicy abort = new ThreadPoolExecutor.AbortPolicy();
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            metrics.recordExecutorRejection("scoringExecutor");
+            abort.rejectedExecution(task, pool);
+        });
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Parses resumes from bulk upload archives. Threads plus queue capacity bound how many
+     * archive entries are held in memory at once, see {@code BulkResumeIngestionService}.
+     */
+    @Bean(name = "bulkParsingExecutor")
+    public ThreadPoolTaskExecutor bulkParsingExecutor(PipelineMetrics metrics,
+                                                      @Value("${matchiq.bulk.parse-threads:0}") int threads) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(size);
+        executor.setThreadNamePrefix("BulkParse-");
+        ThreadPoolExecutor.AbortPolicy abort = new ThreadPoolExecutor.AbortPolicy();
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            metrics.recordExecutorRejection("bulkParsingExecutor");
+            abort.rejectedExecution(task, pool);
+        });
         executor.initialize();
         return executor;
     }
@@ -0,0 +1,112 @@
+package com.manoj.matchIQ.config;
+
+import com.manoj.matchIQ.dto.OptimizationRequest;
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
+import com.manoj.matchIQ.dto.OptimizationSubmissionResponse;
+import com.manoj.matchIQ.dto.ScoreResponse;
+import com.manoj.matchIQ.model.StageTiming;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reflection and resource hints for a GraalVM native image (and AOT in general) covering what
+ * Spring cannot infer on its own:
+ * <ul>
+ *   <li>PDFBox/FontBox load glyph lists, font metrics, ICC profiles and CMaps as resources and
+ *   create security handlers reflectively.</li>
+ *   <li>POI's XMLBeans schema types are resolved by class name from {@code .xsb} resources and
+ *   instantiated through their {@code impl} constructors. The generated classes of the schemas a
+ *   DOCX can use are listed from the classpath while AOT processing runs.</li>
+ *   <li>Jackson serializes the DTOs through SSE events, {@code DeferredResult} and futures, which
+ *   the controller signatures do not reveal.</li>
+ * </ul>
+ * Jsoup needs no hints; its HTTP fetches and page charsets are enabled by the native build arguments.
+ */
+public class MatchIqRuntimeHints implements RuntimeHintsRegistrar {
+    private static final Logger log = LoggerFactory.getLogger(MatchIqRuntimeHints.class);
+
+    private static final List<String> RESOURCE_PATTERNS = List.of(
+            "org/apache/pdfbox/resources/**",
+            "org/apache/fontbox/cmap/*",
+            "org/apache/fontbox/unicode/*",
+            "org/apache/poi/schemas/ooxml/**",
+            "org/apache/xmlbeans/metadata/**");
+
+    /** XMLBeans packages (interfaces, with their {@code impl} sub-package) reachable from a DOCX. */
+    private static final List<String> XMLBEANS_PACKAGES = List.of(
+            "org/openxmlformats/schemas/wordprocessingml/x2006/main",
+            "org/openxmlformats/schemas/officeDocument/x2006/sharedTypes",
+            "org/openxmlformats/schemas/officeDocument/x2006/relationships",
+            "org/openxmlformats/schemas/officeDocument/x2006/math",
+            "org/openxmlformats/schemas/officeDocument/x2006/extendedProperties",
+            "org/openxmlformats/schemas/officeDocument/x2006/customProperties",
+            "org/openxmlformats/schemas/officeDocument/x2006/docPropsVTypes",
+            "org/openxmlformats/schemas/drawingml/x2006/main",
+            "org/openxmlformats/schemas/drawingml/x2006/wordprocessingDrawing",
+            "org/openxmlformats/schemas/drawingml/x2006/picture",
+            "com/microsoft/schemas/vml",
+            "com/microsoft/schemas/office/office",
+            "com/microsoft/schemas/office/word",
+            "com/microsoft/schemas/compatibility");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        RESOURCE_PATTERNS.forEach(pattern -> hints.resources().registerPattern(pattern));
+
+        hints.reflection().registerType(TypeReference.of("org.apache.pdfbox.pdmodel.encryption.StandardSecurityHandler"),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        hints.reflection().registerType(TypeReference.of("org.apache.pdfbox.pdmodel.encryption.PublicKeySecurityHandler"),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        hints.reflection().registerType(TypeReference.of("org.apache.poi.schemas.ooxml.system.ooxml.TypeSystemHolder"),
+                MemberCategory.PUBLIC_FIELDS, MemberCategory.DECLARED_FIELDS);
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+        for (String pkg : XMLBEANS_PACKAGES) {
+            for (String className : classesIn(resolver, pkg)) {
+                // interfaces are looked up by name, implementations also constructed
+                MemberCategory[] categories = className.contains(".impl.")
+                        ? new MemberCategory[] {MemberCategory.INVOKE_DECLARED_CONSTRUCTORS}
+                        : new MemberCategory[0];
+                hints.reflection().registerType(TypeReference.of(className), categories);
+            }
+        }
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                OptimizationRequest.class,
+                OptimizationResultResponse.class,
+                OptimizationSubmissionResponse.class,
+                ScoreResponse.class,
+                StageTiming.class);
+    }
+
+    private static List<String> classesIn(PathMatchingResourcePatternResolver resolver, String pkg) {
+        try {
+            Resource[] interfaces = resolver.getResources("classpath*:" + pkg + "/*.class");
+            Resource[] impls = resolver.getResources("classpath*:" + pkg + "/impl/*.class");
+            return Stream.concat(
+                            Arrays.stream(interfaces).map(resource -> className(pkg, resource)),
+                            Arrays.stream(impls).map(resource -> className(pkg + "/impl", resource)))
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Could not list XMLBeans classes in {}: {}", pkg, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static String className(String pkg, Resource resource) {
+        String file = resource.getFilename();
+        return pkg.replace('/', '.') + "." + file.substring(0, file.length() - ".class".length());
+    }
+}
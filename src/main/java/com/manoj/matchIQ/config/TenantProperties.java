@@ -0,0 +1,60 @@
+package com.manoj.matchIQ.config;
+
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.service.TenantPrincipal;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * API keys and per-tenant limits. Requests authenticate with {@code X-API-Key}, and the tenant
+ * they act for is the one holding the key:
+ * <pre>
+ * matchiq.security.tenants.agency-42.api-key=...
+ * matchiq.security.tenants.agency-42.max-priority=BULK
+ * matchiq.security.tenants.agency-42.analytics=true
+ * </pre>
+ * With {@code anonymous-access=true}, requests without a key act for the default tenant, whose
+ * limits are set the same way under {@code tenants.default} (an api-key is optional there).
+ */
+@ConfigurationProperties(prefix = "matchiq.security")
+public record TenantProperties(@DefaultValue("true") boolean anonymousAccess, @DefaultValue Map<String, Tenant> tenants) {
+
+    /**
+     * @param maxPriority most urgent priority the tenant may submit with
+     * @param analytics   may export the texts and generated content of its jobs
+     */
+    public record Tenant(String apiKey, @DefaultValue("INTERACTIVE") JobPriority maxPriority, boolean analytics) {
+    }
+
+    /**
+     * The tenant holding {@code apiKey}. Keys are compared in constant time.
+     */
+    public Optional<TenantPrincipal> authenticate(String apiKey) {
+        byte[] presented = apiKey.getBytes(StandardCharsets.UTF_8);
+        for (Map.Entry<String, Tenant> tenant : tenants.entrySet()) {
+            String key = tenant.getValue().apiKey();
+            if (key != null && !key.isBlank()
+                    && MessageDigest.isEqual(key.getBytes(StandardCharsets.UTF_8), presented)) {
+                Tenant config = tenant.getValue();
+                return Optional.of(new TenantPrincipal(tenant.getKey(), config.maxPriority(), config.analytics()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The default tenant, for requests without a key when {@link #anonymousAccess()} is set.
+     * Never an analytics tenant.
+     */
+    public TenantPrincipal anonymous() {
+        Tenant tenant = tenants.get(OptimizationJob.DEFAULT_TENANT);
+        return new TenantPrincipal(OptimizationJob.DEFAULT_TENANT,
+                tenant != null ? tenant.maxPriority() : JobPriority.INTERACTIVE, false);
+    }
+}
@@ -0,0 +1,51 @@
+package com.manoj.matchIQ.config;
+
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor streamingExecutor;
+
+    public WebMvcConfig(@Qualifier("streamingExecutor") ThreadPoolTaskExecutor streamingExecutor) {
+        this.streamingExecutor = streamingExecutor;
+    }
+
+    /**
+     * Writes {@code StreamingResponseBody} responses (bulk-upload NDJSON, exports). Boot only
+     * gives Spring MVC a pool when the context has no other executor, and AsyncConfig defines
+     * several, so without this every stream would get a new thread. A full pool answers 503.
+     */
+    @Bean(name = "streamingExecutor")
+    public static ThreadPoolTaskExecutor streamingExecutor(PipelineMetrics metrics,
+                                                           @Value("${matchiq.streaming.threads:16}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("Streaming-");
+        ThreadPoolExecutor.AbortPolicy abort = new ThreadPoolExecutor.AbortPolicy();
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            metrics.recordExecutorRejection("streamingExecutor");
+            abort.rejectedExecution(task, pool);
+        });
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+    }
+}
@@ -1,5 +1,9 @@
 package com.manoj.matchIQ.controller;
 
+import com.manoj.matchIQ.service.InvalidExportQueryException;
+import com.manoj.matchIQ.service.JobNotFinishedException;
+import com.manoj.matchIQ.service.TenantQuotaExceededException;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -27,4 +31,28 @@ public class ApiExceptionHandler {
                 .orElse("Validation error");
         return Map.of("error", message);
     }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, String> handleRejected(TaskRejectedException ex) {
+        return Map.of("error", "Too many optimizations in progress, please retry shortly");
+    }
+
+    @ExceptionHandler(TenantQuotaExceededException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public Map<String, String> handleTenantQuota(TenantQuotaExceededException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(JobNotFinishedException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleNotFinished(JobNotFinishedException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidExportQueryException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleInvalidExport(InvalidExportQueryException ex) {
+        return Map.of("error", ex.getMessage());
+    }
 }
@@ -1,38 +1,102 @@
 package com.manoj.matchIQ.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manoj.matchIQ.dto.BulkUploadEntryResponse;
 import com.manoj.matchIQ.dto.OptimizationRequest;
 import com.manoj.matchIQ.dto.OptimizationResultResponse;
 import com.manoj.matchIQ.dto.OptimizationSubmissionResponse;
+import com.manoj.matchIQ.dto.ScoreResponse;
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import com.manoj.matchIQ.model.JobPriority;
 import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import com.manoj.matchIQ.model.PipelineStage;
+import com.manoj.matchIQ.model.StageTiming;
+import com.manoj.matchIQ.service.BulkResumeIngestionService;
 import com.manoj.matchIQ.service.DocumentParsingService;
 import com.manoj.matchIQ.service.JobDescriptionFetcherService;
+import com.manoj.matchIQ.service.JobExportQuery;
+import com.manoj.matchIQ.service.JobExportService;
+import com.manoj.matchIQ.service.JobStatusNotifier;
+import com.manoj.matchIQ.service.OptimizationResultCache;
 import com.manoj.matchIQ.service.ResumeOptimizationService;
+import com.manoj.matchIQ.service.ScoreOnlyService;
+import com.manoj.matchIQ.service.SubmissionContext;
+import com.manoj.matchIQ.service.TenantPrincipal;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/optimizations")
 public class OptimizationController {
     private static final Logger log = LoggerFactory.getLogger(OptimizationController.class);
+    /** INTERACTIVE (default), BULK or BATCH; capped at the tenant's maximum priority. */
+    static final String PRIORITY_HEADER = "X-Priority";
+    /** Body of bulk-upload: the archive itself, streamed rather than parsed as a multipart part. */
+    static final String ZIP_MEDIA_TYPE = "application/zip";
+    private static final CacheControl TERMINAL_CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
     
     private final ResumeOptimizationService optimizationService;
+    private final ScoreOnlyService scoreOnlyService;
     private final DocumentParsingService documentParsingService;
     private final JobDescriptionFetcherService jobFetcherService;
+    private final JobStatusNotifier statusNotifier;
+    private final OptimizationResultCache resultCache;
+    private final BulkResumeIngestionService bulkIngestionService;
+    private final ObjectMapper objectMapper;
+    private final JobExportService exportService;
+    private final long maxWaitSeconds;
+    private final long sseTimeoutSeconds;
 
     public OptimizationController(
             ResumeOptimizationService optimizationService,
+            ScoreOnlyService scoreOnlyService,
             DocumentParsingService documentParsingService,
-            JobDescriptionFetcherService jobFetcherService) {
+            JobDescriptionFetcherService jobFetcherService,
+            JobStatusNotifier statusNotifier,
+            OptimizationResultCache resultCache,
+            BulkResumeIngestionService bulkIngestionService,
+            ObjectMapper objectMapper,
+            JobExportService exportService,
+            @Value("${matchiq.notifications.max-wait-seconds:60}") long maxWaitSeconds,
+            @Value("${matchiq.notifications.sse-timeout-seconds:600}") long sseTimeoutSeconds) {
         this.optimizationService = optimizationService;
+        this.scoreOnlyService = scoreOnlyService;
         this.documentParsingService = documentParsingService;
         this.jobFetcherService = jobFetcherService;
-        log.info("OptimizationController initialized");
+        this.statusNotifier = statusNotifier;
+        this.resultCache = resultCache;
+        this.bulkIngestionService = bulkIngestionService;
+        this.objectMapper = objectMapper;
+        this.exportService = exportService;
+        this.maxWaitSeconds = maxWaitSeconds;
+        this.sseTimeoutSeconds = sseTimeoutSeconds;
     }
 
     /**
@@ -40,47 +104,47 @@ public class OptimizationController {
      */
     @PostMapping
     @ResponseStatus(HttpStatus.ACCEPTED)
-    public OptimizationSubmissionResponse submitOptimization(@Valid @RequestBody OptimizationRequest request) {
-        log.info("POST /api/optimizations - Received optimization request (text-based)");
-        log.debug("Request details - Resume length: {}, Job description length: {}", 
-                request.resumeText() != null ? request.resumeText().length() : 0,
-                request.jobDescription() != null ? request.jobDescription().length() : 0);
-        
-        OptimizationJob saved = optimizationService.submit(request);
-        
-        log.info("Optimization submitted successfully - Job ID: {}, Status: {}", saved.getId(), saved.getStatus());
+    public OptimizationSubmissionResponse submitOptimization(
+            @Valid @RequestBody OptimizationRequest request,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = PRIORITY_HEADER, required = false) JobPriority priority) {
+        OptimizationJob saved = optimizationService.submit(request, List.of(), tenant.submission(priority));
+        log.debug("POST /api/optimizations - Job ID: {}", saved.getId());
         return new OptimizationSubmissionResponse(saved.getId(), saved.getStatus());
     }
 
+    /**
+     * Keywords and ATS score only, computed in memory and answered directly: no job is
+     * stored and no LLM is called.
+     */
+    @PostMapping("/score")
+    public CompletableFuture<ScoreResponse> score(@Valid @RequestBody OptimizationRequest request) {
+        log.debug("POST /api/optimizations/score");
+        return scoreOnlyService.score(request);
+    }
+
     @PostMapping("/upload")
     @ResponseStatus(HttpStatus.ACCEPTED)
     public OptimizationSubmissionResponse submitOptimizationWithFile(
             @RequestParam("resumeFile") MultipartFile resumeFile,
-            @RequestParam("jobUrl") String jobUrl) throws IOException {
-        
-        log.info("========================================");
-        log.info("POST /api/optimizations/upload - NEW endpoint");
-        log.info("    Resume file: {}", resumeFile.getOriginalFilename());
-        log.info("    Job URL: {}", jobUrl);
-        log.info("========================================");
+            @RequestParam("jobUrl") String jobUrl,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = PRIORITY_HEADER, required = false) JobPriority priority) throws IOException {
         
-        log.info("Step 1: Extracting text from resume file...");
+        List<StageTiming> intakeTimings = new ArrayList<>();
+
+        Instant parseStart = Instant.now();
         String resumeText = documentParsingService.extractTextFromResume(resumeFile);
-        log.info("✓ Resume text extracted - {} characters", resumeText.length());
+        intakeTimings.add(StageTiming.between(PipelineMetrics.STAGE_PARSE, parseStart, Instant.now()));
         
-        log.info("Step 2: Fetching job description from URL...");
+        Instant fetchStart = Instant.now();
         String jobDescription = jobFetcherService.fetchJobDescription(jobUrl);
-        log.info("✓ Job description fetched - {} characters", jobDescription.length());
+        intakeTimings.add(StageTiming.between(PipelineMetrics.STAGE_FETCH, fetchStart, Instant.now()));
         
-        log.info("Step 3: Submitting optimization job...");
         OptimizationRequest request = new OptimizationRequest(resumeText, jobDescription);
-        OptimizationJob saved = optimizationService.submit(request);
-        
-        log.info("========================================");
-        log.info("✓ Optimization submitted successfully");
-        log.info("    Job ID: {}", saved.getId());
-        log.info("    Status: {}", saved.getStatus());
-        log.info("========================================");
+        OptimizationJob saved = optimizationService.submit(request, intakeTimings, tenant.submission(priority));
+        log.debug("POST /api/optimizations/upload - Resume file: {}, Job URL: {}, Job ID: {}",
+                resumeFile.getOriginalFilename(), jobUrl, saved.getId());
         
         return new OptimizationSubmissionResponse(saved.getId(), saved.getStatus());
     }
@@ -89,21 +153,20 @@ public class OptimizationController {
     @ResponseStatus(HttpStatus.ACCEPTED)
     public OptimizationSubmissionResponse submitOptimizationWithResumeFile(
             @RequestParam("resumeFile") MultipartFile resumeFile,
-            @RequestParam("jobDescription") String jobDescription) throws IOException {
-        
-        log.info("POST /api/optimizations/upload-resume");
-        log.info("    Resume file: {}, Job description length: {}", 
-                resumeFile.getOriginalFilename(), jobDescription.length());
+            @RequestParam("jobDescription") String jobDescription,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = PRIORITY_HEADER, required = false) JobPriority priority) throws IOException {
         
         // Extract text from resume file
+        Instant parseStart = Instant.now();
         String resumeText = documentParsingService.extractTextFromResume(resumeFile);
-        log.info("✓ Resume text extracted - {} characters", resumeText.length());
+        StageTiming parseTiming = StageTiming.between(PipelineMetrics.STAGE_PARSE, parseStart, Instant.now());
         
         // Submit optimization
         OptimizationRequest request = new OptimizationRequest(resumeText, jobDescription);
-        OptimizationJob saved = optimizationService.submit(request);
-        
-        log.info("Optimization submitted - Job ID: {}", saved.getId());
+        OptimizationJob saved = optimizationService.submit(request, List.of(parseTiming), tenant.submission(priority));
+        log.debug("POST /api/optimizations/upload-resume - Resume file: {}, Job ID: {}",
+                resumeFile.getOriginalFilename(), saved.getId());
         return new OptimizationSubmissionResponse(saved.getId(), saved.getStatus());
     }
 
@@ -111,39 +174,248 @@ public class OptimizationController {
     @ResponseStatus(HttpStatus.ACCEPTED)
     public OptimizationSubmissionResponse submitOptimizationWithJobUrl(
             @RequestParam("resumeText") String resumeText,
-            @RequestParam("jobUrl") String jobUrl) throws IOException {
-        
-        log.info("POST /api/optimizations/fetch-job");
-        log.info("    Resume length: {}, Job URL: {}", resumeText.length(), jobUrl);
+            @RequestParam("jobUrl") String jobUrl,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = PRIORITY_HEADER, required = false) JobPriority priority) throws IOException {
         
         // Fetch job description from URL
+        Instant fetchStart = Instant.now();
         String jobDescription = jobFetcherService.fetchJobDescription(jobUrl);
-        log.info("✓ Job description fetched - {} characters", jobDescription.length());
+        StageTiming fetchTiming = StageTiming.between(PipelineMetrics.STAGE_FETCH, fetchStart, Instant.now());
         
         // Submit optimization
         OptimizationRequest request = new OptimizationRequest(resumeText, jobDescription);
-        OptimizationJob saved = optimizationService.submit(request);
-        
-        log.info("Optimization submitted - Job ID: {}", saved.getId());
+        OptimizationJob saved = optimizationService.submit(request, List.of(fetchTiming), tenant.submission(priority));
+        log.debug("POST /api/optimizations/fetch-job - Job URL: {}, Job ID: {}", jobUrl, saved.getId());
+        return new OptimizationSubmissionResponse(saved.getId(), saved.getStatus());
+    }
+
+    /**
+     * One job per resume (PDF, DOCX or TXT) in the ZIP archive sent as the request body, all for
+     * the same job description; BULK priority unless {@code X-Priority} says otherwise. The body
+     * is read while the response is written, so the multipart limit does not apply to it; see
+     * {@code matchiq.bulk.max-archive-bytes}. Answers NDJSON, one {@link BulkUploadEntryResponse}
+     * line per file as soon as its job is stored or it is rejected.
+     */
+    @PostMapping(value = "/bulk-upload", consumes = ZIP_MEDIA_TYPE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> submitBulkUpload(
+            InputStream archive,
+            @RequestParam("jobDescription") String jobDescription,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = PRIORITY_HEADER, required = false) JobPriority priority) {
+        SubmissionContext context = tenant.submission(priority != null ? priority : JobPriority.BULK);
+        log.debug("POST /api/optimizations/bulk-upload - Tenant: {}", context.tenantId());
+        StreamingResponseBody body = out -> bulkIngestionService.ingest(archive, jobDescription, List.of(), context, line -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(line));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Runs a finished optimization again as a new job. {@code fromStage} and the stages that
+     * depend on it are recomputed; the others reuse their memoized results.
+     */
+    @PostMapping("/{id}/rerun")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public OptimizationSubmissionResponse rerunOptimization(
+            @PathVariable String id,
+            @RequestParam("fromStage") PipelineStage fromStage,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = PRIORITY_HEADER, required = false) JobPriority priority) {
+        OptimizationJob saved = optimizationService.rerun(id, fromStage, tenant.submission(priority));
+        log.debug("POST /api/optimizations/{}/rerun - From stage: {}, Job ID: {}", id, fromStage, saved.getId());
         return new OptimizationSubmissionResponse(saved.getId(), saved.getStatus());
     }
 
+    /**
+     * Jobs as NDJSON, oldest first, streamed from a MongoDB cursor (see {@link JobExportService}).
+     * {@code fields} is a comma-separated projection; each line ends with a {@code cursor} to
+     * pass as {@code after} to continue. Compressed when the client accepts gzip. Needs an API
+     * key, even with anonymous access, and only exports the jobs of that key's tenant.
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportJobs(
+            @RequestParam(value = "status", required = false) List<OptimizationStatus> statuses,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(value = "fields", required = false) List<String> fields,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "0") int limit,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        JobExportService.Export export = exportService.prepare(new JobExportQuery(statuses, from, to, fields, after, limit), tenant);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        log.debug("GET /api/optimizations/export - Tenant: {}, Status: {}, From: {}, To: {}, After: {}, Gzip: {}",
+                tenant.tenantId(), statuses, from, to, after, gzip);
+        StreamingResponseBody body = out -> export.writeTo(out, gzip);
+        return exportResponse(gzip).body(body);
+    }
+
+    static ResponseEntity.BodyBuilder exportResponse(boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        return gzip ? response.header(HttpHeaders.CONTENT_ENCODING, "gzip") : response;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].strip())
+                    && (parts.length == 1 || !parts[1].replace(" ", "").equals("q=0"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Terminal results are served from {@link OptimizationResultCache} with a strong ETag;
+     * a matching If-None-Match is answered with 304 before MongoDB is touched. When the
+     * result is not cached, the ETag is checked against the job's status and updatedAt alone
+     * before the whole document is loaded.
+     * {@code timings=true} adds the per-stage breakdown and always reads the stored job.
+     */
     @GetMapping("/{id}")
-    public OptimizationResultResponse getOptimizationResult(@PathVariable String id) {
-        log.info("GET /api/optimizations/{} - Fetching optimization result", id);
-        
-        OptimizationJob job = optimizationService.getById(id);
-        
-        log.info("Retrieved job - ID: {}, Status: {}, ATS Score: {}", 
-                job.getId(), job.getStatus(), job.getAtsScore());
-        
-        return new OptimizationResultResponse(
-                job.getId(),
-                job.getStatus(),
-                job.getAtsScore(),
-                job.getExtractedKeywords(),
-                job.getOptimizedBulletPoints(),
-                job.getTailoredCoverLetter(),
-                job.getErrorMessage());
+    public ResponseEntity<OptimizationResultResponse> getOptimizationResult(
+            @PathVariable String id,
+            @RequestParam(value = "timings", defaultValue = "false") boolean includeTimings,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("GET /api/optimizations/{} - timings: {}", id, includeTimings);
+
+        if (includeTimings) {
+            OptimizationJob job = optimizationService.getById(id);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .body(OptimizationResultResponse.from(job, true));
+        }
+
+        OptimizationResultCache.Entry cached = resultCache.get(id);
+        if (cached == null) {
+            if (ifNoneMatch != null) {
+                String etag = optimizationService.findStatus(id)
+                        .filter(version -> version.getStatus() != null && version.getStatus().isTerminal()
+                                && version.getUpdatedAt() != null)
+                        .map(version -> OptimizationResultCache.etag(id, version.getStatus(), version.getUpdatedAt()))
+                        .orElse(null);
+                if (etag != null && OptimizationResultCache.matches(ifNoneMatch, etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                            .eTag(etag)
+                            .cacheControl(TERMINAL_CACHE_CONTROL)
+                            .build();
+                }
+            }
+            OptimizationJob job = optimizationService.getById(id);
+            OptimizationResultResponse result = OptimizationResultResponse.from(job);
+            cached = resultCache.put(result, job.getUpdatedAt());
+            if (cached == null) {
+                return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(result);
+            }
+        }
+
+        if (cached.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(cached.etag())
+                    .cacheControl(TERMINAL_CACHE_CONTROL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(cached.etag())
+                .cacheControl(TERMINAL_CACHE_CONTROL)
+                .body(cached.result());
+    }
+
+    /**
+     * Long-poll: answers as soon as the job leaves the {@code since} status (or, without
+     * {@code since}, once it reaches a terminal state). On timeout the current state is
+     * returned so the client can simply call again.
+     */
+    @GetMapping("/{id}/wait")
+    public DeferredResult<OptimizationResultResponse> waitForStatusChange(
+            @PathVariable String id,
+            @RequestParam(value = "since", required = false) OptimizationStatus since,
+            @RequestParam(value = "timeoutSeconds", defaultValue = "30") long timeoutSeconds) {
+        log.debug("GET /api/optimizations/{}/wait - since: {}, timeout: {}s", id, since, timeoutSeconds);
+
+        long timeout = Duration.ofSeconds(Math.max(1, Math.min(timeoutSeconds, maxWaitSeconds))).toMillis();
+        DeferredResult<OptimizationResultResponse> deferred = new DeferredResult<>(timeout);
+        JobStatusNotifier.Subscription subscription = statusNotifier.subscribe(id, update -> {
+            if (hasMovedOn(update.status(), since)) {
+                deferred.setResult(update);
+            }
+        });
+        deferred.onCompletion(subscription::close);
+        deferred.onTimeout(() -> deferred.setResult(OptimizationResultResponse.from(optimizationService.getById(id))));
+
+        // subscribe before reading so a change between the read and the subscription is not lost
+        OptimizationResultResponse current;
+        try {
+            current = OptimizationResultResponse.from(optimizationService.getById(id));
+        } catch (RuntimeException e) {
+            subscription.close();
+            throw e;
+        }
+        if (hasMovedOn(current.status(), since)) {
+            deferred.setResult(current);
+        }
+        return deferred;
+    }
+
+    /**
+     * Server-sent events: one {@code status} event per status change, the stream
+     * completes after the terminal event.
+     */
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatusEvents(@PathVariable String id) {
+        log.debug("GET /api/optimizations/{}/events - Opening status stream", id);
+
+        SseEmitter emitter = new SseEmitter(Duration.ofSeconds(sseTimeoutSeconds).toMillis());
+        JobStatusNotifier.UpdateFilter filter = new JobStatusNotifier.UpdateFilter();
+        JobStatusNotifier.Subscription subscription =
+                statusNotifier.subscribe(id, update -> sendStatusEvent(emitter, update, filter, false));
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscription.close());
+
+        try {
+            sendStatusEvent(emitter, OptimizationResultResponse.from(optimizationService.getById(id)), filter, true);
+        } catch (RuntimeException e) {
+            subscription.close();
+            throw e;
+        }
+        return emitter;
+    }
+
+    private static boolean hasMovedOn(OptimizationStatus current, OptimizationStatus since) {
+        return since == null ? current.isTerminal() : current != since;
+    }
+
+    private static void sendStatusEvent(SseEmitter emitter, OptimizationResultResponse update,
+                                        JobStatusNotifier.UpdateFilter filter, boolean snapshot) {
+        synchronized (emitter) {
+            if (!filter.accept(update, snapshot)) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("status")
+                        .id(update.status().name())
+                        .data(update, MediaType.APPLICATION_JSON));
+                if (update.status().isTerminal()) {
+                    emitter.complete();
+                }
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        }
     }
 }
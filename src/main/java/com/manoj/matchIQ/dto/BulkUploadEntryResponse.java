@@ -0,0 +1,26 @@
+package com.manoj.matchIQ.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.manoj.matchIQ.model.OptimizationStatus;
+
+/**
+ * One line of the {@code POST /api/optimizations/bulk-upload} NDJSON response: the job
+ * submitted for an archive entry, or why the entry was rejected. A line without a file
+ * reports a problem with the archive itself (unreadable, too many files); the entries
+ * reported before it were processed as usual.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkUploadEntryResponse(
+    String file,
+    String jobId,
+    OptimizationStatus status,
+    String error) {
+
+    public static BulkUploadEntryResponse submitted(String file, String jobId, OptimizationStatus status) {
+        return new BulkUploadEntryResponse(file, jobId, status, null);
+    }
+
+    public static BulkUploadEntryResponse rejected(String file, String error) {
+        return new BulkUploadEntryResponse(file, null, null, error);
+    }
+}
@@ -1,7 +1,9 @@
 package com.manoj.matchIQ.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.manoj.matchIQ.model.OptimizationJob;
 import com.manoj.matchIQ.model.OptimizationStatus;
-import lombok.Data;
+import com.manoj.matchIQ.model.StageTiming;
 
 import java.util.List;
 
@@ -9,8 +11,27 @@ public record OptimizationResultResponse (
     String id,
     OptimizationStatus status,
     Integer atsScore,
+    Integer semanticScore,
     List<String> extractedKeywords,
     String optimizedBulletPoints,
     String tailoredCoverLetter,
-    String errorMessage){
+    String errorMessage,
+    @JsonInclude(JsonInclude.Include.NON_NULL) List<StageTiming> timings){
+
+    public static OptimizationResultResponse from(OptimizationJob job) {
+        return from(job, false);
+    }
+
+    public static OptimizationResultResponse from(OptimizationJob job, boolean includeTimings) {
+        return new OptimizationResultResponse(
+                job.getId(),
+                job.getStatus(),
+                job.getAtsScore(),
+                job.getSemanticScore(),
+                job.getExtractedKeywords(),
+                job.getOptimizedBulletPoints(),
+                job.getTailoredCoverLetter(),
+                job.getErrorMessage(),
+                includeTimings ? job.getStageTimings() : null);
+    }
 }
@@ -0,0 +1,6 @@
+package com.manoj.matchIQ.dto;
+
+import java.util.List;
+
+public record ScoreResponse(int atsScore, int semanticScore, List<String> extractedKeywords) {
+}
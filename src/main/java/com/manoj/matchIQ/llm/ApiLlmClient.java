@@ -1,191 +1,492 @@
         package com.manoj.matchIQ.llm;
 
-        import com.fasterxml.jackson.databind.JsonNode;
-        import com.fasterxml.jackson.databind.ObjectMapper;
+        import com.fasterxml.jackson.core.JsonProcessingException;
+        import com.manoj.matchIQ.metrics.PipelineMetrics;
+        import jakarta.annotation.PreDestroy;
         import org.slf4j.Logger;
         import org.slf4j.LoggerFactory;
+        import org.slf4j.MDC;
+        import org.springframework.beans.factory.annotation.Autowired;
         import org.springframework.beans.factory.annotation.Value;
+        import org.springframework.boot.context.properties.EnableConfigurationProperties;
         import org.springframework.boot.web.client.RestTemplateBuilder;
-        import org.springframework.http.HttpEntity;
         import org.springframework.http.MediaType;
-        import org.springframework.http.HttpHeaders;
-        import org.springframework.http.ResponseEntity;
+        import org.springframework.http.HttpMethod;
+        import org.springframework.http.HttpStatusCode;
+        import org.springframework.http.StreamingHttpOutputMessage;
+        import org.springframework.http.client.ClientHttpRequest;
+        import org.springframework.http.client.ClientHttpResponse;
         import org.springframework.stereotype.Component;
+        import org.springframework.util.StreamUtils;
         import org.springframework.util.StringUtils;
+        import org.springframework.web.client.RestClientResponseException;
         import org.springframework.web.client.RestTemplate;
 
+        import java.io.IOException;
+        import java.nio.charset.StandardCharsets;
+        import java.time.Clock;
         import java.time.Duration;
-        import java.util.HashMap;
+        import java.time.Instant;
+        import java.util.ArrayList;
         import java.util.List;
         import java.util.Map;
         import java.util.StringJoiner;
-
+        import java.util.concurrent.Callable;
+        import java.util.concurrent.ConcurrentHashMap;
+        import java.util.concurrent.ConcurrentMap;
+        import java.util.concurrent.CompletionService;
+        import java.util.concurrent.ExecutionException;
+        import java.util.concurrent.ExecutorCompletionService;
+        import java.util.concurrent.ExecutorService;
+        import java.util.concurrent.LinkedBlockingQueue;
+        import java.util.concurrent.Future;
+        import java.util.concurrent.RejectedExecutionException;
+        import java.util.concurrent.ThreadLocalRandom;
+        import java.util.concurrent.ThreadPoolExecutor;
+        import java.util.concurrent.TimeUnit;
+        import java.util.concurrent.atomic.AtomicInteger;
+
+        /**
+         * Calls an ordered list of OpenAI-compatible providers. A call that fails moves on to the
+         * next provider; a call that is still running after the hedging delay (a percentile of
+         * recent latencies) gets a duplicate sent to the next provider, within a hedge budget. The
+         * first success wins and the other in-flight calls are cancelled.
+         * <p>
+         * Each provider call retries transient errors with jittered exponential backoff, and sits
+         * behind a per-provider circuit breaker: while a provider's breaker is open it is skipped,
+         * and when every breaker is open the fallback content is returned without waiting. Nothing
+         * is started after the caller's deadline.
+         */
         @Component
+        @EnableConfigurationProperties({LlmProviderProperties.class, RetrySettings.class, CircuitBreakerSettings.class})
         public class ApiLlmClient implements LlmClient{
             private static final Logger log = LoggerFactory.getLogger(ApiLlmClient.class);
+            private static final int LATENCY_WINDOW = 200;
+            private static final int MIN_LATENCY_SAMPLES = 20;
+            private static final double MAX_HEDGE_TOKENS = 5;
+            static final int DEFAULT_CALL_THREADS = 32;
 
             private final RestTemplate restTemplate;
-            private final String apiUrl;
-            private final String apiKey;
-            private final String model;
-            private final ObjectMapper objectMapper;
-
+            private final List<LlmProvider> providers;
+            private final HedgeSettings hedging;
+            private final RetrySettings retry;
+            private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+            private final PipelineMetrics metrics;
+            private final double payloadSampleRate;
+            private final LatencyWindow latencies = new LatencyWindow(LATENCY_WINDOW);
+            private final HedgeBudget hedgeBudget;
+            private final ExecutorService callExecutor;
+            private final PromptTemplate bulletsTemplate;
+            private final PromptTemplate coverLetterTemplate;
+
+            @Autowired
             public ApiLlmClient(RestTemplateBuilder builder,
+                                PipelineMetrics metrics,
+                                LlmProviderProperties providerProperties,
+                                RetrySettings retry,
+                                CircuitBreakerSettings circuitBreaker,
                                 @Value("${llm.api.url:}") String apiUrl,
                                 @Value("${llm.api.key:}") String apiKey,
-                                @Value("${llm.model:}") String model) {
+                                @Value("${llm.model:}") String model,
+                                @Value("${llm.hedge.enabled:true}") boolean hedgingEnabled,
+                                @Value("${llm.hedge.percentile:0.95}") double hedgePercentile,
+                                @Value("${llm.hedge.min-delay-ms:2000}") long hedgeMinDelayMs,
+                                @Value("${llm.hedge.initial-delay-ms:10000}") long hedgeInitialDelayMs,
+                                @Value("${llm.hedge.budget-ratio:0.1}") double hedgeBudgetRatio,
+                                @Value("${matchiq.logging.payload-sample-rate:1.0}") double payloadSampleRate,
+                                @Value("${llm.prompts.location:classpath:prompts/}") String promptLocation,
+                                @Value("${llm.call-threads:" + DEFAULT_CALL_THREADS + "}") int callThreads) {
+                this(builder, metrics,
+                        withPrimary(new LlmProvider("primary", apiUrl, apiKey, model), providerProperties.providers()),
+                        new HedgeSettings(hedgingEnabled, hedgePercentile, Duration.ofMillis(hedgeMinDelayMs),
+                                Duration.ofMillis(hedgeInitialDelayMs), hedgeBudgetRatio),
+                        retry, circuitBreaker, Clock.systemUTC(), payloadSampleRate, promptLocation, callThreads);
+            }
+
+            public ApiLlmClient(RestTemplateBuilder builder,
+                                PipelineMetrics metrics,
+                                List<LlmProvider> providers,
+                                HedgeSettings hedging,
+                                RetrySettings retry,
+                                CircuitBreakerSettings circuitBreaker,
+                                Clock clock,
+                                double payloadSampleRate) {
+                this(builder, metrics, providers, hedging, retry, circuitBreaker, clock, payloadSampleRate,
+                        PromptTemplate.DEFAULT_LOCATION, DEFAULT_CALL_THREADS);
+            }
+
+            public ApiLlmClient(RestTemplateBuilder builder,
+                                PipelineMetrics metrics,
+                                List<LlmProvider> providers,
+                                HedgeSettings hedging,
+                                RetrySettings retry,
+                                CircuitBreakerSettings circuitBreaker,
+                                Clock clock,
+                                double payloadSampleRate,
+                                String promptLocation,
+                                int callThreads) {
+                // lets the losing side of a hedge be disconnected instead of running to its timeout
+                CancellableRequestFactory requestFactory = new CancellableRequestFactory();
+                requestFactory.setConnectTimeout(Duration.ofSeconds(30));
+                requestFactory.setReadTimeout(Duration.ofSeconds(60));
                 this.restTemplate = builder
-                        .setConnectTimeout(Duration.ofSeconds(30))
-                        .setReadTimeout(Duration.ofSeconds(60))
+                        .requestFactory(() -> requestFactory)
                         .build();
-                this.apiUrl = apiUrl;
-                this.apiKey = apiKey;
-                this.model = model;
-                this.objectMapper = new ObjectMapper();
-
-                log.info("========================================");
-                log.info("ApiLlmClient Configuration:");
-                log.info("  URL configured: {}", StringUtils.hasText(apiUrl));
-                log.info("  URL value: {}", apiUrl);
-                log.info("  API Key configured: {}", StringUtils.hasText(apiKey));
-                log.info("  API Key starts with: {}", apiKey != null && apiKey.length() > 10 ? apiKey.substring(0, 10) + "..." : "N/A");
-                log.info("  Model: {}", model);
-                log.info("========================================");
+                this.providers = providers.stream().filter(LlmProvider::isConfigured).toList();
+                this.hedging = hedging;
+                this.retry = retry;
+                this.providers.forEach(provider ->
+                        breakers.put(provider.name(), new CircuitBreaker(circuitBreaker, clock)));
+                this.metrics = metrics;
+                this.payloadSampleRate = payloadSampleRate;
+                this.hedgeBudget = new HedgeBudget(hedging.budgetRatio(), MAX_HEDGE_TOKENS);
+                this.bulletsTemplate = PromptTemplate.load(promptLocation, ATS_BULLETS_PROMPT);
+                this.coverLetterTemplate = PromptTemplate.load(promptLocation, COVER_LETTER_PROMPT);
+                this.callExecutor = callExecutor(callThreads, metrics);
+
+                log.info("ApiLlmClient configured - Providers: {}, Hedging: {}",
+                        this.providers.stream().map(p -> p.name() + "(" + p.url() + ", " + p.model() + ")").toList(),
+                        hedging.enabled() && this.providers.size() > 1);
+                if (this.providers.isEmpty()) {
+                    log.warn("LLM API URL or key not configured, all generations will use fallback content");
+                }
+            }
+
+            /**
+             * Bounded like the pools in {@code AsyncConfig}: at most {@code llm.call-threads} provider
+             * calls run at once and as many wait; beyond that a call is rejected and counted as
+             * {@code matchiq.executor.rejected{name=llmCallExecutor}}, see {@link #trySubmit}.
+             */
+            private static ThreadPoolExecutor callExecutor(int callThreads, PipelineMetrics metrics) {
+                int size = Math.max(1, callThreads);
+                AtomicInteger threads = new AtomicInteger();
+                ThreadPoolExecutor.AbortPolicy abort = new ThreadPoolExecutor.AbortPolicy();
+                ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(size),
+                        task -> {
+                            Thread thread = new Thread(task, "llm-call-" + threads.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        },
+                        (task, pool) -> {
+                            metrics.recordExecutorRejection("llmCallExecutor");
+                            abort.rejectedExecution(task, pool);
+                        });
+                executor.allowCoreThreadTimeOut(true);
+                return executor;
+            }
+
+            @PreDestroy
+            public void shutdown() {
+                callExecutor.shutdownNow();
             }
 
             @Override
-            public String generateAtsBullets(String resumeText, String jobDescription, List<String> keywords) {
-                log.info(">>> Generating ATS-optimized bullet points with {} keywords", keywords.size());
-
-                String prompt = "You are an expert resume writer. Generate exactly 5 ATS-optimized resume bullet points based on the provided resume and job description. "
-                        + "Each bullet point should:\n"
-                        + "- Start with a strong action verb\n"
-                        + "- Include quantifiable achievements when possible\n"
-                        + "- Incorporate these keywords naturally: " + String.join(", ", keywords) + "\n"
-                        + "- Be concise and impactful (1-2 lines each)\n\n"
-                        + "Resume:\n" + resumeText + "\n\n"
-                        + "Job Description:\n" + jobDescription + "\n\n"
-                        + "Return ONLY the 5 bullet points, one per line, each starting with a hyphen (-).";
-
-                String result = generateFromLlmOrFallback(prompt, buildBulletFallback(keywords));
-                log.info("<<< ATS bullets generated - Length: {}", result != null ? result.length() : 0);
-                return result;
+            public LlmResult generateAtsBullets(String resumeText, String jobDescription, List<String> keywords, Instant deadline) {
+
+                LlmPrompt prompt = bulletsTemplate.render(jobDescription, keywords, resumeText);
+                return generateFromLlmOrFallback(prompt, buildBulletFallback(keywords), deadline);
             }
 
             @Override
-            public String generateTailoredCoverLetter(String resumeText, String jobDescription, List<String> keywords) {
-                log.info(">>> Generating tailored cover letter with {} keywords", keywords.size());
-
-                String prompt = "You are an expert cover letter writer. Generate a professional, concise cover letter (3-4 paragraphs) for this job application. "
-                        + "The cover letter should:\n"
-                        + "- Demonstrate enthusiasm for the role\n"
-                        + "- Highlight relevant experience from the resume\n"
-                        + "- Naturally incorporate these keywords: " + String.join(", ", keywords) + "\n"
-                        + "- Be professional yet personable\n\n"
-                        + "Resume:\n" + resumeText + "\n\n"
-                        + "Job Description:\n" + jobDescription + "\n\n"
-                        + "Return ONLY the cover letter text, no additional commentary.";
-
-                String result = generateFromLlmOrFallback(prompt, buildCoverLetterFallback(keywords));
-                log.info("<<< Cover letter generated - Length: {}", result != null ? result.length() : 0);
-                return result;
+            public LlmResult generateTailoredCoverLetter(String resumeText, String jobDescription, List<String> keywords, Instant deadline) {
+
+                LlmPrompt prompt = coverLetterTemplate.render(jobDescription, keywords, resumeText);
+                return generateFromLlmOrFallback(prompt, buildCoverLetterFallback(keywords), deadline);
             }
 
-            private String generateFromLlmOrFallback(String prompt, String fallback){
-                if(!StringUtils.hasText(apiUrl) || !StringUtils.hasText(apiKey)){
-                    log.warn("⚠️ LLM API URL or Key not configured, using fallback content");
-                    log.warn("   URL empty: {}, Key empty: {}", !StringUtils.hasText(apiUrl), !StringUtils.hasText(apiKey));
-                    return fallback;
+            private LlmResult generateFromLlmOrFallback(LlmPrompt prompt, String fallback, Instant deadline){
+                if(providers.isEmpty()){
+                    log.debug("LLM API URL or key not configured, using fallback content");
+                    return fallback(fallback, "not_configured", 0);
                 }
 
-                log.info("🔵 Calling OpenAI API at: {}", apiUrl);
-                log.debug("   Prompt length: {} characters", prompt.length());
-
+                log.debug("Calling LLM API - Prompt: {}, length: {} characters", prompt.template(), prompt.length());
+
+                Map<String, String> mdc = MDC.getCopyOfContextMap();
+                CompletionService<Attempt> completions = new ExecutorCompletionService<>(callExecutor);
+                List<Call> calls = new ArrayList<>();
+                AtomicInteger httpCalls = new AtomicInteger();
+                hedgeBudget.onRequest();
+                boolean mayHedge = hedging.enabled();
+                int next = 0;
+                int running = 0;
+                Attempt lastFailure = null;
                 try {
-                    HttpHeaders headers = new HttpHeaders();
-                    headers.setContentType(MediaType.APPLICATION_JSON);
-                    headers.setBearerAuth(apiKey);
+                    Call first = trySubmit(completions, providers.get(next++), prompt, mdc, false, deadline, httpCalls);
+                    if (first == null) {
+                        return fallback(fallback, "overloaded", 0);
+                    }
+                    calls.add(first);
+                    running++;
+                    while (running > 0) {
+                        long remaining = deadline == null ? Long.MAX_VALUE : Duration.between(Instant.now(), deadline).toMillis();
+                        Future<Attempt> done;
+                        if (mayHedge && next < providers.size()) {
+                            done = completions.poll(Math.min(hedgeDelayMillis(), remaining), TimeUnit.MILLISECONDS);
+                            if (done == null) {
+                                if (deadline != null && !Instant.now().isBefore(deadline)) {
+                                    return fallback(fallback, "deadline_exceeded", httpCalls.get());
+                                }
+                                if (hedgeBudget.tryAcquire()) {
+                                    LlmProvider hedge = providers.get(next);
+                                    Call hedged = trySubmit(completions, hedge, prompt, mdc, true, deadline, httpCalls);
+                                    if (hedged == null) {
+                                        // the call pool is full, keep waiting on the calls already running
+                                        metrics.recordLlmHedge("rejected");
+                                        mayHedge = false;
+                                        continue;
+                                    }
+                                    next++;
+                                    log.debug("LLM call slower than hedging delay, hedging to {}", hedge.name());
+                                    metrics.recordLlmHedge("issued");
+                                    calls.add(hedged);
+                                    running++;
+                                } else {
+                                    metrics.recordLlmHedge("budget_exhausted");
+                                    mayHedge = false;
+                                }
+                                continue;
+                            }
+                        } else if (deadline == null) {
+                            done = completions.take();
+                        } else {
+                            done = completions.poll(Math.max(0, remaining), TimeUnit.MILLISECONDS);
+                            if (done == null) {
+                                return fallback(fallback, "deadline_exceeded", httpCalls.get());
+                            }
+                        }
+                        running--;
+                        Attempt attempt = done.get();
+                        if (attempt.result() != null) {
+                            if (attempt.hedge()) {
+                                metrics.recordLlmHedge("won");
+                            }
+                            return attempt.result().withAttempts(httpCalls.get());
+                        }
+                        lastFailure = attempt;
+                        if (next < providers.size()) {
+                            LlmProvider failover = providers.get(next++);
+                            log.warn("LLM provider {} failed ({}), failing over to {}",
+                                    attempt.provider().name(), attempt.failureReason(), failover.name());
+                            metrics.recordLlmFailover(attempt.provider().name(), attempt.failureReason());
+                            Call failoverCall = trySubmit(completions, failover, prompt, mdc, false, deadline, httpCalls);
+                            if (failoverCall != null) {
+                                calls.add(failoverCall);
+                                running++;
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return fallback(fallback, "interrupted", httpCalls.get());
+                } catch (ExecutionException e) {
+                    log.error("LLM call failed unexpectedly: {}", e.getCause().toString());
+                    return fallback(fallback, "processing_error", httpCalls.get());
+                } finally {
+                    for (Call call : calls) {
+                        if (!call.future().isDone()) {
+                            call.cancellation().cancel();
+                            call.future().cancel(true);
+                        }
+                    }
+                }
+                return fallback(fallback, lastFailure.failureReason(), httpCalls.get());
+            }
 
-                    // Build proper OpenAI request format
-                    Map<String, Object> requestBody = new HashMap<>();
-                    requestBody.put("model", model);
-                    requestBody.put("messages", List.of(
-                        Map.of("role", "user", "content", prompt)
-                    ));
-                    requestBody.put("max_tokens", 1000);
-                    requestBody.put("temperature", 0.7);
+            /**
+             * Hedge after the configured percentile of recent successful calls, but never sooner
+             * than the minimum delay; until enough calls were seen, use the initial delay.
+             */
+            private long hedgeDelayMillis() {
+                long observed = latencies.count() >= MIN_LATENCY_SAMPLES
+                        ? latencies.percentile(hedging.percentile())
+                        : hedging.initialDelay().toMillis();
+                return Math.max(hedging.minDelay().toMillis(), observed);
+            }
 
-                    String requestJson = objectMapper.writeValueAsString(requestBody);
-                    log.debug("   Request payload: {}", requestJson.substring(0, Math.min(200, requestJson.length())) + "...");
+            /**
+             * Starts a provider call, or returns {@code null} when the call pool is full.
+             */
+            private Call trySubmit(CompletionService<Attempt> completions, LlmProvider provider, LlmPrompt prompt,
+                                   Map<String, String> mdc, boolean hedge, Instant deadline, AtomicInteger httpCalls) {
+                CancellableRequestFactory.Cancellation cancellation = new CancellableRequestFactory.Cancellation(deadline);
+                Callable<Attempt> task = () -> {
+                    if (mdc != null) {
+                        MDC.setContextMap(mdc);
+                    }
+                    CancellableRequestFactory.bind(cancellation);
+                    try {
+                        return callWithRetries(provider, prompt, hedge, cancellation, deadline, httpCalls);
+                    } finally {
+                        CancellableRequestFactory.unbind();
+                        MDC.clear();
+                    }
+                };
+                try {
+                    return new Call(completions.submit(task), cancellation);
+                } catch (RejectedExecutionException e) {
+                    log.warn("LLM call pool is full, not calling {}", provider.name());
+                    return null;
+                }
+            }
 
-                    HttpEntity<String> request = new HttpEntity<>(requestJson, headers);
+            /**
+             * Calls one provider through its circuit breaker, retrying transient errors while the
+             * backoff still ends before the deadline.
+             */
+            private Attempt callWithRetries(LlmProvider provider, LlmPrompt prompt, boolean hedge,
+                                            CancellableRequestFactory.Cancellation cancellation,
+                                            Instant deadline, AtomicInteger httpCalls) {
+                CircuitBreaker breaker = breakers.get(provider.name());
+                for (int attemptNo = 1; ; attemptNo++) {
+                    CircuitBreaker.State before = breaker.state();
+                    if (!breaker.tryAcquire()) {
+                        log.debug("Circuit for LLM provider {} is open, skipping it", provider.name());
+                        return Attempt.failed(provider, "circuit_open", hedge);
+                    }
+                    long start = System.nanoTime();
+                    httpCalls.incrementAndGet();
+                    Attempt attempt = call(provider, prompt, hedge, cancellation);
+                    if (cancellation.isCancelled()) {
+                        breaker.onIgnored();
+                        return attempt;
+                    }
+                    if (attempt.result() != null) {
+                        breaker.onSuccess(Duration.ofNanos(System.nanoTime() - start));
+                    } else {
+                        breaker.onFailure();
+                    }
+                    CircuitBreaker.State after = breaker.state();
+                    if (after != before) {
+                        log.warn("Circuit for LLM provider {} is now {}", provider.name(), after);
+                        metrics.recordCircuitTransition(provider.name(), after.name());
+                    }
+                    if (attempt.result() != null || !attempt.retryable() || attemptNo >= retry.maxAttempts()) {
+                        return attempt;
+                    }
+                    Duration backoff = retry.backoff(attemptNo);
+                    if (deadline != null && !Instant.now().plus(backoff).isBefore(deadline)) {
+                        return attempt;
+                    }
+                    log.debug("Retrying LLM provider {} after {} in {} ms", provider.name(), attempt.failureReason(), backoff.toMillis());
+                    metrics.recordLlmRetry(provider.name(), attempt.failureReason());
+                    try {
+                        Thread.sleep(backoff.toMillis());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return attempt;
+                    }
+                }
+            }
 
-                    log.info("   📡 Sending request to OpenAI...");
-                    ResponseEntity<String> response = restTemplate.postForEntity(apiUrl, request, String.class);
+            private Attempt call(LlmProvider provider, LlmPrompt prompt, boolean hedge,
+                                 CancellableRequestFactory.Cancellation cancellation) {
+                long callStart = System.nanoTime();
+                boolean callRecorded = false;
+                try {
+                    if (log.isDebugEnabled() && samplePayload()) {
+                        log.debug("Request prompt: {}", trimForLog(prompt.user(), 200));
+                    }
 
-                    log.info("   ✅ OpenAI response status: {}", response.getStatusCode());
+                    Reply reply = restTemplate.execute(provider.url(), HttpMethod.POST,
+                            request -> writeRequest(request, provider, prompt),
+                            ApiLlmClient::readReply);
+                    long elapsed = System.nanoTime() - callStart;
+                    metrics.recordLlmCall(provider.name(), elapsed, String.valueOf(reply.status().value()));
+                    callRecorded = true;
 
-                    String body = response.getBody() == null ? "" : response.getBody();
-                    MediaType contentType = response.getHeaders().getContentType();
-                    String contentTypeStr = contentType == null ? "none" : contentType.toString();
+                    String contentTypeStr = reply.contentType() == null ? "none" : reply.contentType().toString();
 
-                    // Validate status and content type before parsing JSON
-                    if (!response.getStatusCode().is2xxSuccessful()) {
-                        log.warn("   ⚠️ OpenAI returned non-2xx status: {} - Body snippet: {}", response.getStatusCode(), trimForLog(body, 500));
-                        return fallback;
+                    // Validate status and content type before trusting the parsed JSON
+                    if (!reply.status().is2xxSuccessful()) {
+                        log.warn("LLM API returned non-2xx status: {}{}", reply.status(), sampledSnippet(reply.body(), 500));
+                        return Attempt.failed(provider, "http_status", hedge);
                     }
 
-                    if (contentType == null || !contentTypeStr.toLowerCase().contains("application/json")) {
+                    if (reply.completion() == null && reply.parseError() == null) {
                         // detect HTML in body
-                        if (body.trim().startsWith("<")) {
-                            log.error("   ❌ OpenAI API returned HTML (likely an error or redirect page). Content-Type: {}. Body snippet: {}", contentTypeStr, trimForLog(body, 1000));
-                            return fallback;
+                        if (reply.body().trim().startsWith("<")) {
+                            log.error("LLM API returned HTML (likely an error or redirect page). Content-Type: {}{}", contentTypeStr, sampledSnippet(reply.body(), 1000));
+                            return Attempt.failed(provider, "html_response", hedge);
                         } else {
-                            log.error("   ❌ OpenAI API returned non-JSON Content-Type: {}. Body snippet: {}", contentTypeStr, trimForLog(body, 500));
-                            return fallback;
+                            log.error("LLM API returned non-JSON Content-Type: {}{}", contentTypeStr, sampledSnippet(reply.body(), 500));
+                            return Attempt.failed(provider, "non_json_response", hedge);
                         }
                     }
 
-                    log.debug("   Raw response: {}", body.length() > 200 ? body + "..." : body);
-
-                    // Parse OpenAI response
-                    JsonNode jsonResponse;
-                    try {
-                        jsonResponse = objectMapper.readTree(body);
-                    } catch (Exception e) {
-                        log.error("   ❌ Failed to parse JSON response. Body snippet: {}", trimForLog(body, 1000), e);
-                        return fallback;
+                    if (reply.parseError() != null) {
+                        log.error("Failed to parse LLM JSON response: {}", reply.parseError().getOriginalMessage());
+                        return Attempt.failed(provider, "parse_error", hedge);
                     }
 
-                    if (jsonResponse.has("choices") && jsonResponse.get("choices").size() > 0) {
-                        JsonNode choice = jsonResponse.get("choices").get(0);
-                        JsonNode messageNode = choice.has("message") ? choice.get("message") : choice;
-                        String content = extractContentFromChoice(choice);
+                    LlmJsonCodec.Completion completion = reply.completion();
+                    metrics.recordLlmTokens(completion.promptTokens(), completion.completionTokens(), completion.cachedTokens());
 
-                        log.info("   ✅ Successfully extracted content from OpenAI response - Length: {}", content.length());
-                        log.debug("   Content preview: {}", content.length() > 100 ? content.substring(0, 100) + "..." : content);
+                    if (completion.content() != null) {
+                        log.debug("LLM content extracted - Length: {}", completion.content().length());
 
-                        return content.trim();
+                        latencies.record(TimeUnit.NANOSECONDS.toMillis(elapsed));
+                        return new Attempt(provider, new LlmResult(completion.content(), 1, null, completion.promptTokens(),
+                                completion.completionTokens(), completion.cachedTokens(), provider.model()), null, hedge, false);
                     } else {
-                        log.error("   ❌ OpenAI response missing 'choices' field");
-                        log.error("   Response body: {}", trimForLog(body, 1000));
-                        return fallback;
+                        log.error("LLM response missing 'choices' field");
+                        return Attempt.failed(provider, "missing_choices", hedge);
                     }
                 } catch (Exception e) {
-                    log.error("   ❌ OpenAI API call failed!", e);
-                    log.error("   Error type: {}", e.getClass().getName());
-                    log.error("   Error message: {}", e.getMessage());
-                    if (e.getCause() != null) {
-                        log.error("   Caused by: {}", e.getCause().getMessage());
+                    if (cancellation.isCancelled()) {
+                        // lost a hedge race; the winner has already been returned
+                        metrics.recordLlmCall(provider.name(), System.nanoTime() - callStart, "cancelled");
+                        return Attempt.failed(provider, "cancelled", hedge);
                     }
+                    if (callRecorded) {
+                        log.error("LLM API call to {} failed: {}", provider.name(), e.toString());
+                        log.debug("LLM API failure detail", e);
+                        return Attempt.failed(provider, "processing_error", hedge);
+                    }
+                    Integer statusCode = e instanceof RestClientResponseException responseException
+                            ? responseException.getStatusCode().value()
+                            : null;
+                    metrics.recordLlmCall(provider.name(), System.nanoTime() - callStart,
+                            statusCode != null ? String.valueOf(statusCode) : e.getClass().getSimpleName());
+                    log.error("LLM API call to {} failed: {}", provider.name(), e.toString());
+                    log.debug("LLM API failure detail", e);
+                    // no status means the connection failed or timed out
+                    boolean retryable = statusCode == null || statusCode == 429 || statusCode == 502
+                            || statusCode == 503 || statusCode == 504;
+                    return new Attempt(provider, null, "request_failed", hedge, retryable);
                 }
+            }
+
+            private LlmResult fallback(String content, String reason, int attempts) {
+                metrics.recordLlmFallback(reason);
+                return LlmResult.fallback(content, reason, attempts);
+            }
+
+            private static List<LlmProvider> withPrimary(LlmProvider primary, List<LlmProvider> others) {
+                List<LlmProvider> all = new ArrayList<>();
+                all.add(primary);
+                for (int i = 0; i < others.size(); i++) {
+                    LlmProvider other = others.get(i);
+                    all.add(StringUtils.hasText(other.name()) ? other
+                            : new LlmProvider("provider-" + (i + 1), other.url(), other.apiKey(), other.model()));
+                }
+                return all;
+            }
+
+            /**
+             * Payload logging is sampled ({@code matchiq.logging.payload-sample-rate}) so that a
+             * provider outage does not turn into megabytes of response bodies per second.
+             */
+            private boolean samplePayload() {
+                return payloadSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < payloadSampleRate;
+            }
 
-                log.warn("   ⚠️ Falling back to default content");
-                return fallback;
+            private String sampledSnippet(String body, int max) {
+                return samplePayload() ? " - Body snippet: " + trimForLog(body, max) : "";
             }
 
             private String buildBulletFallback(List<String> keywords) {
-                log.debug("   Building fallback bullet points");
                 StringJoiner joiner = new StringJoiner("\n");
                 int limit = Math.min(keywords.size(), 5);
                 for( int i=0; i<limit; i++ ) {
@@ -199,7 +500,6 @@
             }
 
             private String buildCoverLetterFallback(List<String> keywords){
-                log.debug("   Building fallback cover letter");
                 return "Dear Hiring Manager,\n\n"
                         + "I am excited to apply for this role. My experience and skills align well with the requirements, especially in areas like "
                         + String.join(", ", keywords)
@@ -208,64 +508,36 @@
                         + "Best regards,\n"
                         + "Candidate";
             }
-            private String extractContentFromChoice(JsonNode choice) {
-                // prefer message if present
-                JsonNode messageNode = choice.has("message") ? choice.get("message") : choice;
-                JsonNode contentNode = null;
-
-                // common places providers put content
-                if (messageNode.has("content")) contentNode = messageNode.get("content");
-                else if (messageNode.has("output")) contentNode = messageNode.get("output");
-                else if (choice.has("text")) contentNode = choice.get("text");
-                else contentNode = messageNode;
-
-                StringBuilder sb = new StringBuilder();
-                appendTextFromNode(contentNode, sb);
-                return sb.toString().trim();
-            }
-
-            private void appendTextFromNode(JsonNode node, StringBuilder sb) {
-                if (node == null || node.isNull()) return;
-
-                if (node.isTextual()) {
-                    sb.append(node.asText());
-                    return;
+            private static void writeRequest(ClientHttpRequest request, LlmProvider provider, LlmPrompt prompt) throws IOException {
+                request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                request.getHeaders().setBearerAuth(provider.apiKey());
+                if (request instanceof StreamingHttpOutputMessage streaming) {
+                    // written as the connection sends it, not buffered into a byte array first
+                    streaming.setBody(out -> LlmJsonCodec.writeRequest(out, prompt.requestStart(), provider.model(), prompt.user()));
+                } else {
+                    LlmJsonCodec.writeRequest(request.getBody(), prompt.requestStart(), provider.model(), prompt.user());
                 }
+            }
 
-                if (node.isArray()) {
-                    for (JsonNode elem : node) {
-                        // common element forms: plain text, { "text": "..." }, { "type":"output_text","text":"..." }
-                        if (elem.isTextual()) {
-                            sb.append(elem.asText());
-                        } else if (elem.has("text")) {
-                            sb.append(elem.get("text").asText());
-                        } else if (elem.has("content")) {
-                            appendTextFromNode(elem.get("content"), sb);
-                        } else {
-                            appendTextFromNode(elem, sb);
-                        }
-                        // preserve simple separation between array items
-                        if (sb.length() > 0 && sb.charAt(sb.length()-1) != '\n') sb.append("\n");
-                    }
-                    return;
+            /**
+             * Parses a JSON body as it streams in; other bodies (error pages, non-2xx answers the
+             * error handler let through) are kept as text for logging.
+             */
+            private static Reply readReply(ClientHttpResponse response) throws IOException {
+                HttpStatusCode status = response.getStatusCode();
+                MediaType contentType = response.getHeaders().getContentType();
+                boolean json = contentType != null && contentType.toString().toLowerCase().contains("application/json");
+                if (!status.is2xxSuccessful() || !json) {
+                    return new Reply(status, contentType, null, null,
+                            StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8));
                 }
-
-                if (node.isObject()) {
-                    // common object shapes
-                    if (node.has("text") && node.get("text").isTextual()) {
-                        sb.append(node.get("text").asText());
-                        return;
-                    }
-                    if (node.has("content")) {
-                        appendTextFromNode(node.get("content"), sb);
-                        return;
-                    }
-                    // iterate fields for anything textual
-                    node.fields().forEachRemaining(entry -> {
-                        appendTextFromNode(entry.getValue(), sb);
-                    });
+                try {
+                    return new Reply(status, contentType, LlmJsonCodec.readResponse(response.getBody()), null, null);
+                } catch (JsonProcessingException e) {
+                    return new Reply(status, contentType, null, e, null);
                 }
             }
+
             private static String trimForLog(String s, int max) {
                 if (s == null || max <= 0) return "";
                 if (s.length() <= max) return s;
@@ -280,4 +552,26 @@
                 }
                 return s.substring(0, end) + "...(truncated)";
             }
+        
+            private record Call(Future<Attempt> future, CancellableRequestFactory.Cancellation cancellation) {
+            }
+
+            /**
+             * What came back from a provider: the parsed completion, the JSON error, or (for
+             * anything that is not a successful JSON response) the body as text.
+             */
+            private record Reply(HttpStatusCode status, MediaType contentType, LlmJsonCodec.Completion completion,
+                                 JsonProcessingException parseError, String body) {
+            }
+
+            /**
+             * Outcome of one provider call: either {@code result} or {@code failureReason} is set.
+             */
+            private record Attempt(LlmProvider provider, LlmResult result, String failureReason, boolean hedge,
+                                   boolean retryable) {
+
+                static Attempt failed(LlmProvider provider, String reason, boolean hedge) {
+                    return new Attempt(provider, null, reason, hedge, false);
+                }
+            }
         }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.manoj.matchIQ.llm;
+
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Request factory whose requests can be aborted from another thread. A caller opens a
+ * {@link Cancellation} on the thread that will make the request; cancelling it disconnects the
+ * underlying connection, which fails a read that is blocked waiting for headers or body.
+ * (Interrupting the thread does not abort a blocking read on JDK 17.)
+ */
+class CancellableRequestFactory extends SimpleClientHttpRequestFactory {
+
+    private static final ThreadLocal<Cancellation> CURRENT = new ThreadLocal<>();
+
+    static void bind(Cancellation cancellation) {
+        CURRENT.set(cancellation);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    @Override
+    protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+        super.prepareConnection(connection, httpMethod);
+        Cancellation cancellation = CURRENT.get();
+        if (cancellation != null) {
+            cancellation.attach(connection);
+            if (cancellation.deadline != null) {
+                // never wait for a response past the job's deadline
+                long remaining = Math.max(1, Duration.between(Instant.now(), cancellation.deadline).toMillis());
+                int configured = connection.getReadTimeout();
+                connection.setReadTimeout((int) Math.min(configured > 0 ? configured : Integer.MAX_VALUE, remaining));
+            }
+        }
+    }
+
+    static final class Cancellation {
+        private final Instant deadline;
+        private HttpURLConnection connection;
+        private boolean cancelled;
+
+        /**
+         * @param deadline caps the read timeout of requests made under this cancellation; may be {@code null}
+         */
+        Cancellation(Instant deadline) {
+            this.deadline = deadline;
+        }
+
+        synchronized void attach(HttpURLConnection connection) {
+            this.connection = connection;
+            if (cancelled) {
+                connection.disconnect();
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
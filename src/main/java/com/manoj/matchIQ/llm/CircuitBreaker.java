@@ -0,0 +1,137 @@
+package com.manoj.matchIQ.llm;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Count-based circuit breaker for one provider. CLOSED records the outcome of the last
+ * {@code windowSize} calls and opens when the failure rate or the slow-call rate crosses its
+ * threshold. OPEN rejects calls for {@code openDuration}, then HALF_OPEN lets a few probe calls
+ * through: if they all succeed the breaker closes, any failure or slow call opens it again.
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final CircuitBreakerSettings settings;
+    private final Clock clock;
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int recorded;
+    private State state = State.CLOSED;
+    private Instant openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    CircuitBreaker(CircuitBreakerSettings settings, Clock clock) {
+        this.settings = settings;
+        this.clock = clock;
+        this.failed = new boolean[settings.windowSize()];
+        this.slow = new boolean[settings.windowSize()];
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return {@code false} if the call must not be made; otherwise the caller must report the
+     * outcome with {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}
+     */
+    synchronized boolean tryAcquire() {
+        if (!settings.enabled()) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (clock.instant().isBefore(openedAt.plus(settings.openDuration()))) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probeSuccesses >= settings.halfOpenProbes()) {
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess(Duration elapsed) {
+        if (!settings.enabled()) {
+            return;
+        }
+        boolean slowCall = elapsed.compareTo(settings.slowCallThreshold()) >= 0;
+        if (state == State.HALF_OPEN) {
+            if (slowCall) {
+                // a provider that still answers this slowly has not recovered
+                transitionTo(State.OPEN);
+                return;
+            }
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            if (++probeSuccesses >= settings.halfOpenProbes()) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false, slowCall);
+    }
+
+    synchronized void onFailure() {
+        if (!settings.enabled()) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true, false);
+    }
+
+    /**
+     * For calls that ended without telling anything about the provider, e.g. a cancelled hedge.
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+        }
+    }
+
+    private void record(boolean failure, boolean slowCall) {
+        if (state != State.CLOSED) {
+            return;
+        }
+        failed[next] = failure;
+        slow[next] = slowCall;
+        next = (next + 1) % failed.length;
+        recorded = Math.min(recorded + 1, failed.length);
+        if (recorded < settings.minimumCalls()) {
+            return;
+        }
+        int failures = 0;
+        int slowCalls = 0;
+        for (int i = 0; i < recorded; i++) {
+            failures += failed[i] ? 1 : 0;
+            slowCalls += slow[i] ? 1 : 0;
+        }
+        if ((double) failures / recorded >= settings.failureRateThreshold()
+                || (double) slowCalls / recorded >= settings.slowCallRateThreshold()) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State target) {
+        state = target;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (target == State.OPEN) {
+            openedAt = clock.instant();
+        }
+        if (target == State.CLOSED) {
+            next = 0;
+            recorded = 0;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.manoj.matchIQ.llm;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Per-provider circuit breaker ({@code llm.circuit-breaker.*}).
+ *
+ * @param windowSize            number of most recent calls the rates are computed over
+ * @param minimumCalls          calls needed in the window before the breaker may open
+ * @param slowCallThreshold     successful calls at least this slow count as slow
+ * @param openDuration          how long calls are rejected before probing again
+ * @param halfOpenProbes        successful probes needed to close the breaker again
+ */
+@ConfigurationProperties(prefix = "llm.circuit-breaker")
+public record CircuitBreakerSettings(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int windowSize,
+        @DefaultValue("10") int minimumCalls,
+        @DefaultValue("0.5") double failureRateThreshold,
+        @DefaultValue("30s") Duration slowCallThreshold,
+        @DefaultValue("0.8") double slowCallRateThreshold,
+        @DefaultValue("30s") Duration openDuration,
+        @DefaultValue("2") int halfOpenProbes) {
+}
@@ -0,0 +1,30 @@
+package com.manoj.matchIQ.llm;
+
+/**
+ * Token bucket that caps hedged requests to a fraction of all requests: every request deposits
+ * {@code ratio} tokens (up to {@code maxTokens}) and every hedge spends one.
+ */
+class HedgeBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    HedgeBudget(double ratio, double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,15 @@
+package com.manoj.matchIQ.llm;
+
+import java.time.Duration;
+
+/**
+ * When to send a duplicate request to the next provider.
+ *
+ * @param percentile   hedge once a call has been running longer than this percentile of recent
+ *                     successful calls
+ * @param minDelay     never hedge earlier than this
+ * @param initialDelay delay used until enough latencies have been observed
+ * @param budgetRatio  hedges allowed per request, e.g. 0.1 caps the extra spend at about 10%
+ */
+public record HedgeSettings(boolean enabled, double percentile, Duration minDelay, Duration initialDelay, double budgetRatio) {
+}
@@ -0,0 +1,249 @@
+package com.manoj.matchIQ.llm;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Client for an OpenAI-compatible batch API: the requests are written to a JSONL file, uploaded
+ * to {@code /files}, run by {@code /batches} within the completion window and read back from the
+ * output file. Batched tokens are billed at a discount and do not count against the rate limits
+ * of the synchronous calls made by {@link ApiLlmClient}. The prompts are the same templates.
+ */
+@Component
+@ConditionalOnProperty(name = "matchiq.batch.enabled", havingValue = "true")
+public class LlmBatchClient {
+    private static final Logger log = LoggerFactory.getLogger(LlmBatchClient.class);
+    private static final String CHAT_COMPLETIONS = "/chat/completions";
+    private static final Set<String> TERMINAL_STATUSES = Set.of("completed", "failed", "expired", "cancelled");
+
+    private final RestTemplate restTemplate;
+    private final PipelineMetrics metrics;
+    private final String baseUrl;
+    private final String apiKey;
+    private final String model;
+    private final String completionWindow;
+    private final Map<Prompt, PromptTemplate> templates = new EnumMap<>(Prompt.class);
+
+    @Autowired
+    public LlmBatchClient(RestTemplateBuilder builder,
+                          PipelineMetrics metrics,
+                          @Value("${llm.batch.url:}") String batchUrl,
+                          @Value("${llm.api.url:}") String apiUrl,
+                          @Value("${llm.batch.api-key:${llm.api.key:}}") String apiKey,
+                          @Value("${llm.batch.model:${llm.model:}}") String model,
+                          @Value("${llm.batch.completion-window:24h}") String completionWindow,
+                          @Value("${llm.prompts.location:classpath:prompts/}") String promptLocation) {
+        this(builder, metrics, StringUtils.hasText(batchUrl) ? batchUrl : baseUrlOf(apiUrl),
+                apiKey, model, completionWindow, promptLocation);
+    }
+
+    /**
+     * @param baseUrl API root that {@code /files} and {@code /batches} are relative to, e.g. {@code https://api.openai.com/v1}
+     */
+    public LlmBatchClient(RestTemplateBuilder builder, PipelineMetrics metrics, String baseUrl, String apiKey,
+                          String model, String completionWindow, String promptLocation) {
+        this.restTemplate = builder
+                .setConnectTimeout(Duration.ofSeconds(30))
+                .setReadTimeout(Duration.ofMinutes(5))
+                .build();
+        this.metrics = metrics;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.apiKey = apiKey;
+        this.model = model;
+        this.completionWindow = completionWindow;
+        for (Prompt prompt : Prompt.values()) {
+            templates.put(prompt, PromptTemplate.load(promptLocation, prompt.template));
+        }
+        log.info("LlmBatchClient configured - URL: {}, Model: {}, Completion window: {}", this.baseUrl, model, completionWindow);
+    }
+
+    /**
+     * Uploads the requests as one input file and creates a batch for it.
+     *
+     * @return the provider's batch id
+     */
+    public String submit(List<Item> items) {
+        Path file;
+        try {
+            file = Files.createTempFile("matchiq-batch-", ".jsonl");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create batch input file", e);
+        }
+        try {
+            // streamed to disk and uploaded from there, thousands of prompts do not sit in memory
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file));
+                 JsonGenerator generator = LlmJsonCodec.batchWriter(out)) {
+                for (Item item : items) {
+                    LlmPrompt prompt = templates.get(item.prompt()).render(item.jobDescription(), item.keywords(), item.resumeText());
+                    LlmJsonCodec.writeBatchLine(generator, item.customId(), prompt.requestStart(), model, prompt.user());
+                }
+            }
+            String inputFileId = upload(file);
+            JsonNode batch = restTemplate.postForObject(baseUrl + "/batches", new HttpEntity<>(Map.of(
+                    "input_file_id", inputFileId,
+                    "endpoint", "/v1/chat/completions",
+                    "completion_window", completionWindow), jsonHeaders()), JsonNode.class);
+            String batchId = requiredText(batch, "id");
+            log.info("Submitted LLM batch {} with {} requests (input file {})", batchId, items.size(), inputFileId);
+            return batchId;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write batch input file", e);
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.debug("Could not delete batch input file {}", file, e);
+            }
+        }
+    }
+
+    public BatchStatus status(String batchId) {
+        JsonNode batch = restTemplate.exchange(baseUrl + "/batches/" + batchId, HttpMethod.GET,
+                new HttpEntity<>(authHeaders()), JsonNode.class).getBody();
+        String status = requiredText(batch, "status");
+        return new BatchStatus(status, TERMINAL_STATUSES.contains(status),
+                textOrNull(batch, "output_file_id"), textOrNull(batch, "error_file_id"));
+    }
+
+    /**
+     * Asks the provider to stop a batch; requests it already ran are still billed.
+     */
+    public void cancel(String batchId) {
+        restTemplate.postForObject(baseUrl + "/batches/" + batchId + "/cancel", new HttpEntity<>(authHeaders()), JsonNode.class);
+        log.info("Cancelled LLM batch {}", batchId);
+    }
+
+    /**
+     * Reads an output file. Requests that failed or are missing from it (see the error file) have
+     * no entry, so the caller treats them like requests that never ran.
+     *
+     * @return successful results by custom id
+     */
+    public Map<String, LlmResult> results(String outputFileId) {
+        List<LlmJsonCodec.BatchOutcome> outcomes = restTemplate.execute(baseUrl + "/files/" + outputFileId + "/content",
+                HttpMethod.GET,
+                request -> request.getHeaders().setBearerAuth(apiKey),
+                response -> LlmJsonCodec.readBatchOutput(response.getBody()));
+        Map<String, LlmResult> results = new HashMap<>();
+        int errors = 0;
+        for (LlmJsonCodec.BatchOutcome outcome : outcomes == null ? List.<LlmJsonCodec.BatchOutcome>of() : outcomes) {
+            if (outcome.completion() == null) {
+                errors++;
+                log.debug("Batch request {} failed: {}", outcome.customId(), outcome.error());
+                continue;
+            }
+            LlmJsonCodec.Completion completion = outcome.completion();
+            metrics.recordLlmTokens(completion.promptTokens(), completion.completionTokens(), completion.cachedTokens());
+            results.put(outcome.customId(), new LlmResult(completion.content(), 1, null,
+                    completion.promptTokens(), completion.completionTokens(), completion.cachedTokens(), model));
+        }
+        if (errors > 0) {
+            log.warn("LLM batch output file {} has {} failed requests", outputFileId, errors);
+        }
+        return results;
+    }
+
+    private String upload(Path file) {
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        form.add("purpose", "batch");
+        form.add("file", new FileSystemResource(file));
+        HttpHeaders headers = authHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        JsonNode uploaded = restTemplate.postForObject(baseUrl + "/files", new HttpEntity<>(form, headers), JsonNode.class);
+        return requiredText(uploaded, "id");
+    }
+
+    private HttpHeaders authHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(apiKey);
+        return headers;
+    }
+
+    private HttpHeaders jsonHeaders() {
+        HttpHeaders headers = authHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private static String requiredText(JsonNode node, String field) {
+        String value = textOrNull(node, field);
+        if (value == null) {
+            throw new IllegalStateException("LLM batch API response has no '" + field + "'");
+        }
+        return value;
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        JsonNode value = node == null ? null : node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    static String baseUrlOf(String chatCompletionsUrl) {
+        if (chatCompletionsUrl != null && chatCompletionsUrl.endsWith(CHAT_COMPLETIONS)) {
+            return chatCompletionsUrl.substring(0, chatCompletionsUrl.length() - CHAT_COMPLETIONS.length());
+        }
+        throw new IllegalStateException("Set llm.batch.url, it cannot be derived from llm.api.url " + chatCompletionsUrl);
+    }
+
+    /**
+     * The generations a job needs; each is one request in the batch.
+     */
+    public enum Prompt {
+        ATS_BULLETS(LlmClient.ATS_BULLETS_PROMPT),
+        COVER_LETTER(LlmClient.COVER_LETTER_PROMPT);
+
+        private final String template;
+
+        Prompt(String template) {
+            this.template = template;
+        }
+
+        public String customId(String jobId) {
+            return jobId + ":" + template;
+        }
+    }
+
+    public record Item(String customId, Prompt prompt, String resumeText, String jobDescription, List<String> keywords) {
+
+        public static Item of(String jobId, Prompt prompt, String resumeText, String jobDescription, List<String> keywords) {
+            return new Item(prompt.customId(jobId), prompt, resumeText, jobDescription, keywords);
+        }
+    }
+
+    /**
+     * @param status       provider status: validating, in_progress, finalizing, completed, failed, expired, ...
+     * @param outputFileId results of the requests that succeeded; may be set for expired and cancelled batches too
+     */
+    public record BatchStatus(String status, boolean terminal, String outputFileId, String errorFileId) {
+    }
+}
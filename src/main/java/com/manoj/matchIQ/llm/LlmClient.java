@@ -1,8 +1,32 @@
 package com.manoj.matchIQ.llm;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface LlmClient {
-    String generateAtsBullets(String resumeText, String jobDescription, List<String> keywords);
-    String generateTailoredCoverLetter(String resumeText, String jobDescription, List<String> keywords);
+
+    String ATS_BULLETS_PROMPT = "ats-bullets";
+    String COVER_LETTER_PROMPT = "cover-letter";
+
+    /**
+     * Hash of the text of prompt template {@code name} under {@code location} (see {@code llm.prompts.location}).
+     */
+    static String promptHash(String location, String name) {
+        return PromptTemplate.load(location, name).hash();
+    }
+
+    /**
+     * @param deadline no provider call or retry is started after this instant; {@code null} for none
+     */
+    LlmResult generateAtsBullets(String resumeText, String jobDescription, List<String> keywords, Instant deadline);
+
+    LlmResult generateTailoredCoverLetter(String resumeText, String jobDescription, List<String> keywords, Instant deadline);
+
+    default LlmResult generateAtsBullets(String resumeText, String jobDescription, List<String> keywords) {
+        return generateAtsBullets(resumeText, jobDescription, keywords, null);
+    }
+
+    default LlmResult generateTailoredCoverLetter(String resumeText, String jobDescription, List<String> keywords) {
+        return generateTailoredCoverLetter(resumeText, jobDescription, keywords, null);
+    }
 }
@@ -0,0 +1,331 @@
+package com.manoj.matchIQ.llm;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chat-completion JSON without intermediate copies. A request is written straight to the HTTP
+ * body: the constant parts, including a template's system message, are pre-encoded fragments and
+ * only the user message and model are escaped.
+ * A response is read with a streaming parser that keeps the first choice's text and the token
+ * usage and skips everything else, instead of building a tree of the whole body. Batch input and
+ * output files (JSONL) use the same fragments and parser.
+ */
+final class LlmJsonCodec {
+
+    static final int MAX_TOKENS = 1000;
+    static final double TEMPERATURE = 0.7;
+
+    private static final JsonFactory FACTORY = new JsonFactoryBuilder()
+            // the fragments are raw JSON, so the escaped values must not be separated like root values
+            .rootValueSeparator((String) null)
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+            .build();
+
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+    private static final SerializedString MODEL_FIELD = fragment("}],\"model\":");
+    private static final SerializedString REQUEST_END =
+            fragment(",\"max_tokens\":" + MAX_TOKENS + ",\"temperature\":" + TEMPERATURE + "}");
+    private static final SerializedString BATCH_LINE_START = fragment("{\"custom_id\":");
+    private static final SerializedString BATCH_LINE_BODY =
+            fragment(",\"method\":\"POST\",\"url\":\"/v1/chat/completions\",\"body\":");
+    private static final SerializedString BATCH_LINE_END = fragment("}\n");
+
+    private LlmJsonCodec() {
+    }
+
+    /**
+     * The request up to the user message's content, with {@code system} (if any) as the first message.
+     */
+    static SerializedString requestStart(String system) {
+        StringBuilder json = new StringBuilder("{\"messages\":[");
+        if (system != null && !system.isEmpty()) {
+            json.append("{\"role\":\"system\",\"content\":\"");
+            ENCODER.quoteAsString(system, json);
+            json.append("\"},");
+        }
+        json.append("{\"role\":\"user\",\"content\":");
+        return fragment(json.toString());
+    }
+
+    static void writeRequest(OutputStream out, SerializedString requestStart, String model, String user) throws IOException {
+        try (JsonGenerator generator = FACTORY.createGenerator(out)) {
+            writeRequest(generator, requestStart, model, user);
+        }
+    }
+
+    /**
+     * A generator for {@link #writeBatchLine}; closing it flushes but leaves {@code out} open.
+     */
+    static JsonGenerator batchWriter(OutputStream out) throws IOException {
+        return FACTORY.createGenerator(out);
+    }
+
+    /**
+     * One line of a batch input file: a chat-completion request under {@code customId}.
+     */
+    static void writeBatchLine(JsonGenerator generator, String customId, SerializedString requestStart,
+                               String model, String user) throws IOException {
+        generator.writeRaw(BATCH_LINE_START);
+        generator.writeString(customId);
+        generator.writeRaw(BATCH_LINE_BODY);
+        writeRequest(generator, requestStart, model, user);
+        generator.writeRaw(BATCH_LINE_END);
+    }
+
+    private static void writeRequest(JsonGenerator generator, SerializedString requestStart, String model,
+                                     String user) throws IOException {
+        generator.writeRaw(requestStart);
+        generator.writeString(user);
+        generator.writeRaw(MODEL_FIELD);
+        generator.writeString(model);
+        generator.writeRaw(REQUEST_END);
+    }
+
+    /**
+     * @throws com.fasterxml.jackson.core.JsonProcessingException if the body is not a JSON object
+     */
+    static Completion readResponse(InputStream in) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object");
+            }
+            return readCompletion(parser);
+        }
+    }
+
+    /**
+     * Reads a batch output file, one JSON object per line, each holding the chat-completion
+     * response for one {@code custom_id} or the error that replaced it.
+     */
+    static List<BatchOutcome> readBatchOutput(InputStream in) throws IOException {
+        List<BatchOutcome> outcomes = new ArrayList<>();
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "Expected one JSON object per line");
+                }
+                String customId = null;
+                int statusCode = 0;
+                Completion completion = null;
+                String error = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("custom_id".equals(field)) {
+                        customId = parser.getValueAsString();
+                    } else if ("response".equals(field) && value == JsonToken.START_OBJECT) {
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String responseField = parser.currentName();
+                            JsonToken responseValue = parser.nextToken();
+                            if ("status_code".equals(responseField)) {
+                                statusCode = parser.getValueAsInt(0);
+                            } else if ("body".equals(responseField) && responseValue == JsonToken.START_OBJECT) {
+                                completion = readCompletion(parser);
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                    } else if ("error".equals(field) && value == JsonToken.START_OBJECT) {
+                        error = collectErrorMessage(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (error == null && statusCode != 200) {
+                    error = "status " + statusCode;
+                } else if (error == null && (completion == null || completion.content() == null)) {
+                    error = "missing_choices";
+                }
+                outcomes.add(new BatchOutcome(customId, error == null ? completion : null, error));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Reads a chat-completion object, positioned on its {@code START_OBJECT}.
+     */
+    private static Completion readCompletion(JsonParser parser) throws IOException {
+        String content = null;
+        long promptTokens = 0;
+        long completionTokens = 0;
+        long cachedTokens = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("choices".equals(field) && value == JsonToken.START_ARRAY) {
+                content = readFirstChoice(parser);
+            } else if ("usage".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String usageField = parser.currentName();
+                    JsonToken usageValue = parser.nextToken();
+                    switch (usageField) {
+                        case "prompt_tokens" -> promptTokens = parser.getValueAsLong(0);
+                        case "completion_tokens" -> completionTokens = parser.getValueAsLong(0);
+                        case "prompt_tokens_details" -> {
+                            if (usageValue == JsonToken.START_OBJECT) {
+                                cachedTokens = readCachedTokens(parser);
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                        default -> parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new Completion(content, promptTokens, completionTokens, cachedTokens);
+    }
+
+    private static String collectErrorMessage(JsonParser parser) throws IOException {
+        String message = null;
+        String code = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("message".equals(field)) {
+                message = parser.getValueAsString();
+            } else if ("code".equals(field)) {
+                code = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return message != null ? message : code != null ? code : "error";
+    }
+
+    /**
+     * Reads {@code choices} (positioned on its {@code START_ARRAY}) and returns the text of the
+     * first choice: {@code message.content}, else {@code message.output}, else the legacy
+     * {@code text}; {@code null} when there is no choice.
+     */
+    private static String readFirstChoice(JsonParser parser) throws IOException {
+        JsonToken first = parser.nextToken();
+        if (first == JsonToken.END_ARRAY) {
+            return null;
+        }
+        String content = null;
+        String output = null;
+        String text = null;
+        if (first == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("message".equals(field) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String messageField = parser.currentName();
+                        parser.nextToken();
+                        if ("content".equals(messageField)) {
+                            content = collectText(parser);
+                        } else if ("output".equals(messageField)) {
+                            output = collectText(parser);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else if ("text".equals(field)) {
+                    text = collectText(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else {
+            parser.skipChildren();
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+        }
+        String chosen = content != null ? content : output != null ? output : text;
+        return chosen == null ? "" : chosen.trim();
+    }
+
+    private static long readCachedTokens(JsonParser parser) throws IOException {
+        long cached = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("cached_tokens".equals(field)) {
+                cached = parser.getValueAsLong(0);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Text of the current value: a string as is; content parts ({@code [{"type":"text","text":...}]}
+     * or plain strings) one per line; {@code null} for JSON null.
+     */
+    private static String collectText(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        appendText(parser, sb);
+        return sb.toString();
+    }
+
+    private static void appendText(JsonParser parser, StringBuilder sb) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            sb.append(parser.getText());
+        } else if (token == JsonToken.START_ARRAY) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                appendText(parser, sb);
+                // keep simple separation between parts
+                if (!sb.isEmpty() && sb.charAt(sb.length() - 1) != '\n') {
+                    sb.append('\n');
+                }
+            }
+        } else if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("text".equals(field) || "content".equals(field)) {
+                    appendText(parser, sb);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private static SerializedString fragment(String json) {
+        SerializedString fragment = new SerializedString(json);
+        // encode once, up front, rather than on the first request
+        fragment.asUnquotedUTF8();
+        return fragment;
+    }
+
+    /**
+     * @param content text of the first choice, {@code null} when the response has no choices
+     */
+    record Completion(String content, long promptTokens, long completionTokens, long cachedTokens) {
+    }
+
+    /**
+     * @param completion {@code null} when {@code error} is set
+     */
+    record BatchOutcome(String customId, Completion completion, String error) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.manoj.matchIQ.llm;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * A rendered {@link PromptTemplate}: the pre-encoded request start (which carries the system
+ * message) and the user message for this call.
+ */
+record LlmPrompt(String template, SerializedString requestStart, int systemLength, String user) {
+
+    int length() {
+        return systemLength + user.length();
+    }
+}
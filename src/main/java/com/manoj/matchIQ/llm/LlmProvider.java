@@ -0,0 +1,13 @@
+package com.manoj.matchIQ.llm;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * One OpenAI-compatible chat completions endpoint. Providers are tried in the order configured.
+ */
+public record LlmProvider(String name, String url, String apiKey, String model) {
+
+    public boolean isConfigured() {
+        return StringUtils.hasText(url) && StringUtils.hasText(apiKey);
+    }
+}
@@ -0,0 +1,20 @@
+package com.manoj.matchIQ.llm;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Additional providers used for hedging and failover, after the primary one configured with
+ * {@code llm.api.url}/{@code llm.api.key}/{@code llm.model}:
+ * <pre>
+ * llm.providers[0].name=backup
+ * llm.providers[0].url=https://...
+ * llm.providers[0].api-key=...
+ * llm.providers[0].model=...
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "llm")
+public record LlmProviderProperties(@DefaultValue List<LlmProvider> providers) {
+}
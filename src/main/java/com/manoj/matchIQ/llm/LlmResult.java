@@ -0,0 +1,34 @@
+package com.manoj.matchIQ.llm;
+
+/**
+ * Generated text plus what it took to get it, so callers can record per-job LLM timings.
+ *
+ * @param fallbackReason {@code null} when the content came from the provider
+ * @param cachedTokens   prompt tokens the provider reported as served from its prompt cache
+ * @param model          the model that generated the content, {@code null} for fallback content
+ */
+public record LlmResult(
+        String content,
+        int attempts,
+        String fallbackReason,
+        long promptTokens,
+        long completionTokens,
+        long cachedTokens,
+        String model) {
+
+    public static LlmResult fallback(String content, String reason, int attempts) {
+        return new LlmResult(content, attempts, reason, 0, 0, 0, null);
+    }
+
+    public LlmResult withAttempts(int attempts) {
+        return new LlmResult(content, attempts, fallbackReason, promptTokens, completionTokens, cachedTokens, model);
+    }
+
+    public boolean isFallback() {
+        return fallbackReason != null;
+    }
+
+    public boolean cacheHit() {
+        return cachedTokens > 0;
+    }
+}
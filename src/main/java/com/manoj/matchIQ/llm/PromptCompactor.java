@@ -0,0 +1,225 @@
+package com.manoj.matchIQ.llm;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Shrinks the resume and job description before they are put into LLM prompts: duplicate
+ * sentences are removed, short navigation/legal footer lines and a trailing benefits or
+ * equal-opportunity section are dropped from the job description, and then only the sentences
+ * that mention the most extracted keywords are kept (in their original order): the job
+ * description within {@code matchiq.prompt.max-posting-tokens}, the resume within what it
+ * leaves of {@code matchiq.prompt.max-input-tokens}.
+ * Tokens are estimated at four characters each, which is close enough for budgeting English text.
+ */
+@Component
+public class PromptCompactor {
+
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final Pattern LINES = Pattern.compile("\\R+");
+    private static final Pattern SENTENCES = Pattern.compile("(?<=[.!?])\\s+(?=[\\p{Lu}\\d•\\-*])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int FOOTER_MAX_WORDS = 12;
+    private static final int HEADING_MAX_WORDS = 6;
+    private static final Pattern FOOTER = Pattern.compile(
+            "\\b(accept (all )?cookies|cookie (policy|settings|preferences)|privacy (policy|notice)|terms of (use|service)"
+                    + "|all rights reserved|copyright (\\d{4}|\\(c\\))|(sign|log) ?(in|up) to (apply|save|continue)"
+                    + "|subscribe to (our )?(newsletter|job alerts)|share this (job|post)|follow us on)\\b|©",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern NAVIGATION = Pattern.compile(
+            "\\W*(sign (in|up)|log ?in|register|apply( now)?|save( job)?|share|subscribe|follow us|similar jobs"
+                    + "|job alerts?|skip to (main )?content|back to (top|search|jobs))\\W*",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern EQUAL_OPPORTUNITY = Pattern.compile(
+            "\\b(equal (opportunity|employment)|eeo|reasonable accommodations?)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BENEFITS_HEADING = Pattern.compile(
+            "\\b(benefits|perks|what we offer|why (join|work (for|with)) us|compensation)\\b|" + EQUAL_OPPORTUNITY.pattern(),
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern REQUIREMENTS_HEADING = Pattern.compile(
+            "\\b(requirements|qualifications|responsibilities|skills|experience|about you|must have"
+                    + "|what you('ll| will)? (do|bring|need))\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final boolean enabled;
+    private final int maxInputTokens;
+    private final int maxPostingTokens;
+
+    public PromptCompactor(
+            @Value("${matchiq.prompt.compaction.enabled:true}") boolean enabled,
+            @Value("${matchiq.prompt.max-input-tokens:3000}") int maxInputTokens,
+            @Value("${matchiq.prompt.max-posting-tokens:1500}") int maxPostingTokens) {
+        this.enabled = enabled;
+        this.maxInputTokens = maxInputTokens;
+        this.maxPostingTokens = Math.min(maxPostingTokens, maxInputTokens);
+    }
+
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    public CompactedPrompt compact(String resumeText, String jobDescription, List<String> keywords) {
+        int tokensBefore = estimateTokens(resumeText) + estimateTokens(jobDescription);
+        if (!enabled) {
+            return new CompactedPrompt(resumeText, jobDescription, tokensBefore, tokensBefore);
+        }
+        List<String> terms = normalizeKeywords(keywords);
+        List<Segment> resume = segments(resumeText, false);
+        List<Segment> posting = segments(jobDescription, true);
+
+        // the posting is cut on its own so every candidate for it gets the same prompt prefix;
+        // the resume gets whatever the posting leaves
+        posting = withinBudget(posting, terms, maxPostingTokens);
+        String compactedPosting = join(posting, jobDescription, maxPostingTokens);
+        int resumeBudget = maxInputTokens - estimateTokens(compactedPosting);
+        resume = withinBudget(resume, terms, resumeBudget);
+        String compactedResume = join(resume, resumeText, resumeBudget);
+        return new CompactedPrompt(compactedResume, compactedPosting, tokensBefore,
+                estimateTokens(compactedResume) + estimateTokens(compactedPosting));
+    }
+
+    private static List<Segment> segments(String text, boolean dropBoilerplate) {
+        List<Segment> segments = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return segments;
+        }
+        Set<String> seen = new HashSet<>();
+        String[] lines = LINES.split(text.strip());
+        int end = dropBoilerplate ? postingEnd(lines) : lines.length;
+        for (int line = 0; line < end; line++) {
+            if (dropBoilerplate && isFooter(lines[line])) {
+                continue;
+            }
+            for (String sentence : SENTENCES.split(lines[line])) {
+                String trimmed = WHITESPACE.matcher(sentence).replaceAll(" ").strip();
+                if (!trimmed.isEmpty() && seen.add(trimmed.toLowerCase(Locale.ROOT))) {
+                    segments.add(new Segment(trimmed, line, segments.size()));
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Where the posting proper ends: trailing footer lines and equal-opportunity statements are
+     * cut, and so is a benefits (or EEO) section from its heading on, unless a requirements
+     * heading follows it.
+     */
+    private static int postingEnd(String[] lines) {
+        int end = lines.length;
+        while (end > 0 && (isFooter(lines[end - 1]) || EQUAL_OPPORTUNITY.matcher(lines[end - 1]).find())) {
+            end--;
+        }
+        for (int line = end - 1; line > 0; line--) {
+            if (isHeading(lines[line], REQUIREMENTS_HEADING)) {
+                break;
+            }
+            if (isHeading(lines[line], BENEFITS_HEADING)) {
+                end = line;
+            }
+        }
+        return end;
+    }
+
+    private static boolean isFooter(String line) {
+        return NAVIGATION.matcher(line.strip()).matches()
+                || (words(line) <= FOOTER_MAX_WORDS && FOOTER.matcher(line).find());
+    }
+
+    private static boolean isHeading(String line, Pattern heading) {
+        return words(line) <= HEADING_MAX_WORDS && heading.matcher(line).find();
+    }
+
+    private static int words(String line) {
+        String stripped = line.strip();
+        return stripped.isEmpty() ? 0 : WHITESPACE.split(stripped).length;
+    }
+
+    /**
+     * Keeps the sentences with the most distinct keyword hits that fit in the budget; ties go
+     * to the earlier sentence, since resumes and postings front-load what matters.
+     */
+    private static List<Segment> withinBudget(List<Segment> segments, List<String> terms, int budget) {
+        if (tokens(segments) <= budget) {
+            return segments;
+        }
+        List<Segment> ranked = new ArrayList<>(segments);
+        ranked.sort(Comparator.comparingInt((Segment segment) -> -keywordHits(segment.text(), terms))
+                .thenComparingInt(Segment::position));
+        List<Segment> kept = new ArrayList<>();
+        int used = 0;
+        for (Segment segment : ranked) {
+            int cost = estimateTokens(segment.text()) + 1;
+            if (used + cost <= budget) {
+                kept.add(segment);
+                used += cost;
+            }
+        }
+        kept.sort(Comparator.comparingInt(Segment::position));
+        return kept;
+    }
+
+    private static int keywordHits(String sentence, List<String> terms) {
+        String lower = sentence.toLowerCase(Locale.ROOT);
+        int hits = 0;
+        for (String term : terms) {
+            if (lower.contains(term)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Sentences of the same source line are re-joined with a space so bullet lists keep their shape.
+     * Falls back to a hard cut when the text has no sentence that fits (e.g. one huge line).
+     */
+    private static String join(List<Segment> segments, String original, int budget) {
+        if (segments.isEmpty()) {
+            String text = original == null ? "" : original.strip();
+            return text.length() > budget * CHARS_PER_TOKEN ? text.substring(0, budget * CHARS_PER_TOKEN) : text;
+        }
+        StringBuilder sb = new StringBuilder();
+        int line = segments.get(0).line();
+        for (Segment segment : segments) {
+            if (!sb.isEmpty()) {
+                sb.append(segment.line() == line ? ' ' : '\n');
+            }
+            sb.append(segment.text());
+            line = segment.line();
+        }
+        return sb.toString();
+    }
+
+    private static List<String> normalizeKeywords(List<String> keywords) {
+        if (keywords == null) {
+            return List.of();
+        }
+        return keywords.stream()
+                .map(keyword -> keyword.toLowerCase(Locale.ROOT).replaceAll("^[^a-z0-9#+]+|[^a-z0-9#+]+$", ""))
+                .filter(keyword -> !keyword.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static int tokens(List<Segment> segments) {
+        int total = 0;
+        for (Segment segment : segments) {
+            total += estimateTokens(segment.text()) + 1;
+        }
+        return total;
+    }
+
+    private record Segment(String text, int line, int position) {
+    }
+
+    public record CompactedPrompt(String resumeText, String jobDescription, int tokensBefore, int tokensAfter) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.manoj.matchIQ.llm;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A prompt read once from {@code <location><name>.txt} and split into segments at load time.
+ * <p>
+ * Providers cache prompts by prefix, so a template is laid out with the stable content first:
+ * the part above the {@code ---} line is sent as the system message and is identical for every
+ * call (it is pre-encoded into the request fragment), then the user message starts with the job
+ * description and keywords, which a recruiter's candidates share, and ends with the resume.
+ * Placeholders are {@code {{jobDescription}}}, {@code {{keywords}}} and {@code {{resume}}}.
+ */
+final class PromptTemplate {
+
+    static final String DEFAULT_LOCATION = "classpath:prompts/";
+
+    private static final Pattern SEPARATOR = Pattern.compile("(?m)^---\\s*$");
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{(\\w+)}}");
+
+    private final String name;
+    private final String hash;
+    private final String system;
+    private final SerializedString requestStart;
+    private final List<String> literals = new ArrayList<>();
+    private final List<Placeholder> placeholders = new ArrayList<>();
+
+    private PromptTemplate(String name, String hash, String system, String user) {
+        this.name = name;
+        this.hash = hash;
+        this.system = system;
+        this.requestStart = LlmJsonCodec.requestStart(system);
+        Matcher matcher = PLACEHOLDER.matcher(user);
+        int literalStart = 0;
+        while (matcher.find()) {
+            literals.add(user.substring(literalStart, matcher.start()));
+            placeholders.add(Placeholder.of(name, matcher.group(1)));
+            literalStart = matcher.end();
+        }
+        literals.add(user.substring(literalStart));
+    }
+
+    static PromptTemplate load(String location, String name) {
+        Resource resource = new DefaultResourceLoader().getResource(location + name + ".txt");
+        try (InputStream in = resource.getInputStream()) {
+            return parse(name, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read prompt template " + resource.getDescription(), e);
+        }
+    }
+
+    static PromptTemplate parse(String name, String text) {
+        String[] parts = SEPARATOR.split(text.replace("\r\n", "\n"), 2);
+        if (parts.length != 2) {
+            throw new IllegalStateException("Prompt template " + name + " has no '---' line between system and user part");
+        }
+        return new PromptTemplate(name, sha256(text), parts[0].strip(), parts[1].strip());
+    }
+
+    /**
+     * SHA-256 of the template text, so stored generations can tell which version wrote them.
+     */
+    String hash() {
+        return hash;
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(text.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    LlmPrompt render(String jobDescription, List<String> keywords, String resume) {
+        int size = jobDescription.length() + resume.length() + 64;
+        for (String literal : literals) {
+            size += literal.length();
+        }
+        StringBuilder user = new StringBuilder(size);
+        for (int i = 0; i < placeholders.size(); i++) {
+            user.append(literals.get(i));
+            switch (placeholders.get(i)) {
+                case JOB_DESCRIPTION -> user.append(jobDescription);
+                case KEYWORDS -> user.append(String.join(", ", keywords));
+                case RESUME -> user.append(resume);
+            }
+        }
+        user.append(literals.get(literals.size() - 1));
+        return new LlmPrompt(name, requestStart, system.length(), user.toString());
+    }
+
+    private enum Placeholder {
+        JOB_DESCRIPTION("jobDescription"),
+        KEYWORDS("keywords"),
+        RESUME("resume");
+
+        private final String key;
+
+        Placeholder(String key) {
+            this.key = key;
+        }
+
+        static Placeholder of(String template, String key) {
+            for (Placeholder placeholder : values()) {
+                if (placeholder.key.equals(key)) {
+                    return placeholder;
+                }
+            }
+            throw new IllegalStateException("Unknown placeholder {{" + key + "}} in prompt template " + template);
+        }
+    }
+}
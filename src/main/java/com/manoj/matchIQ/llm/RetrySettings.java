@@ -0,0 +1,28 @@
+package com.manoj.matchIQ.llm;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries of transient provider errors ({@code llm.retry.*}): connection failures, 429 and
+ * 502/503/504. The wait before retry {@code n} is drawn uniformly from
+ * {@code [0, min(maxBackoff, initialBackoff * 2^(n-1))]} ("full jitter"), so that callers
+ * that failed together do not retry together.
+ *
+ * @param maxAttempts calls per provider, including the first one
+ */
+@ConfigurationProperties(prefix = "llm.retry")
+public record RetrySettings(
+        @DefaultValue("3") int maxAttempts,
+        @DefaultValue("500ms") Duration initialBackoff,
+        @DefaultValue("8s") Duration maxBackoff) {
+
+    Duration backoff(int failedAttempts) {
+        long ceiling = initialBackoff.toMillis() << Math.min(failedAttempts - 1, 20);
+        long capped = Math.min(maxBackoff.toMillis(), ceiling);
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(capped + 1));
+    }
+}
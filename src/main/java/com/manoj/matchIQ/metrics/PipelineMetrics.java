@@ -0,0 +1,268 @@
+package com.manoj.matchIQ.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single place that names and tags the Micrometer meters of the optimization pipeline.
+ * Everything here is scraped through {@code /actuator/prometheus}.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String STAGE_FETCH = "fetch";
+    public static final String STAGE_PARSE = "parse";
+    public static final String STAGE_QUEUE_WAIT = "queue_wait";
+    public static final String STAGE_EXTRACTION = "extraction";
+    public static final String STAGE_SCORING = "scoring";
+    public static final String STAGE_SIMILARITY = "similarity";
+    public static final String STAGE_PROMPT_PREP = "prompt_prep";
+    public static final String STAGE_BULLETS = "bullets";
+    public static final String STAGE_COVER_LETTER = "cover_letter";
+    public static final String STAGE_PERSISTENCE = "persistence";
+
+    private final MeterRegistry registry;
+    /** Registered meters by name and tag values, so recording does not build and look up a meter id each time. */
+    private final ConcurrentMap<MeterKey, Meter> meters = new ConcurrentHashMap<>();
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordStage(String stage, long nanos, String outcome) {
+        meter("matchiq.pipeline.stage", stage, outcome, () -> Timer.builder("matchiq.pipeline.stage")
+                .description("Duration of a single optimization pipeline stage")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordJob(Duration duration, String outcome) {
+        meter("matchiq.pipeline.job", outcome, null, () -> Timer.builder("matchiq.pipeline.job")
+                .description("End-to-end processing time of an optimization job")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry))
+                .record(duration);
+    }
+
+    /**
+     * Tagged by tenant so that interactive latency under another tenant's bulk load is visible;
+     * tenants are API keys, a bounded set.
+     */
+    public void recordQueueWait(Duration wait, String tenant, String priority) {
+        meter("matchiq.pipeline.queue.wait", tenant, priority, () -> Timer.builder("matchiq.pipeline.queue.wait")
+                .description("Time between submission and the start of processing")
+                .tag("tenant", tenant)
+                .tag("priority", priority)
+                .publishPercentileHistogram()
+                .register(registry))
+                .record(wait);
+    }
+
+    /**
+     * @param status HTTP status code of the provider response, the exception type when no
+     *               response was received, or {@code cancelled} for the loser of a hedge
+     */
+    public void recordLlmCall(String provider, long nanos, String status) {
+        meter("matchiq.llm.request", provider, status, () -> Timer.builder("matchiq.llm.request")
+                .description("Latency of LLM provider calls")
+                .tag("provider", provider)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLlmFallback(String reason) {
+        meter("matchiq.llm.fallback", reason, null, () -> Counter.builder("matchiq.llm.fallback")
+                .description("LLM generations served from fallback content")
+                .tag("reason", reason)
+                .register(registry))
+                .increment();
+    }
+
+    /**
+     * @param result {@code issued}, {@code won} (the hedge answered first) or {@code budget_exhausted}
+     */
+    public void recordLlmHedge(String result) {
+        meter("matchiq.llm.hedge", result, null, () -> Counter.builder("matchiq.llm.hedge")
+                .description("Duplicate LLM requests sent to the next provider after the hedging delay")
+                .tag("result", result)
+                .register(registry))
+                .increment();
+    }
+
+    public void recordLlmFailover(String provider, String reason) {
+        meter("matchiq.llm.failover", provider, reason, () -> Counter.builder("matchiq.llm.failover")
+                .description("LLM calls retried on the next provider after a failure")
+                .tag("provider", provider)
+                .tag("reason", reason)
+                .register(registry))
+                .increment();
+    }
+
+    public void recordLlmRetry(String provider, String reason) {
+        meter("matchiq.llm.retry", provider, reason, () -> Counter.builder("matchiq.llm.retry")
+                .description("LLM calls retried on the same provider after a transient error")
+                .tag("provider", provider)
+                .tag("reason", reason)
+                .register(registry))
+                .increment();
+    }
+
+    /**
+     * @param state state the provider's circuit breaker moved to: OPEN, HALF_OPEN or CLOSED
+     */
+    public void recordCircuitTransition(String provider, String state) {
+        meter("matchiq.llm.circuit.transitions", provider, state, () -> Counter.builder("matchiq.llm.circuit.transitions")
+                .description("LLM provider circuit breaker state changes")
+                .tag("provider", provider)
+                .tag("state", state)
+                .register(registry))
+                .increment();
+    }
+
+    /**
+     * @param cachedTokens the part of {@code promptTokens} the provider served from its prompt cache
+     */
+    public void recordLlmTokens(long promptTokens, long completionTokens, long cachedTokens) {
+        if (promptTokens > 0) {
+            tokenCounter("prompt").increment(promptTokens);
+        }
+        if (cachedTokens > 0) {
+            tokenCounter("cached").increment(cachedTokens);
+        }
+        if (completionTokens > 0) {
+            tokenCounter("completion").increment(completionTokens);
+        }
+    }
+
+    /**
+     * Estimated resume + job description tokens per job, before and after prompt compaction.
+     */
+    public void recordPromptCompaction(int tokensBefore, int tokensAfter) {
+        promptTokenSummary("raw").record(tokensBefore);
+        promptTokenSummary("compacted").record(tokensAfter);
+    }
+
+    public void recordScoreOnly(long nanos, String outcome) {
+        meter("matchiq.score.request", outcome, null, () -> Timer.builder("matchiq.score.request")
+                .description("Keyword extraction and scoring time of score-only requests")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDocumentParse(String fileType, long nanos, String outcome) {
+        meter("matchiq.document.parse", fileType, outcome, () -> Timer.builder("matchiq.document.parse")
+                .description("Resume text extraction time")
+                .tag("type", fileType)
+                .tag("outcome", outcome)
+                .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordJobDescriptionFetch(long nanos, String outcome) {
+        meter("matchiq.jobdescription.fetch", outcome, null, () -> Timer.builder("matchiq.jobdescription.fetch")
+                .description("Job posting fetch and extraction time")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordExecutorRejection(String executor) {
+        meter("matchiq.executor.rejected", executor, null, () -> Counter.builder("matchiq.executor.rejected")
+                .description("Tasks rejected because the executor queue was full")
+                .tag("name", executor)
+                .register(registry))
+                .increment();
+    }
+
+    public void recordTenantQuotaRejection(String tenant) {
+        meter("matchiq.scheduling.quota.rejected", tenant, null, () -> Counter.builder("matchiq.scheduling.quota.rejected")
+                .description("Submissions rejected because the tenant's queue was full")
+                .tag("tenant", tenant)
+                .register(registry))
+                .increment();
+    }
+
+    public void recordLeaseLost() {
+        meter("matchiq.worker.lease.lost", null, null, () -> Counter.builder("matchiq.worker.lease.lost")
+                .description("Jobs whose worker lease expired before the result was written")
+                .register(registry))
+                .increment();
+    }
+
+    public void recordLeaseRequeues(long jobs) {
+        meter("matchiq.worker.lease.requeued", null, null, () -> Counter.builder("matchiq.worker.lease.requeued")
+                .description("Jobs returned to PENDING by the expired-lease sweeper")
+                .register(registry))
+                .increment(jobs);
+    }
+
+    public void recordCoalesced() {
+        meter("matchiq.jobs.coalesced", null, null, () -> Counter.builder("matchiq.jobs.coalesced")
+                .description("Submissions attached to an identical in-flight job instead of being processed")
+                .register(registry))
+                .increment();
+    }
+
+    public void recordBatchJobs(String outcome, long jobs) {
+        meter("matchiq.llm.batch.jobs", outcome, null, () -> Counter.builder("matchiq.llm.batch.jobs")
+                .description("Jobs submitted to or collected from the provider's batch API")
+                .tag("outcome", outcome)
+                .register(registry))
+                .increment(jobs);
+    }
+
+    public void recordBulkEntry(String outcome) {
+        meter("matchiq.bulk.entries", outcome, null, () -> Counter.builder("matchiq.bulk.entries")
+                .description("Resumes from bulk upload archives, by whether a job was submitted for them")
+                .tag("outcome", outcome)
+                .register(registry))
+                .increment();
+    }
+
+    private DistributionSummary promptTokenSummary(String phase) {
+        return meter("matchiq.llm.prompt.input.tokens", phase, null,
+                () -> DistributionSummary.builder("matchiq.llm.prompt.input.tokens")
+                .description("Estimated resume and job description tokens sent to the LLM")
+                .baseUnit("tokens")
+                .tag("phase", phase)
+                .register(registry));
+    }
+
+    private Counter tokenCounter(String type) {
+        return meter("matchiq.llm.tokens", type, null, () -> Counter.builder("matchiq.llm.tokens")
+                .description("Tokens reported in LLM provider usage")
+                .tag("type", type)
+                .register(registry));
+    }
+
+    /**
+     * The meter registered under {@code name} and up to two tag values (in the order the
+     * builder adds the tags, {@code null} when unused), created with {@code register} the
+     * first time.
+     */
+    @SuppressWarnings("unchecked")
+    private <M extends Meter> M meter(String name, String firstTag, String secondTag, Supplier<M> register) {
+        return (M) meters.computeIfAbsent(new MeterKey(name, firstTag, secondTag), key -> register.get());
+    }
+
+    private record MeterKey(String name, String firstTag, String secondTag) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.manoj.matchIQ.model;
+
+/**
+ * Scheduling class of a job. Jobs without a priority (stored before priorities existed) are
+ * treated as {@link #INTERACTIVE}.
+ */
+public enum JobPriority {
+    /** A user is waiting for the result. */
+    INTERACTIVE,
+    /** Imports and other bulk submissions. */
+    BULK,
+    /** No latency expectation at all. */
+    BATCH;
+
+    public static JobPriority orDefault(JobPriority priority) {
+        return priority == null ? INTERACTIVE : priority;
+    }
+}
@@ -0,0 +1,101 @@
+package com.manoj.matchIQ.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One submission to the provider's batch API. Its jobs stay PROCESSING under the lease owner
+ * {@link #leaseOwner()} until the results are collected, so any worker node can collect them.
+ */
+@Document(collection = "llm_batches")
+public class LlmBatch {
+
+    @Id
+    private String id;
+    private String providerBatchId;
+    @Indexed
+    private LlmBatchStatus status;
+    /** Last status reported by the provider, e.g. in_progress, completed, expired. */
+    private String providerStatus;
+    private List<String> jobIds;
+    private Instant submittedAt;
+    /** When a node moved the batch to COLLECTING. */
+    private Instant collectingSince;
+    private Instant collectedAt;
+
+    public static String leaseOwner(String batchId) {
+        return "batch:" + batchId;
+    }
+
+    public String leaseOwner() {
+        return leaseOwner(id);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getProviderBatchId() {
+        return providerBatchId;
+    }
+
+    public void setProviderBatchId(String providerBatchId) {
+        this.providerBatchId = providerBatchId;
+    }
+
+    public LlmBatchStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(LlmBatchStatus status) {
+        this.status = status;
+    }
+
+    public String getProviderStatus() {
+        return providerStatus;
+    }
+
+    public void setProviderStatus(String providerStatus) {
+        this.providerStatus = providerStatus;
+    }
+
+    public List<String> getJobIds() {
+        return jobIds;
+    }
+
+    public void setJobIds(List<String> jobIds) {
+        this.jobIds = jobIds;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getCollectingSince() {
+        return collectingSince;
+    }
+
+    public void setCollectingSince(Instant collectingSince) {
+        this.collectingSince = collectingSince;
+    }
+
+    public Instant getCollectedAt() {
+        return collectedAt;
+    }
+
+    public void setCollectedAt(Instant collectedAt) {
+        this.collectedAt = collectedAt;
+    }
+}
@@ -0,0 +1,13 @@
+package com.manoj.matchIQ.model;
+
+public enum LlmBatchStatus {
+    /** Running at the provider; polled until it reaches a terminal provider status. */
+    SUBMITTED,
+    /**
+     * One node is writing the results back to the jobs. Goes back to SUBMITTED when that fails,
+     * or when the node takes longer than {@code matchiq.batch.collect-timeout-minutes}.
+     */
+    COLLECTING,
+    /** Results were written back; jobs without a result were requeued or failed. */
+    COLLECTED
+}
@@ -1,26 +1,88 @@
 package com.manoj.matchIQ.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Document(collection = "optimization_jobs")
+@CompoundIndexes({
+        // worker claim: oldest PENDING first
+        @CompoundIndex(name = "status_createdAt", def = "{'status': 1, 'createdAt': 1}"),
+        // fair-share claim: oldest PENDING job of one tenant and priority; per-tenant quotas
+        @CompoundIndex(name = "status_tenantId_priority_createdAt",
+                def = "{'status': 1, 'tenantId': 1, 'priority': 1, 'createdAt': 1}"),
+        // batch collection: oldest PENDING job of one priority across tenants
+        @CompoundIndex(name = "status_priority_createdAt", def = "{'status': 1, 'priority': 1, 'createdAt': 1}"),
+        // sweeper: expired PROCESSING leases
+        @CompoundIndex(name = "status_leaseExpiresAt", def = "{'status': 1, 'leaseExpiresAt': 1}"),
+        // single-flight: in-flight job with identical inputs, and the jobs attached to it
+        @CompoundIndex(name = "contentKey_status", def = "{'contentKey': 1, 'status': 1}"),
+        @CompoundIndex(name = "coalescedWith_status", def = "{'coalescedWith': 1, 'status': 1}", sparse = true),
+        // export: one tenant's jobs in creation order, with a unique tie-breaker for continuation tokens
+        @CompoundIndex(name = "tenantId_createdAt_id", def = "{'tenantId': 1, 'createdAt': 1, '_id': 1}")
+})
 public class OptimizationJob {
 
+    /** Tenant of jobs submitted without one, and of jobs stored before tenants existed. */
+    public static final String DEFAULT_TENANT = "default";
+
+    /**
+     * Values of {@code tenantId} that belong to {@code tenantId}: the default tenant also owns
+     * jobs stored without one.
+     */
+    public static List<String> storedTenantIds(String tenantId) {
+        return DEFAULT_TENANT.equals(tenantId) ? Arrays.asList(tenantId, null) : List.of(tenantId);
+    }
+
+    /**
+     * Whether this job is one of {@code tenantId}'s, see {@link #storedTenantIds}.
+     */
+    public boolean belongsTo(String tenantId) {
+        return this.tenantId == null ? DEFAULT_TENANT.equals(tenantId) : this.tenantId.equals(tenantId);
+    }
+
     @Id
     private String id;
     private String resumeText;
     private String jobDescription;
     private List<String> extractedKeywords;
     private Integer atsScore;
+    /** Cosine similarity of resume and job description as a percentage, see SemanticScoringService. */
+    private Integer semanticScore;
     private String optimizedBulletPoints;
     private String tailoredCoverLetter;
     private OptimizationStatus status;
     private String errorMessage;
     private Instant createdAt;
     private Instant updatedAt;
+    private List<StageTiming> stageTimings = new ArrayList<>();
+    /** Worker currently holding the job; only set while PROCESSING. */
+    private String leaseOwner;
+    private Instant leaseExpiresAt;
+    /** Number of times a worker has claimed the job, including requeues after lost leases. */
+    private Integer processingAttempts;
+    /** SHA-256 over resume text and job description; identical submissions share it. */
+    private String contentKey;
+    /** Id of the in-flight job computing this job's result; workers never claim such jobs. */
+    private String coalescedWith;
+    private String tenantId;
+    private JobPriority priority;
+    /** {@link LlmBatch} generating this job's texts; set while a BATCH job waits on the provider. */
+    private String batchId;
+    /** Job this one re-runs; set together with {@link #rerunFrom}. */
+    private String rerunOf;
+    /** Stage from which memoized results are ignored, see {@link PipelineStage#withDownstream()}. */
+    private PipelineStage rerunFrom;
+    /** Stage name -> hash of the inputs the stage ran on (or found a memo for). */
+    private Map<String, String> stageInputs;
 
     public String getResumeText() {
         return resumeText;
@@ -54,6 +116,14 @@ public class OptimizationJob {
         this.atsScore = atsScore;
     }
 
+    public Integer getSemanticScore() {
+        return semanticScore;
+    }
+
+    public void setSemanticScore(Integer semanticScore) {
+        this.semanticScore = semanticScore;
+    }
+
     public String getOptimizedBulletPoints() {
         return optimizedBulletPoints;
     }
@@ -102,6 +172,116 @@ public class OptimizationJob {
         this.updatedAt = updatedAt;
     }
 
+    public List<StageTiming> getStageTimings() {
+        return stageTimings;
+    }
+
+    public void setStageTimings(List<StageTiming> stageTimings) {
+        this.stageTimings = stageTimings;
+    }
+
+    public void addStageTiming(StageTiming timing) {
+        if (stageTimings == null) {
+            stageTimings = new ArrayList<>();
+        }
+        stageTimings.add(timing);
+    }
+
+    public void putStageInput(PipelineStage stage, String inputHash) {
+        if (stageInputs == null) {
+            stageInputs = new LinkedHashMap<>();
+        }
+        stageInputs.put(stage.stageName(), inputHash);
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public Instant getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(Instant leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public Integer getProcessingAttempts() {
+        return processingAttempts;
+    }
+
+    public void setProcessingAttempts(Integer processingAttempts) {
+        this.processingAttempts = processingAttempts;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public JobPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(JobPriority priority) {
+        this.priority = priority;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public String getRerunOf() {
+        return rerunOf;
+    }
+
+    public void setRerunOf(String rerunOf) {
+        this.rerunOf = rerunOf;
+    }
+
+    public PipelineStage getRerunFrom() {
+        return rerunFrom;
+    }
+
+    public void setRerunFrom(PipelineStage rerunFrom) {
+        this.rerunFrom = rerunFrom;
+    }
+
+    public Map<String, String> getStageInputs() {
+        return stageInputs;
+    }
+
+    public void setStageInputs(Map<String, String> stageInputs) {
+        this.stageInputs = stageInputs;
+    }
+
+    public String getContentKey() {
+        return contentKey;
+    }
+
+    public void setContentKey(String contentKey) {
+        this.contentKey = contentKey;
+    }
+
+    public String getCoalescedWith() {
+        return coalescedWith;
+    }
+
+    public void setCoalescedWith(String coalescedWith) {
+        this.coalescedWith = coalescedWith;
+    }
+
     public String getId() {
         return id;
     }
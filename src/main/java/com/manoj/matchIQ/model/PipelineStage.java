@@ -0,0 +1,62 @@
+package com.manoj.matchIQ.model;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The processing stages of a job and what each one reads. Declared in execution order, which is
+ * also a topological order of the dependencies. Stage names are those of the stage timings.
+ * <ul>
+ *   <li>extraction: job description</li>
+ *   <li>scoring: resume and keywords</li>
+ *   <li>similarity: resume and job description</li>
+ *   <li>prompt_prep: resume, job description and keywords</li>
+ *   <li>bullets, cover_letter: the prepared prompt</li>
+ * </ul>
+ */
+public enum PipelineStage {
+    EXTRACTION("extraction", false),
+    SCORING("scoring", false, EXTRACTION),
+    SIMILARITY("similarity", false),
+    PROMPT_PREP("prompt_prep", false, EXTRACTION),
+    BULLETS("bullets", true, PROMPT_PREP),
+    COVER_LETTER("cover_letter", true, PROMPT_PREP);
+
+    private final String stageName;
+    private final boolean llm;
+    private final List<PipelineStage> dependsOn;
+
+    PipelineStage(String stageName, boolean llm, PipelineStage... dependsOn) {
+        this.stageName = stageName;
+        this.llm = llm;
+        this.dependsOn = List.of(dependsOn);
+    }
+
+    public String stageName() {
+        return stageName;
+    }
+
+    /** Whether the stage calls the LLM. */
+    public boolean llm() {
+        return llm;
+    }
+
+    public List<PipelineStage> dependsOn() {
+        return dependsOn;
+    }
+
+    /**
+     * This stage and every stage that reads its output, directly or not: what has to run again
+     * when this stage's result is thrown away.
+     */
+    public Set<PipelineStage> withDownstream() {
+        Set<PipelineStage> stages = EnumSet.of(this);
+        for (PipelineStage stage : values()) {
+            if (stage.ordinal() > ordinal() && stage.dependsOn.stream().anyMatch(stages::contains)) {
+                stages.add(stage);
+            }
+        }
+        return stages;
+    }
+}
@@ -0,0 +1,96 @@
+package com.manoj.matchIQ.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Output of one {@link PipelineStage} for one set of inputs. The id is the stage and the hash
+ * of its inputs (plus, for generations, the model that wrote them), so a resubmission with the
+ * same inputs finds it without a query. Only the field of the stage's output is set.
+ */
+@Document(collection = "stage_memos")
+public class StageMemo {
+
+    @Id
+    private String id;
+    private PipelineStage stage;
+    private List<String> keywords;
+    private Integer atsScore;
+    private String content;
+    @Indexed(expireAfter = "30d")
+    private Instant createdAt;
+
+    public static String id(PipelineStage stage, String inputHash) {
+        return stage.stageName() + ":" + inputHash;
+    }
+
+    public static StageMemo ofKeywords(List<String> keywords) {
+        StageMemo memo = new StageMemo();
+        memo.setKeywords(keywords);
+        return memo;
+    }
+
+    public static StageMemo ofScore(int atsScore) {
+        StageMemo memo = new StageMemo();
+        memo.setAtsScore(atsScore);
+        return memo;
+    }
+
+    public static StageMemo ofContent(String content) {
+        StageMemo memo = new StageMemo();
+        memo.setContent(content);
+        return memo;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public PipelineStage getStage() {
+        return stage;
+    }
+
+    public void setStage(PipelineStage stage) {
+        this.stage = stage;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public void setKeywords(List<String> keywords) {
+        this.keywords = keywords;
+    }
+
+    public Integer getAtsScore() {
+        return atsScore;
+    }
+
+    public void setAtsScore(Integer atsScore) {
+        this.atsScore = atsScore;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
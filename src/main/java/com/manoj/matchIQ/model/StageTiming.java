@@ -0,0 +1,144 @@
+package com.manoj.matchIQ.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Start/end of one stage of a single job run, stored on {@link OptimizationJob} so a slow
+ * job can be explained without searching the logs.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StageTiming {
+
+    private String stage;
+    private Instant startedAt;
+    private Instant endedAt;
+    private Long durationMs;
+    private String outcome;
+    /** LLM stages only: provider calls made for this stage. */
+    private Integer attempts;
+    /** LLM stages only: whether the provider served part of the prompt from its cache. */
+    private Boolean cacheHit;
+    /** LLM stages only: prompt tokens billed, and how many of them the provider's cache served. */
+    private Long promptTokens;
+    private Long cachedTokens;
+    /** Prompt preparation only: estimated resume + job description tokens before and after compaction. */
+    private Integer tokensBefore;
+    private Integer tokensAfter;
+
+    public static StageTiming start(String stage) {
+        StageTiming timing = new StageTiming();
+        timing.setStage(stage);
+        timing.setStartedAt(Instant.now());
+        return timing;
+    }
+
+    public static StageTiming between(String stage, Instant startedAt, Instant endedAt) {
+        StageTiming timing = new StageTiming();
+        timing.setStage(stage);
+        timing.setStartedAt(startedAt);
+        timing.finish(endedAt, "success");
+        return timing;
+    }
+
+    public StageTiming finish(String outcome) {
+        return finish(Instant.now(), outcome);
+    }
+
+    private StageTiming finish(Instant endedAt, String outcome) {
+        this.endedAt = endedAt;
+        this.durationMs = Duration.between(startedAt, endedAt).toMillis();
+        this.outcome = outcome;
+        return this;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getEndedAt() {
+        return endedAt;
+    }
+
+    public void setEndedAt(Instant endedAt) {
+        this.endedAt = endedAt;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Boolean getCacheHit() {
+        return cacheHit;
+    }
+
+    public void setCacheHit(Boolean cacheHit) {
+        this.cacheHit = cacheHit;
+    }
+
+    public Long getPromptTokens() {
+        return promptTokens;
+    }
+
+    public void setPromptTokens(Long promptTokens) {
+        this.promptTokens = promptTokens;
+    }
+
+    public Long getCachedTokens() {
+        return cachedTokens;
+    }
+
+    public void setCachedTokens(Long cachedTokens) {
+        this.cachedTokens = cachedTokens;
+    }
+
+    public Integer getTokensBefore() {
+        return tokensBefore;
+    }
+
+    public void setTokensBefore(Integer tokensBefore) {
+        this.tokensBefore = tokensBefore;
+    }
+
+    public Integer getTokensAfter() {
+        return tokensAfter;
+    }
+
+    public void setTokensAfter(Integer tokensAfter) {
+        this.tokensAfter = tokensAfter;
+    }
+}
@@ -0,0 +1,9 @@
+package com.manoj.matchIQ.repository;
+
+import com.manoj.matchIQ.model.JobPriority;
+
+/**
+ * Claimable (PENDING) and running (PROCESSING) jobs of one tenant and priority.
+ */
+public record JobFlowCount(String tenantId, JobPriority priority, long pending, long processing) {
+}
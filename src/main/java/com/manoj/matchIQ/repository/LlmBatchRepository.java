@@ -0,0 +1,37 @@
+package com.manoj.matchIQ.repository;
+
+import com.manoj.matchIQ.model.LlmBatch;
+import com.manoj.matchIQ.model.LlmBatchStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface LlmBatchRepository extends MongoRepository<LlmBatch, String> {
+
+    List<LlmBatch> findByStatus(LlmBatchStatus status);
+
+    /**
+     * Moves a SUBMITTED batch to COLLECTING; only the node for which this returns 1 collects it.
+     */
+    @Query("{ '_id': ?0, 'status': 'SUBMITTED' }")
+    @Update("{ '$set': { 'status': 'COLLECTING', 'providerStatus': ?1, 'collectingSince': ?2 } }")
+    long startCollecting(String id, String providerStatus, Instant now);
+
+    /**
+     * Hands a batch whose collection failed back to the pollers. Collecting again is safe: jobs
+     * already written back are no longer held by the batch's lease owner.
+     */
+    @Query("{ '_id': ?0, 'status': 'COLLECTING' }")
+    @Update("{ '$set': { 'status': 'SUBMITTED' } }")
+    long resumePolling(String id);
+
+    /**
+     * Hands back the batches whose collecting node stopped (or stalled) before finishing.
+     */
+    @Query("{ 'status': 'COLLECTING', 'collectingSince': { '$lt': ?0 } }")
+    @Update("{ '$set': { 'status': 'SUBMITTED' } }")
+    long resumeStalledCollections(Instant collectingSince);
+}
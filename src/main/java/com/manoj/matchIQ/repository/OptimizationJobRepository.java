@@ -1,7 +1,27 @@
 package com.manoj.matchIQ.repository;
 
 import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
-public interface OptimizationJobRepository extends MongoRepository<OptimizationJob, String> {
+import java.util.Collection;
+import java.util.Optional;
+
+public interface OptimizationJobRepository extends MongoRepository<OptimizationJob, String>, OptimizationJobRepositoryCustom {
+
+    Optional<OptimizationJob> findFirstByContentKeyAndStatusInAndCoalescedWithIsNull(
+            String contentKey, Collection<OptimizationStatus> statuses);
+
+    long countByTenantIdInAndStatus(Collection<String> tenantIds, OptimizationStatus status);
+
+    /**
+     * PENDING jobs of a tenant, for its queue limit; see {@link OptimizationJob#storedTenantIds}.
+     */
+    default long countPending(String tenantId) {
+        return countByTenantIdInAndStatus(OptimizationJob.storedTenantIds(tenantId), OptimizationStatus.PENDING);
+    }
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'status': 1, 'updatedAt': 1 }")
+    Optional<OptimizationJob> findStatusById(String id);
 }
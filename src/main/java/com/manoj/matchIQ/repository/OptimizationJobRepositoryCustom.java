@@ -0,0 +1,99 @@
+package com.manoj.matchIQ.repository;
+
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.StageTiming;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Targeted updates that should not rewrite the whole job document, including the
+ * lease protocol used by workers to claim jobs from {@code optimization_jobs}.
+ */
+public interface OptimizationJobRepositoryCustom {
+
+    void appendStageTiming(String jobId, StageTiming timing);
+
+    /**
+     * Atomically moves the oldest PENDING job to PROCESSING under a lease held by {@code owner}.
+     */
+    Optional<OptimizationJob> claimNextPending(String owner, Duration lease);
+
+    /**
+     * Like {@link #claimNextPending(String, Duration)}, restricted to one tenant and priority.
+     * Jobs stored without tenant or priority belong to the default tenant and INTERACTIVE.
+     */
+    Optional<OptimizationJob> claimNextPending(String owner, Duration lease, String tenantId, JobPriority priority);
+
+    /**
+     * Like {@link #claimNextPending(String, Duration)}, restricted to one priority across all
+     * tenants; used to collect BATCH jobs for the provider's batch API.
+     */
+    Optional<OptimizationJob> claimNextPending(String owner, Duration lease, JobPriority priority);
+
+    /**
+     * Returns a PROCESSING job held by {@code owner} to PENDING, e.g. when its batch produced no
+     * result for it.
+     */
+    boolean releaseToPending(String jobId, String owner);
+
+    /**
+     * PENDING and PROCESSING counts per tenant and priority, for the fair-share scheduler.
+     * Coalesced followers are not claimable and are left out.
+     */
+    List<JobFlowCount> countActiveFlows();
+
+    /**
+     * Extends a lease; {@code false} means the lease was lost (expired and requeued).
+     */
+    boolean renewLease(String jobId, String owner, Duration lease);
+
+    /**
+     * Replaces the job document only while {@code owner} still holds its lease, so a worker
+     * that lost its lease cannot overwrite the result of the worker that took over.
+     */
+    boolean saveIfLeaseHeld(OptimizationJob job, String owner);
+
+    /**
+     * Fails PROCESSING jobs whose lease has expired after they have been claimed
+     * {@code maxAttempts} times. Call before {@link #requeueExpiredLeases}, which would
+     * otherwise hand them out again.
+     *
+     * @param lease lease length, used to detect PROCESSING jobs that never had a lease
+     * @return ids of the jobs that were failed, so their outcome can be published
+     */
+    List<String> failExhaustedLeases(int maxAttempts, Duration lease);
+
+    /**
+     * Returns PROCESSING jobs whose lease has expired to PENDING.
+     *
+     * @param lease lease length, used to detect PROCESSING jobs that never had a lease
+     * @return number of jobs requeued
+     */
+    long requeueExpiredLeases(Duration lease);
+
+    /**
+     * Copies the leader's result onto every PENDING job attached to it.
+     *
+     * @return ids of the jobs that were completed
+     */
+    List<String> completeFollowers(OptimizationJob leader);
+
+    /**
+     * Copies a terminal leader's result onto one follower that is still PENDING.
+     */
+    boolean completeFollower(String followerId, OptimizationJob leader);
+
+    /**
+     * Turns the followers of a leader back into ordinary PENDING jobs that workers may claim.
+     */
+    long detachFollowers(String leaderId);
+
+    /**
+     * Detaches followers that have waited longer than {@code maxWait}, e.g. because their
+     * leader was failed by the sweeper.
+     */
+    long detachStaleFollowers(Duration maxWait);
+}
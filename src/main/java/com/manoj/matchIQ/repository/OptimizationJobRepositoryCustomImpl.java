@@ -0,0 +1,220 @@
+package com.manoj.matchIQ.repository;
+
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import com.manoj.matchIQ.model.StageTiming;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+class OptimizationJobRepositoryCustomImpl implements OptimizationJobRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    OptimizationJobRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void appendStageTiming(String jobId, StageTiming timing) {
+        mongoTemplate.updateFirst(query(where("_id").is(jobId)), new Update().push("stageTimings", timing), OptimizationJob.class);
+    }
+
+    @Override
+    public Optional<OptimizationJob> claimNextPending(String owner, Duration lease) {
+        return claim(where("status").is(OptimizationStatus.PENDING).and("coalescedWith").is(null), owner, lease);
+    }
+
+    @Override
+    public Optional<OptimizationJob> claimNextPending(String owner, Duration lease, String tenantId, JobPriority priority) {
+        Criteria pending = where("status").is(OptimizationStatus.PENDING)
+                .and("tenantId").in(OptimizationJob.storedTenantIds(tenantId))
+                .and("priority").in(priority == JobPriority.INTERACTIVE
+                        ? Arrays.asList(priority, null) : List.of(priority))
+                .and("coalescedWith").is(null);
+        return claim(pending, owner, lease);
+    }
+
+    @Override
+    public Optional<OptimizationJob> claimNextPending(String owner, Duration lease, JobPriority priority) {
+        Criteria pending = where("status").is(OptimizationStatus.PENDING)
+                .and("priority").in(priority == JobPriority.INTERACTIVE
+                        ? Arrays.asList(priority, null) : List.of(priority))
+                .and("coalescedWith").is(null);
+        return claim(pending, owner, lease);
+    }
+
+    @Override
+    public boolean releaseToPending(String jobId, String owner) {
+        Query held = query(where("_id").is(jobId)
+                .and("status").is(OptimizationStatus.PROCESSING)
+                .and("leaseOwner").is(owner));
+        return mongoTemplate.updateFirst(held, releaseLease(Instant.now())
+                .set("status", OptimizationStatus.PENDING)
+                .unset("batchId"), OptimizationJob.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public List<JobFlowCount> countActiveFlows() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(where("status").in(OptimizationStatus.PENDING, OptimizationStatus.PROCESSING)
+                        .and("coalescedWith").is(null)),
+                Aggregation.group("tenantId", "priority", "status").count().as("count"));
+        Map<JobFlow, long[]> counts = new LinkedHashMap<>();
+        for (Document group : mongoTemplate.aggregate(aggregation, OptimizationJob.class, Document.class)) {
+            Document key = group.get("_id", Document.class);
+            JobFlow flow = new JobFlow(
+                    key.getString("tenantId") == null ? OptimizationJob.DEFAULT_TENANT : key.getString("tenantId"),
+                    key.getString("priority") == null ? JobPriority.INTERACTIVE : JobPriority.valueOf(key.getString("priority")));
+            long[] pendingAndProcessing = counts.computeIfAbsent(flow, k -> new long[2]);
+            long count = ((Number) group.get("count")).longValue();
+            pendingAndProcessing[OptimizationStatus.PENDING.name().equals(key.getString("status")) ? 0 : 1] += count;
+        }
+        List<JobFlowCount> flows = new ArrayList<>(counts.size());
+        counts.forEach((flow, pendingAndProcessing) -> flows.add(
+                new JobFlowCount(flow.tenantId(), flow.priority(), pendingAndProcessing[0], pendingAndProcessing[1])));
+        return flows;
+    }
+
+    private Optional<OptimizationJob> claim(Criteria pendingCriteria, String owner, Duration lease) {
+        Instant now = Instant.now();
+        Query pending = query(pendingCriteria).with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        Update claim = new Update()
+                .set("status", OptimizationStatus.PROCESSING)
+                .set("leaseOwner", owner)
+                .set("leaseExpiresAt", now.plus(lease))
+                .set("updatedAt", now)
+                .inc("processingAttempts", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(pending, claim,
+                FindAndModifyOptions.options().returnNew(true), OptimizationJob.class));
+    }
+
+    @Override
+    public boolean renewLease(String jobId, String owner, Duration lease) {
+        Query held = query(where("_id").is(jobId)
+                .and("status").is(OptimizationStatus.PROCESSING)
+                .and("leaseOwner").is(owner));
+        return mongoTemplate.updateFirst(held, new Update().set("leaseExpiresAt", Instant.now().plus(lease)),
+                OptimizationJob.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean saveIfLeaseHeld(OptimizationJob job, String owner) {
+        Query held = query(where("_id").is(job.getId())
+                .and("status").is(OptimizationStatus.PROCESSING)
+                .and("leaseOwner").is(owner));
+        return mongoTemplate.replace(held, job).getMatchedCount() > 0;
+    }
+
+    @Override
+    public List<String> failExhaustedLeases(int maxAttempts, Duration lease) {
+        Instant now = Instant.now();
+        Query exhausted = query(expiredLease(now, lease).and("processingAttempts").gte(maxAttempts));
+        exhausted.fields().include("_id");
+        List<String> failed = new ArrayList<>();
+        // one by one, so a job whose lease was renewed since the read is not reported as failed
+        for (OptimizationJob job : mongoTemplate.find(exhausted, OptimizationJob.class)) {
+            Query stillExpired = query(where("_id").is(job.getId()).andOperator(expiredLease(now, lease)));
+            Update fail = releaseLease(now)
+                    .set("status", OptimizationStatus.FAILED)
+                    .set("errorMessage", "Worker lease expired " + maxAttempts + " times");
+            if (mongoTemplate.updateFirst(stillExpired, fail, OptimizationJob.class).getModifiedCount() > 0) {
+                failed.add(job.getId());
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public long requeueExpiredLeases(Duration lease) {
+        Instant now = Instant.now();
+        return mongoTemplate.updateMulti(query(expiredLease(now, lease)),
+                releaseLease(now).set("status", OptimizationStatus.PENDING), OptimizationJob.class).getModifiedCount();
+    }
+
+    private static Update releaseLease(Instant now) {
+        return new Update()
+                .set("updatedAt", now)
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+    }
+
+    /**
+     * PROCESSING with an expired lease, or without any lease (written before leases existed)
+     * and untouched for longer than one lease period.
+     */
+    private static Criteria expiredLease(Instant now, Duration lease) {
+        return where("status").is(OptimizationStatus.PROCESSING).orOperator(
+                where("leaseExpiresAt").lt(now),
+                where("leaseExpiresAt").exists(false).and("updatedAt").lt(now.minus(lease)));
+    }
+
+    @Override
+    public List<String> completeFollowers(OptimizationJob leader) {
+        Query followers = query(where("coalescedWith").is(leader.getId()).and("status").is(OptimizationStatus.PENDING));
+        followers.fields().include("_id");
+        List<String> ids = mongoTemplate.find(followers, OptimizationJob.class).stream()
+                .map(OptimizationJob::getId)
+                .toList();
+        if (!ids.isEmpty()) {
+            mongoTemplate.updateMulti(query(where("_id").in(ids).and("status").is(OptimizationStatus.PENDING)),
+                    copyResult(leader), OptimizationJob.class);
+        }
+        return ids;
+    }
+
+    @Override
+    public boolean completeFollower(String followerId, OptimizationJob leader) {
+        Query follower = query(where("_id").is(followerId).and("status").is(OptimizationStatus.PENDING));
+        return mongoTemplate.updateFirst(follower, copyResult(leader), OptimizationJob.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public long detachFollowers(String leaderId) {
+        Query followers = query(where("coalescedWith").is(leaderId).and("status").is(OptimizationStatus.PENDING));
+        return mongoTemplate.updateMulti(followers, new Update().unset("coalescedWith").set("updatedAt", Instant.now()),
+                OptimizationJob.class).getModifiedCount();
+    }
+
+    @Override
+    public long detachStaleFollowers(Duration maxWait) {
+        Query stale = query(where("coalescedWith").ne(null)
+                .and("status").is(OptimizationStatus.PENDING)
+                .and("createdAt").lt(Instant.now().minus(maxWait)));
+        return mongoTemplate.updateMulti(stale, new Update().unset("coalescedWith").set("updatedAt", Instant.now()),
+                OptimizationJob.class).getModifiedCount();
+    }
+
+    private static Update copyResult(OptimizationJob leader) {
+        return new Update()
+                .set("status", leader.getStatus())
+                .set("extractedKeywords", leader.getExtractedKeywords())
+                .set("atsScore", leader.getAtsScore())
+                .set("semanticScore", leader.getSemanticScore())
+                .set("optimizedBulletPoints", leader.getOptimizedBulletPoints())
+                .set("tailoredCoverLetter", leader.getTailoredCoverLetter())
+                .set("errorMessage", leader.getErrorMessage())
+                .set("updatedAt", Instant.now());
+    }
+
+    private record JobFlow(String tenantId, JobPriority priority) {
+    }
+}
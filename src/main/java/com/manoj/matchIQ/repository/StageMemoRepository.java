@@ -0,0 +1,7 @@
+package com.manoj.matchIQ.repository;
+
+import com.manoj.matchIQ.model.StageMemo;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface StageMemoRepository extends MongoRepository<StageMemo, String> {
+}
@@ -0,0 +1,226 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.llm.LlmBatchClient;
+import com.manoj.matchIQ.llm.LlmResult;
+import com.manoj.matchIQ.llm.PromptCompactor.CompactedPrompt;
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.LlmBatch;
+import com.manoj.matchIQ.model.LlmBatchStatus;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import com.manoj.matchIQ.repository.LlmBatchRepository;
+import com.manoj.matchIQ.repository.OptimizationJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Runs BATCH-priority jobs through the provider's batch API instead of the synchronous LLM
+ * client. Every collect interval the PENDING BATCH jobs are claimed under the lease owner of a
+ * new {@link LlmBatch}, taken through extraction, scoring and prompt preparation locally, and
+ * their two generations submitted as one batch. One collect claims at most {@code max-jobs}
+ * jobs and stops claiming after {@code collect-budget-seconds}; the rest wait for the next one.
+ * Pollers on any node pick up finished batches.
+ * <p>
+ * Both run on the shared scheduler ({@code spring.task.scheduling.pool.size}), next to the
+ * worker's lease heartbeat and sweeper, which must not wait behind a long collect.
+ * <p>
+ * The jobs' lease covers the completion window, so the expired-lease sweeper is the safety net
+ * for a batch that is never collected. Jobs the provider did not answer go back to PENDING (and
+ * into the next batch) until they run out of attempts.
+ */
+@Component
+@ConditionalOnExpression("${matchiq.batch.enabled:false} and ${matchiq.worker.enabled:true}")
+public class BatchGenerationService {
+    private static final Logger log = LoggerFactory.getLogger(BatchGenerationService.class);
+
+    private final OptimizationJobRepository jobRepo;
+    private final LlmBatchRepository batchRepo;
+    private final ResumeOptimizationService optimizationService;
+    private final LlmBatchClient batchClient;
+    private final PipelineMetrics metrics;
+    private final int maxJobs;
+    private final Duration collectBudget;
+    private final Duration collectTimeout;
+    private final Duration lease;
+    private final int maxAttempts;
+
+    public BatchGenerationService(
+            OptimizationJobRepository jobRepo,
+            LlmBatchRepository batchRepo,
+            ResumeOptimizationService optimizationService,
+            LlmBatchClient batchClient,
+            PipelineMetrics metrics,
+            @Value("${matchiq.batch.max-jobs:5000}") int maxJobs,
+            @Value("${matchiq.batch.collect-budget-seconds:60}") long collectBudgetSeconds,
+            @Value("${matchiq.batch.collect-timeout-minutes:30}") long collectTimeoutMinutes,
+            @Value("${matchiq.batch.lease-hours:26}") long leaseHours,
+            @Value("${matchiq.worker.max-attempts:3}") int maxAttempts) {
+        this.jobRepo = jobRepo;
+        this.batchRepo = batchRepo;
+        this.optimizationService = optimizationService;
+        this.batchClient = batchClient;
+        this.metrics = metrics;
+        this.maxJobs = maxJobs;
+        this.collectBudget = Duration.ofSeconds(collectBudgetSeconds);
+        this.collectTimeout = Duration.ofMinutes(collectTimeoutMinutes);
+        this.lease = Duration.ofHours(leaseHours);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Claims up to {@code max-jobs} PENDING BATCH jobs and submits them as one batch.
+     */
+    @Scheduled(fixedDelayString = "${matchiq.batch.collect-interval-ms:300000}")
+    public void collect() {
+        String batchId = UUID.randomUUID().toString();
+        String owner = LlmBatch.leaseOwner(batchId);
+        List<OptimizationJob> jobs = new ArrayList<>();
+        List<LlmBatchClient.Item> items = new ArrayList<>();
+        Instant claimUntil = Instant.now().plus(collectBudget);
+        String providerBatchId = null;
+        try {
+            while (jobs.size() < maxJobs && Instant.now().isBefore(claimUntil)) {
+                Optional<OptimizationJob> claimed = jobRepo.claimNextPending(owner, lease, JobPriority.BATCH);
+                if (claimed.isEmpty()) {
+                    break;
+                }
+                OptimizationJob job = claimed.get();
+                job.setBatchId(batchId);
+                Optional<CompactedPrompt> prompt = optimizationService.prepareForBatch(job, owner);
+                if (prompt.isEmpty()) {
+                    continue;
+                }
+                jobs.add(job);
+                for (LlmBatchClient.Prompt kind : LlmBatchClient.Prompt.values()) {
+                    items.add(LlmBatchClient.Item.of(job.getId(), kind, prompt.get().resumeText(),
+                            prompt.get().jobDescription(), job.getExtractedKeywords()));
+                }
+            }
+            if (jobs.isEmpty()) {
+                return;
+            }
+
+            LlmBatch batch = new LlmBatch();
+            batch.setId(batchId);
+            batch.setJobIds(jobs.stream().map(OptimizationJob::getId).toList());
+            batch.setSubmittedAt(Instant.now());
+            providerBatchId = batchClient.submit(items);
+            batch.setProviderBatchId(providerBatchId);
+            batch.setStatus(LlmBatchStatus.SUBMITTED);
+            batchRepo.save(batch);
+            metrics.recordBatchJobs("submitted", jobs.size());
+            log.info("Batch {} submitted as {} with {} jobs", batchId, providerBatchId, jobs.size());
+        } catch (RuntimeException e) {
+            if (providerBatchId != null && !cancel(providerBatchId)) {
+                // requeued, the jobs would run (and be billed) a second time next to the provider batch
+                log.error("Batch {} was submitted as {} but could not be recorded or cancelled; its {} jobs stay "
+                        + "leased until the sweeper takes them back: {}", batchId, providerBatchId, jobs.size(), e.getMessage());
+                return;
+            }
+            log.warn("Submitting batch {} failed, returning {} jobs to the queue: {}", batchId, jobs.size(), e.getMessage());
+            for (OptimizationJob job : jobs) {
+                jobRepo.releaseToPending(job.getId(), owner);
+            }
+            metrics.recordBatchJobs("requeued", jobs.size());
+        }
+    }
+
+    private boolean cancel(String providerBatchId) {
+        try {
+            batchClient.cancel(providerBatchId);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Cancelling LLM batch {} failed: {}", providerBatchId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Checks the submitted batches and collects the finished ones. A batch is collected by the
+     * node that moves it to COLLECTING; if that fails, it is polled and collected again.
+     */
+    @Scheduled(fixedDelayString = "${matchiq.batch.poll-interval-ms:60000}")
+    public void poll() {
+        long stalled = batchRepo.resumeStalledCollections(Instant.now().minus(collectTimeout));
+        if (stalled > 0) {
+            log.warn("{} batches were COLLECTING for over {}, collecting them again", stalled, collectTimeout);
+        }
+        for (LlmBatch batch : batchRepo.findByStatus(LlmBatchStatus.SUBMITTED)) {
+            boolean collecting = false;
+            try {
+                LlmBatchClient.BatchStatus status = batchClient.status(batch.getProviderBatchId());
+                if (!status.terminal()) {
+                    continue;
+                }
+                collecting = batchRepo.startCollecting(batch.getId(), status.status(), Instant.now()) == 1;
+                if (collecting) {
+                    collectResults(batch, status);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Polling batch {} failed: {}", batch.getId(), e.getMessage());
+                if (collecting) {
+                    resumePolling(batch);
+                }
+            }
+        }
+    }
+
+    private void resumePolling(LlmBatch batch) {
+        try {
+            batchRepo.resumePolling(batch.getId());
+        } catch (RuntimeException e) {
+            // collect-timeout-minutes hands it back instead
+            log.warn("Could not return batch {} to SUBMITTED: {}", batch.getId(), e.getMessage());
+        }
+    }
+
+    private void collectResults(LlmBatch batch, LlmBatchClient.BatchStatus status) {
+        Map<String, LlmResult> results = status.outputFileId() != null
+                ? batchClient.results(status.outputFileId())
+                : Map.of();
+        String owner = batch.leaseOwner();
+        long completed = 0;
+        long requeued = 0;
+        long failed = 0;
+        for (OptimizationJob job : jobRepo.findAllById(batch.getJobIds())) {
+            if (job.getStatus() != OptimizationStatus.PROCESSING || !owner.equals(job.getLeaseOwner())) {
+                // lease expired and the sweeper took the job back
+                continue;
+            }
+            LlmResult bullets = results.get(LlmBatchClient.Prompt.ATS_BULLETS.customId(job.getId()));
+            LlmResult coverLetter = results.get(LlmBatchClient.Prompt.COVER_LETTER.customId(job.getId()));
+            if (bullets != null && coverLetter != null) {
+                optimizationService.completeFromBatch(job, owner, batch.getSubmittedAt(), bullets, coverLetter);
+                completed++;
+            } else if (job.getProcessingAttempts() != null && job.getProcessingAttempts() >= maxAttempts) {
+                optimizationService.failFromBatch(job, owner, batch.getSubmittedAt(),
+                        "LLM batch " + status.status() + " without a result, " + maxAttempts + " attempts");
+                failed++;
+            } else if (jobRepo.releaseToPending(job.getId(), owner)) {
+                requeued++;
+            }
+        }
+        batch.setStatus(LlmBatchStatus.COLLECTED);
+        batch.setProviderStatus(status.status());
+        batch.setCollectedAt(Instant.now());
+        batchRepo.save(batch);
+        metrics.recordBatchJobs("completed", completed);
+        metrics.recordBatchJobs("requeued", requeued);
+        metrics.recordBatchJobs("failed", failed);
+        log.info("Batch {} {}: {} jobs completed, {} requeued, {} failed",
+                batch.getId(), status.status(), completed, requeued, failed);
+    }
+}
@@ -0,0 +1,329 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.dto.BulkUploadEntryResponse;
+import com.manoj.matchIQ.dto.OptimizationRequest;
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.StageTiming;
+import com.manoj.matchIQ.repository.OptimizationJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * One job per resume in a ZIP archive, all against the same job description. Entries are read
+ * one after the other from the stream, so the archive is never unpacked as a whole: at most
+ * {@code bulkParsingExecutor}'s queue capacity of entries are held in memory while they wait
+ * for or go through {@link DocumentParsingService}, and reading pauses until one finishes. The
+ * archive is cut off after {@code matchiq.bulk.max-archive-bytes}.
+ * Parsed resumes are stored {@code matchiq.bulk.insert-batch-size} at a time with one bulk
+ * insert, then handed to coalescing and the workers like any other submission.
+ * <p>
+ * Each entry is reported exactly once to the caller's listener, as soon as its job is stored
+ * or the entry is rejected (too large, empty, unsupported type, unreadable, tenant queue
+ * full), so a slow parse or a bad file does not hold back the rest of the archive. Listener
+ * calls never overlap.
+ */
+@Service
+public class BulkResumeIngestionService {
+    private static final Logger log = LoggerFactory.getLogger(BulkResumeIngestionService.class);
+
+    private final DocumentParsingService documentParsingService;
+    private final ResumeOptimizationService optimizationService;
+    private final OptimizationJobRepository repo;
+    private final ThreadPoolTaskExecutor parsingExecutor;
+    private final PipelineMetrics metrics;
+    private final long maxArchiveBytes;
+    private final int maxEntryBytes;
+    private final int maxEntries;
+    private final int insertBatchSize;
+
+    public BulkResumeIngestionService(
+            DocumentParsingService documentParsingService,
+            ResumeOptimizationService optimizationService,
+            OptimizationJobRepository repo,
+            @Qualifier("bulkParsingExecutor") ThreadPoolTaskExecutor parsingExecutor,
+            PipelineMetrics metrics,
+            @Value("${matchiq.bulk.max-archive-bytes:209715200}") long maxArchiveBytes,
+            @Value("${matchiq.bulk.max-entry-bytes:" + DocumentParsingService.MAX_FILE_SIZE + "}") int maxEntryBytes,
+            @Value("${matchiq.bulk.max-entries:1000}") int maxEntries,
+            @Value("${matchiq.bulk.insert-batch-size:50}") int insertBatchSize) {
+        this.documentParsingService = documentParsingService;
+        this.optimizationService = optimizationService;
+        this.repo = repo;
+        this.parsingExecutor = parsingExecutor;
+        this.metrics = metrics;
+        this.maxArchiveBytes = maxArchiveBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, DocumentParsingService.MAX_FILE_SIZE);
+        this.maxEntries = maxEntries;
+        this.insertBatchSize = Math.max(1, insertBatchSize);
+    }
+
+    /**
+     * Longest archive {@link #ingest} reads; the rest is reported as an archive error.
+     */
+    public long getMaxArchiveBytes() {
+        return maxArchiveBytes;
+    }
+
+    /**
+     * Reads {@code archive} to the end (or to the first archive-level error) and returns once
+     * every entry has been reported. Does not close {@code archive}.
+     *
+     * @param intakeTimings stages measured by the caller before reading, added to every job
+     * @param listener      called once per entry, and once more without a file on an archive error
+     */
+    public void ingest(InputStream archive, String jobDescription, List<StageTiming> intakeTimings,
+                       SubmissionContext context, Consumer<BulkUploadEntryResponse> listener) {
+        Ingestion ingestion = new Ingestion(jobDescription, intakeTimings, context, listener);
+        // a task gives its permit back before its thread is free for the next one, so only
+        // entries that always fit in the queue are let through
+        int permits = Math.max(1, parsingExecutor.getQueueCapacity());
+        Semaphore inFlight = new Semaphore(permits);
+        int entries = 0;
+        try {
+            ZipInputStream zip = new ZipInputStream(new LimitedInputStream(archive, maxArchiveBytes));
+            ZipEntry entry;
+            while (!ingestion.isCancelled() && (entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (entry.isDirectory() || !isResumeEntry(name)) {
+                    continue;
+                }
+                if (++entries > maxEntries) {
+                    ingestion.reject(null, "Archive contains more than " + maxEntries + " files, the rest were not read");
+                    break;
+                }
+                byte[] content = readEntry(zip, maxEntryBytes);
+                if (content == null) {
+                    ingestion.reject(name, "File size exceeds maximum allowed size of " + maxEntryBytes + " bytes");
+                    continue;
+                }
+                inFlight.acquire();
+                try {
+                    parsingExecutor.execute(() -> {
+                        try {
+                            ingestion.parse(name, content);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } catch (TaskRejectedException e) {
+                    inFlight.release();
+                    ingestion.reject(name, "Too many resumes are being parsed, please retry later");
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read bulk upload archive: {}", e.getMessage());
+            ingestion.reject(null, "Could not read ZIP archive: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ingestion.reject(null, "Interrupted while reading the archive");
+        } finally {
+            // parses still running report their entries before the last batch is stored
+            inFlight.acquireUninterruptibly(permits);
+            ingestion.flush();
+        }
+    }
+
+    /**
+     * False for the metadata archivers add next to the real files (macOS resource forks,
+     * hidden dot files), which are skipped without being reported.
+     */
+    static boolean isResumeEntry(String name) {
+        String fileName = name.substring(name.lastIndexOf('/') + 1);
+        return !name.startsWith("__MACOSX/") && !fileName.isEmpty() && !fileName.startsWith(".");
+    }
+
+    /**
+     * The rest of the current entry, or {@code null} when it is longer than {@code limit} bytes.
+     * The declared size in the archive is not trusted; an oversized entry is never held in
+     * memory beyond {@code limit + 1} bytes.
+     */
+    static byte[] readEntry(InputStream entry, int limit) throws IOException {
+        byte[] content = entry.readNBytes(limit + 1);
+        return content.length > limit ? null : content;
+    }
+
+    /**
+     * Fails reads once more than {@code limit} bytes have come from the stream, so a request body
+     * of any length is consumed only up to the limit.
+     */
+    static final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long read;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void count(long n) throws IOException {
+            read += n;
+            if (read > limit) {
+                throw new IOException("Archive is larger than " + limit + " bytes");
+            }
+        }
+    }
+
+    private final class Ingestion {
+        private final String jobDescription;
+        private final List<StageTiming> intakeTimings;
+        private final SubmissionContext context;
+        private final Consumer<BulkUploadEntryResponse> listener;
+        private final List<String> batchFiles = new ArrayList<>();
+        private final List<OptimizationJob> batch = new ArrayList<>();
+        private volatile boolean cancelled;
+
+        Ingestion(String jobDescription, List<StageTiming> intakeTimings, SubmissionContext context,
+                  Consumer<BulkUploadEntryResponse> listener) {
+            this.jobDescription = jobDescription;
+            this.intakeTimings = intakeTimings;
+            this.context = context;
+            this.listener = listener;
+        }
+
+        /** Runs on a parsing thread. */
+        void parse(String file, byte[] content) {
+            if (cancelled) {
+                return;
+            }
+            Instant parseStart = Instant.now();
+            String resumeText;
+            try {
+                resumeText = documentParsingService.extractTextFromResume(file, content);
+            } catch (IOException | RuntimeException e) {
+                log.debug("Could not parse {} from bulk upload: {}", file, e.getMessage());
+                reject(file, e instanceof IllegalArgumentException ? e.getMessage() : "Could not read document: " + e.getMessage());
+                return;
+            }
+            if (resumeText.isBlank()) {
+                reject(file, "No text found in document");
+                return;
+            }
+            List<StageTiming> timings = new ArrayList<>(intakeTimings);
+            timings.add(StageTiming.between(PipelineMetrics.STAGE_PARSE, parseStart, Instant.now()));
+            OptimizationJob job = optimizationService.newJob(new OptimizationRequest(resumeText, jobDescription), timings, context);
+            synchronized (this) {
+                batchFiles.add(file);
+                batch.add(job);
+                if (batch.size() >= insertBatchSize) {
+                    flush();
+                }
+            }
+        }
+
+        synchronized void reject(String file, String error) {
+            if (file != null) {
+                metrics.recordBulkEntry("rejected");
+            }
+            report(BulkUploadEntryResponse.rejected(file, error));
+        }
+
+        /**
+         * Stores the jobs parsed since the last flush with one insert. The tenant quota is checked
+         * per job against the PENDING count read once per batch.
+         */
+        synchronized void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<String> files = new ArrayList<>();
+            List<OptimizationJob> jobs = new ArrayList<>();
+            long pending = optimizationService.getTenantQueueLimit() > 0
+                    ? repo.countPending(context.tenantId())
+                    : 0;
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    optimizationService.checkTenantQuota(context, pending + jobs.size());
+                    files.add(batchFiles.get(i));
+                    jobs.add(batch.get(i));
+                } catch (TenantQuotaExceededException e) {
+                    reject(batchFiles.get(i), e.getMessage());
+                }
+            }
+            batch.clear();
+            batchFiles.clear();
+            if (jobs.isEmpty()) {
+                return;
+            }
+
+            List<OptimizationJob> saved;
+            try {
+                saved = repo.insert(jobs);
+            } catch (RuntimeException e) {
+                log.error("Could not store {} jobs from bulk upload", jobs.size(), e);
+                files.forEach(file -> reject(file, "Could not store job, please retry"));
+                return;
+            }
+            for (int i = 0; i < saved.size(); i++) {
+                OptimizationJob job = saved.get(i);
+                optimizationService.afterSubmit(job);
+                metrics.recordBulkEntry("submitted");
+                report(BulkUploadEntryResponse.submitted(files.get(i), job.getId(), job.getStatus()));
+            }
+            log.debug("Bulk upload stored {} jobs for tenant {}", saved.size(), context.tenantId());
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void report(BulkUploadEntryResponse line) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                listener.accept(line);
+            } catch (RuntimeException e) {
+                // the client went away: stored jobs still run, the rest of the archive is skipped
+                log.debug("Bulk upload listener failed, not reading further entries: {}", e.getMessage());
+                cancelled = true;
+            }
+        }
+    }
+}
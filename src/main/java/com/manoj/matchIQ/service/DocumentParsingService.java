@@ -1,11 +1,14 @@
 package com.manoj.matchIQ.service;
 
+import com.manoj.matchIQ.metrics.PipelineMetrics;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -16,54 +19,83 @@ import java.io.InputStream;
 public class DocumentParsingService {
     private static final Logger log = LoggerFactory.getLogger(DocumentParsingService.class);
     
-    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    public static final int MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+
+    private final PipelineMetrics metrics;
+
+    public DocumentParsingService(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
     
     /**
      * Extracts text from uploaded resume file (PDF, DOCX, or TXT)
      */
     public String extractTextFromResume(MultipartFile file) throws IOException {
-        log.info(">>> Extracting text from resume file: {}", file.getOriginalFilename());
-        log.info("    File size: {} bytes, Content type: {}", file.getSize(), file.getContentType());
-        
+        log.debug("Extracting text from resume file: {} - Size: {} bytes, Content type: {}",
+                file.getOriginalFilename(), file.getSize(), file.getContentType());
+        return extractText(file.getOriginalFilename(), file.getSize(), file);
+    }
+
+    /**
+     * Same as {@link #extractTextFromResume(MultipartFile)} for an upload already read into
+     * memory (the reactive controllers receive file parts as buffers).
+     */
+    public String extractTextFromResume(String filename, byte[] content) throws IOException {
+        log.debug("Extracting text from resume file: {} - Size: {} bytes", filename, content.length);
+        return extractText(filename, content.length, new ByteArrayResource(content));
+    }
+
+    private String extractText(String filename, long size, InputStreamSource file) throws IOException {
         // Validate file size
-        if (file.getSize() > MAX_FILE_SIZE) {
+        if (size > MAX_FILE_SIZE) {
             throw new IllegalArgumentException("File size exceeds maximum allowed size of 10MB");
         }
         
         // Validate file is not empty
-        if (file.isEmpty()) {
+        if (size == 0) {
             throw new IllegalArgumentException("Uploaded file is empty");
         }
         
-        String filename = file.getOriginalFilename();
         if (filename == null) {
             throw new IllegalArgumentException("File name is null");
         }
         
         String extension = getFileExtension(filename).toLowerCase();
-        log.info("    File extension: {}", extension);
         
         String extractedText;
+        long parseStart = System.nanoTime();
+        String outcome = "error";
         
-        switch (extension) {
-            case "pdf":
-                extractedText = extractTextFromPDF(file.getInputStream());
-                break;
-            case "doc":
-            case "docx":
-                extractedText = extractTextFromWord(file.getInputStream());
-                break;
-            case "txt":
-                extractedText = new String(file.getBytes());
-                break;
-            default:
-                throw new IllegalArgumentException(
-                    "Unsupported file type: " + extension + ". Please upload PDF, DOCX, or TXT file."
-                );
+        try {
+            switch (extension) {
+                case "pdf":
+                    extractedText = extractTextFromPDF(file.getInputStream());
+                    break;
+                case "doc":
+                case "docx":
+                    extractedText = extractTextFromWord(file.getInputStream());
+                    break;
+                case "txt":
+                    try (InputStream in = file.getInputStream()) {
+                        extractedText = new String(in.readAllBytes());
+                    }
+                    break;
+                default:
+                    outcome = "unsupported";
+                    throw new IllegalArgumentException(
+                        "Unsupported file type: " + extension + ". Please upload PDF, DOCX, or TXT file."
+                    );
+            }
+            outcome = "success";
+        } finally {
+            metrics.recordDocumentParse("unsupported".equals(outcome) ? "other" : extension,
+                    System.nanoTime() - parseStart, outcome);
         }
         
-        log.info("<<< Successfully extracted {} characters from resume", extractedText.length());
-        log.debug("    First 100 chars: {}", extractedText.substring(0, Math.min(100, extractedText.length())));
+        if (log.isDebugEnabled()) {
+            log.debug("Extracted {} characters from resume - First 100 chars: {}",
+                    extractedText.length(), extractedText.substring(0, Math.min(100, extractedText.length())));
+        }
         
         return extractedText.trim();
     }
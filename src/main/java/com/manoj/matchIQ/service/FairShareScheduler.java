@@ -0,0 +1,144 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.repository.JobFlowCount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Decides which tenant/priority queue a worker claims from next, using start-time fair
+ * queuing: every (tenant, priority) flow with claimable jobs gets a share of the workers
+ * proportional to the weight of its priority, so one tenant's bulk import cannot hold up
+ * another tenant's interactive jobs. Tenants already running
+ * {@code matchiq.scheduling.tenant-max-concurrency} jobs are skipped.
+ * <p>
+ * The running count comes from the database, so the concurrency limit holds across nodes up to
+ * claims made concurrently by different nodes.
+ */
+@Component
+public class FairShareScheduler {
+
+    private static final int MAX_IDLE_FLOWS = 10_000;
+
+    private final Map<JobPriority, Integer> weights = new EnumMap<>(JobPriority.class);
+    private final int tenantMaxConcurrency;
+    private final Map<Flow, FlowState> states = new HashMap<>();
+    private double virtualTime;
+
+    public FairShareScheduler(
+            @Value("${matchiq.scheduling.weight.interactive:8}") int interactiveWeight,
+            @Value("${matchiq.scheduling.weight.bulk:2}") int bulkWeight,
+            @Value("${matchiq.scheduling.weight.batch:1}") int batchWeight,
+            @Value("${matchiq.scheduling.tenant-max-concurrency:4}") int tenantMaxConcurrency) {
+        weights.put(JobPriority.INTERACTIVE, Math.max(1, interactiveWeight));
+        weights.put(JobPriority.BULK, Math.max(1, bulkWeight));
+        weights.put(JobPriority.BATCH, Math.max(1, batchWeight));
+        this.tenantMaxConcurrency = tenantMaxConcurrency;
+    }
+
+    /**
+     * Starts a dispatch round from a fresh snapshot of the queues.
+     */
+    public synchronized Round newRound(List<JobFlowCount> counts) {
+        return new Round(counts);
+    }
+
+    /**
+     * One snapshot of the queues; claims made during the round are reported back so that several
+     * slots can be filled without querying the counts again.
+     */
+    public final class Round {
+        private final Map<Flow, Long> pending = new HashMap<>();
+        private final Map<String, Long> running = new HashMap<>();
+
+        private Round(List<JobFlowCount> counts) {
+            for (JobFlowCount count : counts) {
+                if (count.pending() > 0) {
+                    pending.put(new Flow(count.tenantId(), count.priority()), count.pending());
+                }
+                running.merge(count.tenantId(), count.processing(), Long::sum);
+            }
+            // flows that went idle since the last round start over at the current virtual time
+            states.forEach((flow, state) -> {
+                if (!pending.containsKey(flow)) {
+                    state.headStart = null;
+                }
+            });
+        }
+
+        /**
+         * @return the flow to claim from next, charged for one job; empty when nothing is eligible
+         */
+        public Optional<Flow> next() {
+            synchronized (FairShareScheduler.this) {
+                List<Flow> eligible = new ArrayList<>();
+                for (Map.Entry<Flow, Long> entry : pending.entrySet()) {
+                    Flow flow = entry.getKey();
+                    boolean canRun = entry.getValue() > 0 && running.getOrDefault(flow.tenantId(), 0L) < tenantMaxConcurrency;
+                    FlowState state = states.computeIfAbsent(flow, f -> new FlowState());
+                    if (!canRun) {
+                        // a blocked flow must not build up credit while it waits
+                        state.headStart = null;
+                        continue;
+                    }
+                    if (state.headStart == null) {
+                        state.headStart = Math.max(virtualTime, state.finish);
+                    }
+                    eligible.add(flow);
+                }
+                Optional<Flow> chosen = eligible.stream()
+                        .min(Comparator.comparingDouble((Flow flow) -> states.get(flow).headStart)
+                                .thenComparing(Flow::tenantId)
+                                .thenComparing(Flow::priority));
+                chosen.ifPresent(flow -> {
+                    FlowState state = states.get(flow);
+                    virtualTime = state.headStart;
+                    state.finish = state.headStart + 1.0 / weights.get(flow.priority());
+                    state.headStart = state.finish;
+                    pending.merge(flow, -1L, Long::sum);
+                    running.merge(flow.tenantId(), 1L, Long::sum);
+                });
+                pruneIdleFlows();
+                return chosen;
+            }
+        }
+
+        /**
+         * The claim for {@code flow} found nothing, e.g. another node got there first.
+         */
+        public void exhausted(Flow flow) {
+            synchronized (FairShareScheduler.this) {
+                pending.put(flow, 0L);
+                running.merge(flow.tenantId(), -1L, Long::sum);
+                FlowState state = states.get(flow);
+                if (state != null) {
+                    state.headStart = null;
+                }
+            }
+        }
+    }
+
+    private void pruneIdleFlows() {
+        if (states.size() > MAX_IDLE_FLOWS) {
+            states.values().removeIf(state -> state.headStart == null && state.finish <= virtualTime);
+        }
+    }
+
+    public record Flow(String tenantId, JobPriority priority) {
+    }
+
+    private static final class FlowState {
+        /** Virtual finish time of the last job served from the flow. */
+        private double finish;
+        /** Virtual start time of the flow's next job, while the flow is eligible. */
+        private Double headStart;
+    }
+}
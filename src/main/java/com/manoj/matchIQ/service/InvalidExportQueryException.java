@@ -0,0 +1,7 @@
+package com.manoj.matchIQ.service;
+
+public class InvalidExportQueryException extends RuntimeException {
+    public InvalidExportQueryException(String message) {
+        super(message);
+    }
+}
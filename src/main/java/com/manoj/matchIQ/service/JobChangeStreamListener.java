@@ -0,0 +1,120 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Feeds {@link JobStatusNotifier} from a MongoDB change stream on {@code optimization_jobs}
+ * so that clients connected to one node hear about jobs processed on another. Requires a
+ * replica set; enable with {@code matchiq.notifications.change-streams.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "matchiq.notifications.change-streams.enabled", havingValue = "true")
+public class JobChangeStreamListener {
+    private static final Logger log = LoggerFactory.getLogger(JobChangeStreamListener.class);
+
+    private static final long RETRY_DELAY_MS = 2000;
+
+    private final MongoTemplate mongoTemplate;
+    private final JobStatusNotifier statusNotifier;
+    private volatile boolean running;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+    private Thread watcher;
+
+    public JobChangeStreamListener(MongoTemplate mongoTemplate, JobStatusNotifier statusNotifier) {
+        this.mongoTemplate = mongoTemplate;
+        this.statusNotifier = statusNotifier;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        watcher = new Thread(this::watch, "job-change-stream");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching optimization_jobs change stream for status notifications");
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> current = cursor;
+        if (current != null) {
+            current.close();
+        }
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    private void watch() {
+        BsonDocument resumeToken = null;
+        while (running) {
+            try {
+                var stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(OptimizationJob.class))
+                        .watch(List.of(Aggregates.match(Filters.in("operationType", "insert", "update", "replace"))))
+                        .fullDocument(FullDocument.UPDATE_LOOKUP);
+                if (resumeToken != null) {
+                    stream = stream.resumeAfter(resumeToken);
+                }
+                cursor = stream.cursor();
+                while (running && cursor.hasNext()) {
+                    ChangeStreamDocument<Document> change = cursor.next();
+                    resumeToken = change.getResumeToken();
+                    forward(change);
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Change stream interrupted, retrying in {} ms: {}", RETRY_DELAY_MS, e.getMessage());
+                sleepQuietly();
+            }
+        }
+    }
+
+    private void forward(ChangeStreamDocument<Document> change) {
+        Document document = change.getFullDocument();
+        if (document == null) {
+            return;
+        }
+        String jobId = String.valueOf(document.get("_id"));
+        // converting the document is only worth it when somebody on this node is waiting
+        if (!statusNotifier.hasSubscribers(jobId)) {
+            return;
+        }
+        OptimizationJob job = mongoTemplate.getConverter().read(OptimizationJob.class, document);
+        if (job.getStatus() != null) {
+            statusNotifier.publish(OptimizationResultResponse.from(job));
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(RETRY_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.dto.OptimizationRequest;
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import com.manoj.matchIQ.repository.OptimizationJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Single-flight for optimization jobs: a submission whose resume and job description match a
+ * job of the same tenant and priority that is still PENDING/PROCESSING is stored as a follower
+ * of that job instead of running the pipeline again. Followers are never claimed by workers;
+ * they receive the leader's result when it completes, or are detached and processed on their
+ * own if the leader fails.
+ * <p>
+ * Leaders submitted on this node are found in memory; with
+ * {@code matchiq.coalescing.cross-node=true} the database is asked as well.
+ */
+@Component
+public class JobCoalescer {
+    private static final Logger log = LoggerFactory.getLogger(JobCoalescer.class);
+    private static final int MAX_LOCAL_LEADERS = 10_000;
+    private static final List<OptimizationStatus> IN_FLIGHT =
+            List.of(OptimizationStatus.PENDING, OptimizationStatus.PROCESSING);
+
+    private final OptimizationJobRepository repo;
+    private final JobStatusNotifier statusNotifier;
+    private final boolean enabled;
+    private final boolean crossNode;
+    /** contentKey -> id of the leader submitted on this node. */
+    private final Map<String, String> localLeaders = new LinkedHashMap<>(256, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_LOCAL_LEADERS;
+        }
+    };
+
+    public JobCoalescer(
+            OptimizationJobRepository repo,
+            JobStatusNotifier statusNotifier,
+            @Value("${matchiq.coalescing.enabled:true}") boolean enabled,
+            @Value("${matchiq.coalescing.cross-node:false}") boolean crossNode) {
+        this.repo = repo;
+        this.statusNotifier = statusNotifier;
+        this.enabled = enabled;
+        this.crossNode = crossNode;
+    }
+
+    /**
+     * Same key, same result. Tenant and priority are part of it: a result is never handed to
+     * another tenant, and an interactive submission never waits on a BATCH job's lease.
+     */
+    public static String contentKey(OptimizationRequest request, SubmissionContext context) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(context.tenantId().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(context.priority().name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(request.resumeText()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(request.jobDescription()).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @return id of an in-flight job with the same content key, if any
+     */
+    public Optional<String> findLeader(String contentKey) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String local;
+        synchronized (localLeaders) {
+            local = localLeaders.get(contentKey);
+        }
+        if (local != null) {
+            return Optional.of(local);
+        }
+        if (!crossNode) {
+            return Optional.empty();
+        }
+        return repo.findFirstByContentKeyAndStatusInAndCoalescedWithIsNull(contentKey, IN_FLIGHT)
+                .map(OptimizationJob::getId);
+    }
+
+    public void registerLeader(OptimizationJob leader) {
+        if (enabled && leader.getContentKey() != null) {
+            synchronized (localLeaders) {
+                localLeaders.put(leader.getContentKey(), leader.getId());
+            }
+        }
+    }
+
+    /**
+     * Called after a follower has been stored. If the leader finished before the follower was
+     * written it never saw the follower, so the follower is completed (or detached) here.
+     *
+     * @return {@code true} if the follower still needs a worker
+     */
+    public boolean afterFollowerSaved(OptimizationJob follower) {
+        Optional<OptimizationJob> leader = repo.findById(follower.getCoalescedWith());
+        if (leader.isPresent() && !leader.get().getStatus().isTerminal()) {
+            return false;
+        }
+        if (leader.isPresent() && leader.get().getStatus() == OptimizationStatus.COMPLETED) {
+            if (repo.completeFollower(follower.getId(), leader.get())) {
+                publishFollower(follower.getId(), leader.get());
+            }
+            return false;
+        }
+        forgetLeader(follower.getContentKey(), follower.getCoalescedWith());
+        repo.detachFollowers(follower.getCoalescedWith());
+        return true;
+    }
+
+    /**
+     * Hands a terminal leader's outcome to its followers. A completed result is copied to them;
+     * after a failure they are detached so each one is retried independently.
+     *
+     * @return {@code true} if detached followers are now waiting for a worker
+     */
+    public boolean onLeaderFinished(OptimizationJob leader) {
+        forgetLeader(leader.getContentKey(), leader.getId());
+        if (!enabled) {
+            return false;
+        }
+        if (leader.getStatus() == OptimizationStatus.COMPLETED) {
+            List<String> followers = repo.completeFollowers(leader);
+            followers.forEach(id -> publishFollower(id, leader));
+            if (!followers.isEmpty()) {
+                log.debug("Completed {} coalesced jobs from leader {}", followers.size(), leader.getId());
+            }
+            return false;
+        }
+        return repo.detachFollowers(leader.getId()) > 0;
+    }
+
+    private void forgetLeader(String contentKey, String leaderId) {
+        if (contentKey == null) {
+            return;
+        }
+        synchronized (localLeaders) {
+            localLeaders.remove(contentKey, leaderId);
+        }
+    }
+
+    private void publishFollower(String followerId, OptimizationJob leader) {
+        OptimizationResultResponse result = new OptimizationResultResponse(
+                followerId,
+                leader.getStatus(),
+                leader.getAtsScore(),
+                leader.getSemanticScore(),
+                leader.getExtractedKeywords(),
+                leader.getOptimizedBulletPoints(),
+                leader.getTailoredCoverLetter(),
+                leader.getErrorMessage(),
+                null);
+        // not cached here: the follower's stored updatedAt, which its ETag is derived from, is
+        // only known once it is read back
+        statusNotifier.publish(result);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.strip();
+    }
+}
@@ -1,5 +1,6 @@
 package com.manoj.matchIQ.service;
 
+import com.manoj.matchIQ.metrics.PipelineMetrics;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -14,24 +15,23 @@ import java.io.IOException;
 public class JobDescriptionFetcherService {
     private static final Logger log = LoggerFactory.getLogger(JobDescriptionFetcherService.class);
     
-    private static final int TIMEOUT = 10000; // 10 seconds
-    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+    static final int TIMEOUT = 10000; // 10 seconds
+    static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+
+    private final PipelineMetrics metrics;
+
+    public JobDescriptionFetcherService(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
     
     /**
      * Fetches job description from a URL
      */
     public String fetchJobDescription(String url) throws IOException {
-        log.info(">>> Fetching job description from URL: {}", url);
-        
-        // Validate URL
-        if (url == null || url.trim().isEmpty()) {
-            throw new IllegalArgumentException("Job URL cannot be empty");
-        }
-        
-        if (!url.startsWith("http://") && !url.startsWith("https://")) {
-            throw new IllegalArgumentException("Invalid URL format. URL must start with http:// or https://");
-        }
+        log.debug("Fetching job description from URL: {}", url);
+        validateUrl(url);
         
+        long fetchStart = System.nanoTime();
         try {
             // Fetch the web page
             log.debug("    Connecting to URL...");
@@ -40,30 +40,50 @@ public class JobDescriptionFetcherService {
                     .timeout(TIMEOUT)
                     .get();
             
-            log.info("    Successfully fetched page - Title: {}", doc.title());
-            
-            // Extract job description using common selectors
-            String jobDescription = extractJobDescription(doc, url);
-            
-            if (jobDescription == null || jobDescription.trim().isEmpty()) {
-                log.warn("    Could not extract job description using selectors, falling back to body text");
-                jobDescription = doc.body().text();
-            }
-            
-            // Clean up the text
-            jobDescription = cleanText(jobDescription);
-            
-            log.info("<<< Successfully extracted {} characters from job posting", jobDescription.length());
-            log.debug("    First 100 chars: {}", jobDescription.substring(0, Math.min(100, jobDescription.length())));
-            
+            log.debug("    Successfully fetched page - Title: {}", doc.title());
+            String jobDescription = toJobDescription(doc, url);
+            metrics.recordJobDescriptionFetch(System.nanoTime() - fetchStart, "success");
             return jobDescription;
             
         } catch (IOException e) {
+            metrics.recordJobDescriptionFetch(System.nanoTime() - fetchStart, "error");
             log.error("    Failed to fetch job description from URL: {}", url, e);
             throw new IOException("Failed to fetch job description: " + e.getMessage(), e);
         }
     }
     
+    void validateUrl(String url) {
+        if (url == null || url.trim().isEmpty()) {
+            throw new IllegalArgumentException("Job URL cannot be empty");
+        }
+        
+        if (!url.startsWith("http://") && !url.startsWith("https://")) {
+            throw new IllegalArgumentException("Invalid URL format. URL must start with http:// or https://");
+        }
+    }
+
+    /**
+     * Picks the job description out of a fetched page, falling back to the body text
+     */
+    String toJobDescription(Document doc, String url) {
+        // Extract job description using common selectors
+        String jobDescription = extractJobDescription(doc, url);
+        
+        if (jobDescription == null || jobDescription.trim().isEmpty()) {
+            log.warn("    Could not extract job description using selectors, falling back to body text");
+            jobDescription = doc.body().text();
+        }
+        
+        // Clean up the text
+        jobDescription = cleanText(jobDescription);
+        
+        if (log.isDebugEnabled()) {
+            log.debug("Extracted {} characters from job posting - First 100 chars: {}",
+                    jobDescription.length(), jobDescription.substring(0, Math.min(100, jobDescription.length())));
+        }
+        return jobDescription;
+    }
+
     /**
      * Extracts job description using common selectors for job sites
      */
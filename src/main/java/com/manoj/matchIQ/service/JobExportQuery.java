@@ -0,0 +1,25 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.model.OptimizationStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Which jobs {@link JobExportService} exports and which of their fields.
+ *
+ * @param statuses any status when empty
+ * @param from     inclusive lower bound on {@code createdAt}, or {@code null}
+ * @param to       exclusive upper bound on {@code createdAt}, or {@code null}
+ * @param fields   exported fields in output order, {@link JobExportService#DEFAULT_FIELDS} when empty
+ * @param after    continuation token of the last line already received, or {@code null}
+ * @param limit    maximum number of jobs, 0 for all
+ */
+public record JobExportQuery(List<OptimizationStatus> statuses, Instant from, Instant to, List<String> fields,
+                             String after, int limit) {
+
+    public JobExportQuery {
+        statuses = statuses == null ? List.of() : List.copyOf(statuses);
+        fields = fields == null ? List.of() : fields.stream().map(String::strip).filter(f -> !f.isEmpty()).toList();
+    }
+}
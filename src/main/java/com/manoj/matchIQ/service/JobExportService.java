@@ -0,0 +1,283 @@
+package com.manoj.matchIQ.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Streams one tenant's {@code optimization_jobs} as NDJSON, one job per line, oldest first. Jobs
+ * are read through a MongoDB cursor ({@code matchiq.export.batch-size} documents per round trip)
+ * with only the requested fields, and written as they arrive, so memory use does not depend on
+ * how many jobs are exported.
+ * <p>
+ * Every line ends with a {@code cursor} field: passing the last one received as
+ * {@link JobExportQuery#after()}, with the same filters, continues the export after that job,
+ * whether the previous response was cut short by {@code limit} or by a lost connection.
+ */
+@Service
+public class JobExportService {
+    private static final Logger log = LoggerFactory.getLogger(JobExportService.class);
+
+    /** Fields that may be exported; internal bookkeeping (leases, content keys, memo inputs) is not. */
+    public static final Set<String> EXPORTABLE_FIELDS = Set.of(
+            "id", "tenantId", "priority", "status", "atsScore", "semanticScore", "extractedKeywords",
+            "errorMessage", "createdAt", "updatedAt", "stageTimings", "processingAttempts", "coalescedWith",
+            "rerunOf", "rerunFrom");
+
+    /** Candidate data and what was generated from it; exported only for analytics tenants. */
+    public static final Set<String> CONTENT_FIELDS = Set.of(
+            "resumeText", "jobDescription", "optimizedBulletPoints", "tailoredCoverLetter");
+
+    public static final List<String> DEFAULT_FIELDS = List.of(
+            "id", "tenantId", "priority", "status", "atsScore", "semanticScore", "errorMessage", "createdAt", "updatedAt");
+
+    static final String CURSOR_FIELD = "cursor";
+
+    private static final int FLUSH_EVERY = 1000;
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public JobExportService(
+            MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
+            @Value("${matchiq.export.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Checks the query; nothing is read until {@link Export#writeTo} is called. Only jobs of
+     * {@code tenant} are exported.
+     *
+     * @throws InvalidExportQueryException for an unknown field, an empty time range or a
+     *                                     malformed continuation token
+     * @throws AccessDeniedException       for a {@link #CONTENT_FIELDS content field} when
+     *                                     {@code tenant} is not an analytics tenant
+     */
+    public Export prepare(JobExportQuery request, TenantPrincipal tenant) {
+        List<String> fields = request.fields().isEmpty() ? DEFAULT_FIELDS : request.fields();
+        for (String field : fields) {
+            if (CONTENT_FIELDS.contains(field)) {
+                if (!tenant.analytics()) {
+                    throw new AccessDeniedException("Exporting " + field + " needs an analytics API key");
+                }
+            } else if (!EXPORTABLE_FIELDS.contains(field)) {
+                throw new InvalidExportQueryException("Unknown export field: " + field
+                        + ". Exportable fields: " + EXPORTABLE_FIELDS.stream().sorted().toList());
+            }
+        }
+        if (request.from() != null && request.to() != null && !request.from().isBefore(request.to())) {
+            throw new InvalidExportQueryException("'from' must be before 'to'");
+        }
+        if (request.limit() < 0) {
+            throw new InvalidExportQueryException("'limit' must not be negative");
+        }
+        ExportCursor after = request.after() == null || request.after().isBlank() ? null : ExportCursor.decode(request.after());
+        return new Export(query(request, tenant.tenantId(), fields, after), fields);
+    }
+
+    private Query query(JobExportQuery request, String tenantId, List<String> fields, ExportCursor after) {
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(where("tenantId").in(OptimizationJob.storedTenantIds(tenantId)));
+        if (!request.statuses().isEmpty()) {
+            criteria.add(where("status").in(request.statuses().stream().map(OptimizationStatus::name).toList()));
+        }
+        if (request.from() != null || request.to() != null) {
+            Criteria created = where("createdAt");
+            if (request.from() != null) {
+                created.gte(Date.from(request.from()));
+            }
+            if (request.to() != null) {
+                created.lt(Date.from(request.to()));
+            }
+            criteria.add(created);
+        }
+        if (after != null) {
+            Date createdAt = Date.from(after.createdAt());
+            criteria.add(new Criteria().orOperator(
+                    where("createdAt").gt(createdAt),
+                    where("createdAt").is(createdAt).and("_id").gt(after.id())));
+        }
+        Query query = new Query(new Criteria().andOperator(criteria));
+        // (createdAt, _id) is unique and indexed per tenant, so the continuation point is exact
+        query.with(Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("_id")));
+        fields.stream().map(JobExportService::documentField).forEach(query.fields()::include);
+        query.fields().include("createdAt");
+        query.cursorBatchSize(batchSize);
+        if (request.limit() > 0) {
+            query.limit(request.limit());
+        }
+        return query;
+    }
+
+    private static String documentField(String field) {
+        return "id".equals(field) ? "_id" : field;
+    }
+
+    /**
+     * Writes one line: the requested fields present in {@code document}, in request order,
+     * then its continuation token. ObjectIds are written as hex strings and dates as ISO-8601.
+     */
+    static void writeLine(JsonGenerator json, Document document, List<String> fields) throws IOException {
+        json.writeStartObject();
+        for (String field : fields) {
+            Object value = document.get(documentField(field));
+            if (value != null) {
+                json.writeFieldName(field);
+                writeValue(json, value);
+            }
+        }
+        json.writeStringField(CURSOR_FIELD, ExportCursor.of(document).encode());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeValue(JsonGenerator json, Object value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else if (value instanceof String text) {
+            json.writeString(text);
+        } else if (value instanceof ObjectId id) {
+            json.writeString(id.toHexString());
+        } else if (value instanceof Date date) {
+            json.writeString(date.toInstant().toString());
+        } else if (value instanceof Integer number) {
+            json.writeNumber(number);
+        } else if (value instanceof Long number) {
+            json.writeNumber(number);
+        } else if (value instanceof Double number) {
+            json.writeNumber(number);
+        } else if (value instanceof Boolean flag) {
+            json.writeBoolean(flag);
+        } else if (value instanceof Map<?, ?> map) {
+            json.writeStartObject();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!"_class".equals(entry.getKey())) {
+                    json.writeFieldName(String.valueOf(entry.getKey()));
+                    writeValue(json, entry.getValue());
+                }
+            }
+            json.writeEndObject();
+        } else if (value instanceof Collection<?> values) {
+            json.writeStartArray();
+            for (Object element : values) {
+                writeValue(json, element);
+            }
+            json.writeEndArray();
+        } else {
+            json.writeString(value.toString());
+        }
+    }
+
+    /**
+     * A checked export, ready to stream.
+     */
+    public final class Export {
+        private final Query query;
+        private final List<String> fields;
+
+        private Export(Query query, List<String> fields) {
+            this.query = query;
+            this.fields = fields;
+        }
+
+        /**
+         * {@link #writeTo(OutputStream)}, gzip-compressed when {@code gzip} is set.
+         */
+        public long writeTo(OutputStream out, boolean gzip) throws IOException {
+            if (!gzip) {
+                return writeTo(out);
+            }
+            try (GZIPOutputStream compressed = new GZIPOutputStream(StreamUtils.nonClosing(out), GZIP_BUFFER_SIZE)) {
+                return writeTo(compressed);
+            }
+        }
+
+        /**
+         * Writes every matching job to {@code out} and flushes it; does not close it.
+         *
+         * @return the number of jobs written
+         */
+        public long writeTo(OutputStream out) throws IOException {
+            long written = 0;
+            long start = System.nanoTime();
+            String collection = mongoTemplate.getCollectionName(OptimizationJob.class);
+            try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, collection);
+                 JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.setRootValueSeparator(null);
+                for (Document document : (Iterable<Document>) documents::iterator) {
+                    writeLine(json, document, fields);
+                    if (++written % FLUSH_EVERY == 0) {
+                        json.flush();
+                    }
+                }
+                json.flush();
+            }
+            log.debug("Exported {} jobs in {} ms", written, (System.nanoTime() - start) / 1_000_000);
+            return written;
+        }
+    }
+
+    /**
+     * Position after one job in export order, sent to clients as an opaque URL-safe token.
+     */
+    record ExportCursor(Instant createdAt, Object id) {
+
+        static ExportCursor of(Document document) {
+            Date createdAt = document.getDate("createdAt");
+            return new ExportCursor(createdAt != null ? createdAt.toInstant() : Instant.EPOCH, document.get("_id"));
+        }
+
+        String encode() {
+            String id = this.id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(this.id);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt.toEpochMilli() + ":" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static ExportCursor decode(String token) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf(':');
+                Instant createdAt = Instant.ofEpochMilli(Long.parseLong(decoded.substring(0, separator)));
+                String id = decoded.substring(separator + 1);
+                return new ExportCursor(createdAt, ObjectId.isValid(id) ? new ObjectId(id) : id);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new InvalidExportQueryException("Malformed continuation token: " + token);
+            }
+        }
+    }
+}
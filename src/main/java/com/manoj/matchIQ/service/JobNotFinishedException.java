@@ -0,0 +1,9 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.model.OptimizationStatus;
+
+public class JobNotFinishedException extends RuntimeException {
+    public JobNotFinishedException(String jobId, OptimizationStatus status) {
+        super("Optimization " + jobId + " is still " + status);
+    }
+}
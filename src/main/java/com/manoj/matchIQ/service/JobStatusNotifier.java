@@ -0,0 +1,88 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * In-process fan-out of job status changes to clients waiting on a job id
+ * (long-poll and SSE subscribers in {@code OptimizationController}).
+ */
+@Component
+public class JobStatusNotifier {
+    private static final Logger log = LoggerFactory.getLogger(JobStatusNotifier.class);
+
+    private final ConcurrentMap<String, Set<Consumer<OptimizationResultResponse>>> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a listener for status changes of a job. The returned handle must be
+     * closed once the client goes away, otherwise the listener is kept until the job
+     * reaches a terminal state.
+     */
+    public Subscription subscribe(String jobId, Consumer<OptimizationResultResponse> listener) {
+        subscribers.computeIfAbsent(jobId, id -> ConcurrentHashMap.newKeySet()).add(listener);
+        return () -> unsubscribe(jobId, listener);
+    }
+
+    public boolean hasSubscribers(String jobId) {
+        return subscribers.containsKey(jobId);
+    }
+
+    /**
+     * Delivers a status snapshot to every listener of the job. Terminal states drop all
+     * listeners for the job since no further change will follow.
+     */
+    public void publish(OptimizationResultResponse result) {
+        Set<Consumer<OptimizationResultResponse>> listeners = result.status().isTerminal()
+                ? subscribers.remove(result.id())
+                : subscribers.get(result.id());
+        if (listeners == null) {
+            return;
+        }
+        for (Consumer<OptimizationResultResponse> listener : listeners) {
+            try {
+                listener.accept(result);
+            } catch (RuntimeException e) {
+                log.warn("Status listener for job {} failed: {}", result.id(), e.getMessage());
+            }
+        }
+    }
+
+    private void unsubscribe(String jobId, Consumer<OptimizationResultResponse> listener) {
+        subscribers.computeIfPresent(jobId, (id, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    @FunctionalInterface
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * What one status stream passes on. Statuses do not only move forward (a job whose lease
+     * expired goes PROCESSING, PENDING, PROCESSING again), so updates are not ordered by status:
+     * only an exact repeat of the last update and anything after a terminal one are dropped,
+     * plus the snapshot read on subscribing once a live update went out, since that is at
+     * least as new.
+     */
+    public static final class UpdateFilter {
+        private OptimizationResultResponse last;
+
+        public synchronized boolean accept(OptimizationResultResponse update, boolean snapshot) {
+            if (last != null && (snapshot || last.status().isTerminal() || last.equals(update))) {
+                return false;
+            }
+            last = update;
+            return true;
+        }
+    }
+}
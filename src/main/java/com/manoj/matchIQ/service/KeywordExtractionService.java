@@ -18,7 +18,7 @@ public class KeywordExtractionService {
     );
 
     public List<String> extractKeywords(String jobDescription) {
-        log.info("Extracting keywords from job description - Length: {}", jobDescription != null ? jobDescription.length() : 0);
+        log.debug("Extracting keywords from job description - Length: {}", jobDescription != null ? jobDescription.length() : 0);
         
         List<String> keywords = Arrays.stream(jobDescription.toLowerCase(Locale.ROOT).split("[^a-z0-9+#.]+"))
                 .filter(token -> token.length() > 2)
@@ -28,7 +28,7 @@ public class KeywordExtractionService {
                 .limit(20)
                 .toList();
         
-        log.info("Extracted {} keywords: {}", keywords.size(), keywords);
+        log.debug("Extracted {} keywords: {}", keywords.size(), keywords);
         return keywords;
     }
 }
@@ -12,11 +12,11 @@ public class KeywordScoringService {
     private static final Logger log = LoggerFactory.getLogger(KeywordScoringService.class);
     
     public int calculateAtsScore(String resumeText, List<String> jobKeywords){
-        log.info("Calculating ATS score - Resume length: {}, Keywords count: {}", 
+        log.debug("Calculating ATS score - Resume length: {}, Keywords count: {}", 
                 resumeText != null ? resumeText.length() : 0, jobKeywords.size());
         
         if(jobKeywords.isEmpty()) {
-            log.warn("No keywords provided, returning score 0");
+            log.debug("No keywords provided, returning score 0");
             return 0;
         }
         
@@ -24,7 +24,7 @@ public class KeywordScoringService {
         long matches = jobKeywords.stream().filter(normalizedResume::contains).count();
         int score = (int) Math.round((matches*100.0)/jobKeywords.size());
         
-        log.info("ATS Score calculated: {}% ({}/{} keywords matched)", score, matches, jobKeywords.size());
+        log.debug("ATS Score calculated: {}% ({}/{} keywords matched)", score, matches, jobKeywords.size());
         return score;
     }
 }
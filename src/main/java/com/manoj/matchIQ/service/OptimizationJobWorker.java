@@ -0,0 +1,250 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.repository.JobFlowCount;
+import com.manoj.matchIQ.repository.OptimizationJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claims PENDING jobs from {@code optimization_jobs} under a lease and runs them on
+ * {@code optimizationExecutor}. Any number of nodes can run a worker; a node that dies
+ * simply stops renewing its leases and the sweeper hands its jobs to someone else.
+ * Disable with {@code matchiq.worker.enabled=false} for API-only nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "matchiq.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class OptimizationJobWorker {
+    private static final Logger log = LoggerFactory.getLogger(OptimizationJobWorker.class);
+
+    private final OptimizationJobRepository repo;
+    private final ResumeOptimizationService optimizationService;
+    private final Executor optimizationExecutor;
+    private final PipelineMetrics metrics;
+    private final FairShareScheduler scheduler;
+    private final String workerId;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final long pollIntervalMs;
+    private final Duration maxFollowerWait;
+    private final Semaphore slots;
+    private final boolean batchEnabled;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Set<String> heldJobs = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public OptimizationJobWorker(
+            OptimizationJobRepository repo,
+            ResumeOptimizationService optimizationService,
+            @Qualifier("optimizationExecutor") Executor optimizationExecutor,
+            PipelineMetrics metrics,
+            FairShareScheduler scheduler,
+            @Value("${matchiq.worker.id:}") String workerId,
+            @Value("${matchiq.worker.concurrency:5}") int concurrency,
+            @Value("${matchiq.worker.lease-seconds:60}") long leaseSeconds,
+            @Value("${matchiq.worker.max-attempts:3}") int maxAttempts,
+            @Value("${matchiq.worker.poll-interval-ms:1000}") long pollIntervalMs,
+            @Value("${matchiq.coalescing.max-follower-wait-seconds:600}") long maxFollowerWaitSeconds,
+            @Value("${matchiq.batch.enabled:false}") boolean batchEnabled) {
+        this.repo = repo;
+        this.optimizationService = optimizationService;
+        this.optimizationExecutor = optimizationExecutor;
+        this.metrics = metrics;
+        this.scheduler = scheduler;
+        this.workerId = workerId.isBlank() ? defaultWorkerId() : workerId;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxFollowerWait = Duration.ofSeconds(maxFollowerWaitSeconds);
+        this.slots = new Semaphore(concurrency);
+        this.batchEnabled = batchEnabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "job-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("Job worker {} started - Lease: {}s", workerId, lease.toSeconds());
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+    }
+
+    /**
+     * Lets the dispatcher claim right away instead of at the next poll, e.g. after a local submit.
+     */
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    @Scheduled(fixedDelayString = "${matchiq.worker.heartbeat-interval-ms:20000}")
+    public void renewLeases() {
+        for (String jobId : heldJobs) {
+            if (!repo.renewLease(jobId, workerId, lease)) {
+                log.warn("Lost lease on job {}, its result will be discarded", jobId);
+                metrics.recordLeaseLost();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${matchiq.worker.sweep-interval-ms:30000}")
+    public void requeueExpiredLeases() {
+        List<String> failed = repo.failExhaustedLeases(maxAttempts, lease);
+        if (!failed.isEmpty()) {
+            log.warn("Failed {} jobs whose lease expired {} times", failed.size(), maxAttempts);
+            failed.forEach(optimizationService::publishSweptFailure);
+        }
+        long requeued = repo.requeueExpiredLeases(lease);
+        if (requeued > 0) {
+            log.warn("Requeued {} jobs with expired leases", requeued);
+            metrics.recordLeaseRequeues(requeued);
+            wakeUp();
+        }
+        // followers whose leader was failed on a node that went away before publishing it
+        long detached = repo.detachStaleFollowers(maxFollowerWait);
+        if (detached > 0) {
+            log.warn("Detached {} coalesced jobs whose leader did not finish in time", detached);
+            wakeUp();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                dispatchAvailable();
+                wakeUps.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Job dispatch failed, retrying in {} ms: {}", pollIntervalMs, e.getMessage());
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * Claims only as many jobs as there are free slots, so leased jobs never sit in a local queue
+     * where another node could have run them. Which tenant and priority each slot goes to is
+     * decided by {@link FairShareScheduler}.
+     */
+    private void dispatchAvailable() {
+        FairShareScheduler.Round round = null;
+        while (running && slots.tryAcquire()) {
+            Optional<OptimizationJob> claimed = Optional.empty();
+            try {
+                if (round == null) {
+                    round = scheduler.newRound(claimableFlows());
+                }
+                while (claimed.isEmpty()) {
+                    Optional<FairShareScheduler.Flow> flow = round.next();
+                    if (flow.isEmpty()) {
+                        break;
+                    }
+                    claimed = repo.claimNextPending(workerId, lease, flow.get().tenantId(), flow.get().priority());
+                    if (claimed.isEmpty()) {
+                        round.exhausted(flow.get());
+                    }
+                }
+            } catch (RuntimeException e) {
+                slots.release();
+                throw e;
+            }
+            if (claimed.isEmpty()) {
+                slots.release();
+                return;
+            }
+            OptimizationJob job = claimed.get();
+            heldJobs.add(job.getId());
+            try {
+                optimizationExecutor.execute(() -> {
+                    try {
+                        optimizationService.processAsync(job, workerId);
+                    } finally {
+                        release(job.getId());
+                    }
+                });
+            } catch (RuntimeException e) {
+                // the lease expires and the sweeper requeues the job
+                release(job.getId());
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * With batch mode on, BATCH jobs belong to {@link BatchGenerationService}: they are neither
+     * claimed here nor counted against their tenant's share of the slots.
+     */
+    private List<JobFlowCount> claimableFlows() {
+        List<JobFlowCount> flows = repo.countActiveFlows();
+        if (!batchEnabled) {
+            return flows;
+        }
+        return flows.stream().filter(flow -> flow.priority() != JobPriority.BATCH).toList();
+    }
+
+    private void release(String jobId) {
+        heldJobs.remove(jobId);
+        slots.release();
+        wakeUp();
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static String defaultWorkerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "worker";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
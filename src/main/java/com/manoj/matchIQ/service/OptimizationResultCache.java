@@ -0,0 +1,92 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of terminal (COMPLETED/FAILED) results. Terminal jobs never change,
+ * so an entry stays valid for as long as it is held. The ETag is derived from the job's id,
+ * status and {@code updatedAt} rather than from the result texts, so that after a cache miss
+ * (restart, another node, eviction) a conditional request can be checked against a read of
+ * those two fields instead of the whole document.
+ */
+@Component
+public class OptimizationResultCache {
+
+    private final Map<String, Entry> entries;
+
+    public OptimizationResultCache(@Value("${matchiq.result-cache.max-entries:10000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Entry get(String id) {
+        synchronized (entries) {
+            return entries.get(id);
+        }
+    }
+
+    /**
+     * Caches a terminal result and returns its entry; non-terminal results, and results
+     * whose stored {@code updatedAt} is not known, are not cached and return {@code null}.
+     *
+     * @param updatedAt {@code updatedAt} of the stored terminal job
+     */
+    public Entry put(OptimizationResultResponse result, Instant updatedAt) {
+        if (result.status() == null || !result.status().isTerminal() || updatedAt == null) {
+            return null;
+        }
+        Entry entry = new Entry(result, etag(result.id(), result.status(), updatedAt));
+        synchronized (entries) {
+            entries.put(result.id(), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * ETag of a terminal job. MongoDB keeps milliseconds, so the in-memory {@code updatedAt}
+     * of a job that was just saved and the one read back give the same tag.
+     */
+    public static String etag(String id, OptimizationStatus status, Instant updatedAt) {
+        String version = id + "\u0000" + status.name() + "\u0000" + updatedAt.toEpochMilli();
+        return "\"" + DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so {@code W/} prefixes are ignored.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public record Entry(OptimizationResultResponse result, String etag) {
+
+        public boolean matches(String ifNoneMatch) {
+            return OptimizationResultCache.matches(ifNoneMatch, etag);
+        }
+    }
+}
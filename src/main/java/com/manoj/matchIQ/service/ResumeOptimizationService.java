@@ -1,126 +1,555 @@
 package com.manoj.matchIQ.service;
 
 import com.manoj.matchIQ.dto.OptimizationRequest;
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
 import com.manoj.matchIQ.llm.LlmClient;
+import com.manoj.matchIQ.llm.LlmResult;
+import com.manoj.matchIQ.llm.PromptCompactor;
+import com.manoj.matchIQ.llm.PromptCompactor.CompactedPrompt;
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import com.manoj.matchIQ.model.JobPriority;
 import com.manoj.matchIQ.model.OptimizationJob;
 import com.manoj.matchIQ.model.OptimizationStatus;
+import com.manoj.matchIQ.model.PipelineStage;
+import com.manoj.matchIQ.model.StageMemo;
+import com.manoj.matchIQ.model.StageTiming;
 import com.manoj.matchIQ.repository.OptimizationJobRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 public class ResumeOptimizationService {
     private static final Logger log = LoggerFactory.getLogger(ResumeOptimizationService.class);
+    /** One key=value line per stage and per job; route or silence it independently of DEBUG. */
+    private static final Logger events = LoggerFactory.getLogger("matchiq.pipeline.events");
     
     private final OptimizationJobRepository repo;
     private final KeywordExtractionService extractionService;
     private final KeywordScoringService scoringService;
+    private final SemanticScoringService semanticScoringService;
     private final LlmClient llmClient;
+    private final PromptCompactor promptCompactor;
+    private final JobStatusNotifier statusNotifier;
+    private final OptimizationResultCache resultCache;
+    private final PipelineMetrics metrics;
+    private final JobCoalescer coalescer;
+    private final StageMemoStore memoStore;
+    private final ObjectProvider<OptimizationJobWorker> localWorker;
+    private final Duration llmDeadline;
+    private final long tenantQueueLimit;
 
     public ResumeOptimizationService(
             OptimizationJobRepository repo,
             KeywordExtractionService extractionService,
             KeywordScoringService scoringService,
-            LlmClient llmClient) {
+            SemanticScoringService semanticScoringService,
+            LlmClient llmClient,
+            PromptCompactor promptCompactor,
+            JobStatusNotifier statusNotifier,
+            OptimizationResultCache resultCache,
+            PipelineMetrics metrics,
+            JobCoalescer coalescer,
+            StageMemoStore memoStore,
+            ObjectProvider<OptimizationJobWorker> localWorker,
+            @Value("${matchiq.pipeline.llm-deadline-seconds:120}") long llmDeadlineSeconds,
+            @Value("${matchiq.scheduling.tenant-queue-limit:1000}") long tenantQueueLimit) {
         this.repo = repo;
         this.extractionService = extractionService;
         this.scoringService = scoringService;
+        this.semanticScoringService = semanticScoringService;
         this.llmClient = llmClient;
-        log.info("ResumeOptimizationService initialized");
+        this.promptCompactor = promptCompactor;
+        this.statusNotifier = statusNotifier;
+        this.resultCache = resultCache;
+        this.metrics = metrics;
+        this.coalescer = coalescer;
+        this.memoStore = memoStore;
+        this.localWorker = localWorker;
+        this.llmDeadline = Duration.ofSeconds(llmDeadlineSeconds);
+        this.tenantQueueLimit = tenantQueueLimit;
     }
 
     public OptimizationJob submit(OptimizationRequest request){
-        log.info("=== SUBMIT START ===");
-        log.info("Received optimization request - Resume length: {}, Job description length: {}", 
-                request.resumeText() != null ? request.resumeText().length() : 0,
-                request.jobDescription() != null ? request.jobDescription().length() : 0);
-        
+        return submit(request, List.of(), SubmissionContext.DEFAULT);
+    }
+
+    public OptimizationJob submit(OptimizationRequest request, List<StageTiming> intakeTimings){
+        return submit(request, intakeTimings, SubmissionContext.DEFAULT);
+    }
+
+    /**
+     * @param intakeTimings fetch/parse stages measured by the caller before the job existed
+     * @throws TenantQuotaExceededException if the tenant already has too many jobs waiting
+     */
+    public OptimizationJob submit(OptimizationRequest request, List<StageTiming> intakeTimings, SubmissionContext context){
+        if (tenantQueueLimit > 0) {
+            checkTenantQuota(context, repo.countPending(context.tenantId()));
+        }
+        OptimizationJob savedJob = repo.save(newJob(request, intakeTimings, context));
+        afterSubmit(savedJob);
+        return savedJob;
+    }
+
+    /**
+     * Queues a new job with the texts of a finished one. Memoized results of {@code fromStage}
+     * and of every stage downstream of it are ignored (and replaced); earlier stages are still
+     * taken from the memo when their inputs are unchanged.
+     *
+     * @throws NoSuchElementException if there is no such job or it belongs to another tenant
+     * @throws JobNotFinishedException if the job is still PENDING or PROCESSING
+     * @throws TenantQuotaExceededException if the tenant already has too many jobs waiting
+     */
+    public OptimizationJob rerun(String jobId, PipelineStage fromStage, SubmissionContext context) {
+        OptimizationJob source = getById(jobId);
+        if (!source.belongsTo(context.tenantId())) {
+            // same answer as a missing job, so ids of other tenants cannot be probed
+            throw new NoSuchElementException("Optimization job not found with id: " + jobId);
+        }
+        if (!source.getStatus().isTerminal()) {
+            throw new JobNotFinishedException(jobId, source.getStatus());
+        }
+        if (tenantQueueLimit > 0) {
+            checkTenantQuota(context, repo.countPending(context.tenantId()));
+        }
+        OptimizationJob job = new OptimizationJob();
+        job.setTenantId(context.tenantId());
+        job.setPriority(context.priority());
+        job.setJobDescription(source.getJobDescription());
+        job.setResumeText(source.getResumeText());
+        job.setStatus(OptimizationStatus.PENDING);
+        job.setCreatedAt(Instant.now());
+        job.setUpdatedAt(Instant.now());
+        job.setRerunOf(jobId);
+        job.setRerunFrom(fromStage);
+        // asks for new results, so it never joins an in-flight job with the same content
+        job.setContentKey(JobCoalescer.contentKey(
+                new OptimizationRequest(source.getResumeText(), source.getJobDescription()), context));
+        OptimizationJob savedJob = repo.save(job);
+        afterSubmit(savedJob);
+        return savedJob;
+    }
+
+    /**
+     * Maximum PENDING jobs per tenant, 0 when unlimited.
+     */
+    public long getTenantQueueLimit() {
+        return tenantQueueLimit;
+    }
+
+    /**
+     * @param pending PENDING jobs the tenant currently has
+     * @throws TenantQuotaExceededException if that is at or above the tenant queue limit
+     */
+    public void checkTenantQuota(SubmissionContext context, long pending) {
+        if (tenantQueueLimit > 0 && pending >= tenantQueueLimit) {
+            metrics.recordTenantQuotaRejection(context.tenantId());
+            throw new TenantQuotaExceededException(context.tenantId(), tenantQueueLimit);
+        }
+    }
+
+    /**
+     * Builds the PENDING job for a submission, already linked to an in-flight leader with the
+     * same content if there is one. May query MongoDB (cross-node coalescing).
+     */
+    public OptimizationJob newJob(OptimizationRequest request, List<StageTiming> intakeTimings, SubmissionContext context) {
         OptimizationJob job = new OptimizationJob();
+        job.setTenantId(context.tenantId());
+        job.setPriority(context.priority());
         job.setJobDescription(request.jobDescription());
         job.setResumeText(request.resumeText());
         job.setStatus(OptimizationStatus.PENDING);
         job.setCreatedAt(Instant.now());
         job.setUpdatedAt(Instant.now());
+        intakeTimings.forEach(job::addStageTiming);
+        job.setContentKey(JobCoalescer.contentKey(request, context));
+        coalescer.findLeader(job.getContentKey()).ifPresent(job::setCoalescedWith);
+        return job;
+    }
 
-        log.info("Saving job to MongoDB...");
-        OptimizationJob savedJob = repo.save(job);
-        log.info("Job saved successfully with ID: {}", savedJob.getId());
-        
-        log.info("Triggering async processing for job ID: {}", savedJob.getId());
-        processAsync(savedJob.getId());
-        
-        log.info("=== SUBMIT END - Returning job ID: {} ===", savedJob.getId());
-        return savedJob;
+    /**
+     * Hands a stored job from {@link #newJob} to the coalescer and the workers. May query
+     * MongoDB when the job is a follower.
+     */
+    public void afterSubmit(OptimizationJob savedJob) {
+        events.info("event=submitted job={} tenant={} priority={} resumeChars={} jobDescriptionChars={} coalescedWith={}",
+                savedJob.getId(), savedJob.getTenantId(), savedJob.getPriority(),
+                savedJob.getResumeText() != null ? savedJob.getResumeText().length() : 0,
+                savedJob.getJobDescription() != null ? savedJob.getJobDescription().length() : 0,
+                savedJob.getCoalescedWith());
+
+        boolean needsWorker;
+        if (savedJob.getCoalescedWith() == null) {
+            coalescer.registerLeader(savedJob);
+            needsWorker = true;
+        } else {
+            metrics.recordCoalesced();
+            needsWorker = coalescer.afterFollowerSaved(savedJob);
+        }
+        if (needsWorker) {
+            // any worker may claim the job; a worker on this node can start right away
+            localWorker.ifAvailable(OptimizationJobWorker::wakeUp);
+        }
     }
 
-    @Async("optimizationExecutor")
-    public void processAsync(String jobId) {
-        log.info("=== ASYNC PROCESSING START for job ID: {} ===", jobId);
-        log.info("Thread name: {}", Thread.currentThread().getName());
-        
-        OptimizationJob job = getById(jobId);
-        log.info("Retrieved job from database - Status: {}", job.getStatus());
-        
+    /**
+     * Runs the pipeline for a job already claimed (and moved to PROCESSING) by a worker.
+     */
+    public void processAsync(OptimizationJob job, String leaseOwner) {
+        MDC.put("jobId", job.getId());
+        try {
+            process(job, leaseOwner);
+        } finally {
+            MDC.remove("jobId");
+        }
+    }
+
+    private void process(OptimizationJob job, String leaseOwner) {
+        String jobId = job.getId();
+        Instant processingStart = startProcessing(job);
+
         try{
-            log.info("Updating status to PROCESSING for job ID: {}", jobId);
-            job.setStatus(OptimizationStatus.PROCESSING);
-            repo.save(job);
-            log.info("Status updated to PROCESSING");
-
-            log.info("Step 1: Extracting keywords from job description...");
-            List<String> keywords = extractionService.extractKeywords(job.getJobDescription());
-            job.setExtractedKeywords(keywords);
-            log.info("Extracted {} keywords: {}", keywords.size(), keywords);
-
-            log.info("Step 2: Calculating ATS score...");
-            int score = scoringService.calculateAtsScore(job.getResumeText(), keywords);
-            job.setAtsScore(score);
-            log.info("ATS Score calculated: {}", score);
-
-            log.info("Step 3: Generating optimized bullet points...");
-            String optimizedBullets = llmClient.generateAtsBullets(job.getResumeText(), job.getJobDescription(), keywords);
+            CompactedPrompt prompt = prepare(job);
+            List<String> keywords = job.getExtractedKeywords();
+            // both generations share one budget, so retries cannot stretch a job indefinitely
+            Instant llmDeadlineAt = Instant.now().plus(llmDeadline);
+
+            String optimizedBullets = runLlmStage(job, PipelineStage.BULLETS, prompt,
+                    () -> llmClient.generateAtsBullets(prompt.resumeText(), prompt.jobDescription(), keywords, llmDeadlineAt));
             job.setOptimizedBulletPoints(optimizedBullets);
-            log.info("Optimized bullet points generated - Length: {}", optimizedBullets != null ? optimizedBullets.length() : 0);
 
-            log.info("Step 4: Generating tailored cover letter...");
-            String coverLetter = llmClient.generateTailoredCoverLetter(job.getResumeText(), job.getJobDescription(), keywords);
+            String coverLetter = runLlmStage(job, PipelineStage.COVER_LETTER, prompt,
+                    () -> llmClient.generateTailoredCoverLetter(prompt.resumeText(), prompt.jobDescription(), keywords, llmDeadlineAt));
             job.setTailoredCoverLetter(coverLetter);
-            log.info("Cover letter generated - Length: {}", coverLetter != null ? coverLetter.length() : 0);
-            
-            job.setUpdatedAt(Instant.now());
-            job.setStatus(OptimizationStatus.COMPLETED);
-            
-            log.info("Saving completed job to database...");
-            repo.save(job);
-            log.info("=== ASYNC PROCESSING COMPLETED SUCCESSFULLY for job ID: {} ===", jobId);
-            
+
+            complete(job, leaseOwner, processingStart, "completed");
         } catch (Exception e) {
-            log.error("=== ASYNC PROCESSING FAILED for job ID: {} ===", jobId, e);
-            log.error("Error type: {}", e.getClass().getName());
-            log.error("Error message: {}", e.getMessage());
-            
-            job.setStatus(OptimizationStatus.FAILED);
-            job.setErrorMessage(e.getMessage());
-            job.setUpdatedAt(Instant.now());
-            repo.save(job);
-            log.info("Job status updated to FAILED in database");
+            log.error("Optimization failed for job ID: {}", jobId, e);
+            fail(job, leaseOwner, processingStart, e.getMessage(), e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Runs the stages before generation for a job claimed for the provider's batch API, and
+     * stores the result with the job still PROCESSING under {@code leaseOwner}.
+     *
+     * @return the prompt texts to batch; empty when the job failed or the lease was lost
+     */
+    public Optional<CompactedPrompt> prepareForBatch(OptimizationJob job, String leaseOwner) {
+        MDC.put("jobId", job.getId());
+        Instant processingStart = startProcessing(job);
+        try {
+            CompactedPrompt prompt = prepare(job);
+            // kept on the job so the collected generations can be memoized
+            generationInput(job, PipelineStage.BULLETS, prompt);
+            generationInput(job, PipelineStage.COVER_LETTER, prompt);
+            if (!repo.saveIfLeaseHeld(job, leaseOwner)) {
+                log.warn("Lease on job {} was lost before it was batched", job.getId());
+                metrics.recordLeaseLost();
+                return Optional.empty();
+            }
+            return Optional.of(prompt);
+        } catch (Exception e) {
+            log.error("Optimization failed for job ID: {}", job.getId(), e);
+            fail(job, leaseOwner, processingStart, e.getMessage(), e.getClass().getSimpleName());
+            return Optional.empty();
+        } finally {
+            MDC.remove("jobId");
+        }
+    }
+
+    /**
+     * Writes the generations of a batched job back and completes it. The LLM stages are timed
+     * from the batch submission.
+     */
+    public void completeFromBatch(OptimizationJob job, String leaseOwner, Instant submittedAt,
+                                  LlmResult bullets, LlmResult coverLetter) {
+        MDC.put("jobId", job.getId());
+        try {
+            job.setOptimizedBulletPoints(recordLlmStage(job, PipelineStage.BULLETS, submittedAt, bullets));
+            job.setTailoredCoverLetter(recordLlmStage(job, PipelineStage.COVER_LETTER, submittedAt, coverLetter));
+            job.setBatchId(null);
+            complete(job, leaseOwner, submittedAt, "batch_completed");
+        } finally {
+            MDC.remove("jobId");
+        }
+    }
+
+    public void failFromBatch(OptimizationJob job, String leaseOwner, Instant submittedAt, String errorMessage) {
+        MDC.put("jobId", job.getId());
+        try {
+            job.setBatchId(null);
+            fail(job, leaseOwner, submittedAt, errorMessage, "batch");
+        } finally {
+            MDC.remove("jobId");
+        }
+    }
+
+    /**
+     * Records the queue wait of a freshly claimed job and tells listeners it is PROCESSING.
+     *
+     * @return when processing started
+     */
+    private Instant startProcessing(OptimizationJob job) {
+        Instant processingStart = job.getUpdatedAt() != null ? job.getUpdatedAt() : Instant.now();
+        if (job.getCreatedAt() != null) {
+            job.addStageTiming(StageTiming.between(PipelineMetrics.STAGE_QUEUE_WAIT, job.getCreatedAt(), processingStart));
+            metrics.recordQueueWait(Duration.between(job.getCreatedAt(), processingStart),
+                    job.getTenantId() != null ? job.getTenantId() : OptimizationJob.DEFAULT_TENANT,
+                    JobPriority.orDefault(job.getPriority()).name());
+        }
+        statusNotifier.publish(OptimizationResultResponse.from(job));
+        return processingStart;
+    }
+
+    /**
+     * Extraction, scoring and prompt preparation; the stored job keeps the original texts, only
+     * the prompts see the compacted ones. Extraction and scoring are memoized by their inputs,
+     * so an edited resume keeps the keywords and an edited posting with the same keywords keeps
+     * the score.
+     */
+    private CompactedPrompt prepare(OptimizationJob job) {
+        String extractionInput = memoStore.inputHash(PipelineStage.EXTRACTION, job.getJobDescription());
+        List<String> keywords = runMemoizedStage(job, PipelineStage.EXTRACTION, extractionInput,
+                StageMemo::getKeywords, StageMemo::ofKeywords,
+                () -> extractionService.extractKeywords(job.getJobDescription()));
+        job.setExtractedKeywords(keywords);
+
+        String scoringInput = memoStore.inputHash(PipelineStage.SCORING, job.getResumeText(), String.join("\n", keywords));
+        int score = runMemoizedStage(job, PipelineStage.SCORING, scoringInput,
+                StageMemo::getAtsScore, StageMemo::ofScore,
+                () -> scoringService.calculateAtsScore(job.getResumeText(), keywords));
+        job.setAtsScore(score);
+
+        // microseconds, cheaper than hashing its inputs for a memo lookup
+        int semanticScore = runStage(job, PipelineStage.SIMILARITY.stageName(),
+                () -> semanticScoringService.calculateSemanticScore(job.getResumeText(), job.getJobDescription()));
+        job.setSemanticScore(semanticScore);
+
+        return preparePrompt(job, keywords);
+    }
+
+    private void complete(OptimizationJob job, String leaseOwner, Instant processingStart, String outcome) {
+        job.setUpdatedAt(Instant.now());
+        job.setStatus(OptimizationStatus.COMPLETED);
+
+        if (!saveFinal(job, leaseOwner)) {
+            return;
+        }
+        Duration elapsed = Duration.between(processingStart, Instant.now());
+        metrics.recordJob(elapsed, outcome);
+        publishTerminal(job);
+        events.info("event=job outcome={} durationMs={} atsScore={} semanticScore={} keywords={}",
+                outcome, elapsed.toMillis(), job.getAtsScore(), job.getSemanticScore(),
+                job.getExtractedKeywords() != null ? job.getExtractedKeywords().size() : 0);
+    }
+
+    private void fail(OptimizationJob job, String leaseOwner, Instant processingStart, String errorMessage, String errorType) {
+        job.setStatus(OptimizationStatus.FAILED);
+        job.setErrorMessage(errorMessage);
+        job.setUpdatedAt(Instant.now());
+        if (!saveFinal(job, leaseOwner)) {
+            return;
         }
+        Duration elapsed = Duration.between(processingStart, Instant.now());
+        metrics.recordJob(elapsed, "failed");
+        publishTerminal(job);
+        events.info("event=job outcome=failed durationMs={} error={}", elapsed.toMillis(), errorType);
+    }
+
+    /**
+     * Runs a stage, recording it both on the job document and in the stage timer.
+     */
+    private <T> T runStage(OptimizationJob job, String stage, Supplier<T> work) {
+        StageTiming timing = StageTiming.start(stage);
+        String outcome = "error";
+        try {
+            T result = work.get();
+            outcome = "success";
+            return result;
+        } finally {
+            finishStage(job, timing, outcome);
+        }
+    }
+
+    /**
+     * Like {@link #runStage}, but returns the memoized output when the stage already ran on the
+     * same inputs and the job is not a re-run from this stage or an upstream one.
+     */
+    private <T> T runMemoizedStage(OptimizationJob job, PipelineStage stage, String inputHash,
+                                   Function<StageMemo, T> read, Function<T, StageMemo> memoOf, Supplier<T> work) {
+        job.putStageInput(stage, inputHash);
+        Optional<T> memoized = memoized(job, stage, inputHash, read);
+        if (memoized.isPresent()) {
+            return memoized.get();
+        }
+        T result = runStage(job, stage.stageName(), work);
+        memoStore.put(stage, inputHash, memoOf.apply(result));
+        return result;
+    }
+
+    private <T> Optional<T> memoized(OptimizationJob job, PipelineStage stage, String inputHash, Function<StageMemo, T> read) {
+        if (job.getRerunFrom() != null && job.getRerunFrom().withDownstream().contains(stage)) {
+            return Optional.empty();
+        }
+        Optional<T> memoized = memoStore.get(stage, inputHash).map(read);
+        if (memoized.isPresent()) {
+            finishStage(job, StageTiming.start(stage.stageName()), "memoized");
+        }
+        return memoized;
+    }
+
+    /**
+     * Hash of what an LLM stage reads: the compacted texts and the keywords.
+     */
+    private String generationInput(OptimizationJob job, PipelineStage stage, CompactedPrompt prompt) {
+        String inputHash = memoStore.inputHash(stage, prompt.resumeText(), prompt.jobDescription(),
+                String.join("\n", job.getExtractedKeywords()));
+        job.putStageInput(stage, inputHash);
+        return inputHash;
+    }
+
+    private CompactedPrompt preparePrompt(OptimizationJob job, List<String> keywords) {
+        StageTiming timing = StageTiming.start(PipelineMetrics.STAGE_PROMPT_PREP);
+        CompactedPrompt prompt = null;
+        try {
+            prompt = promptCompactor.compact(job.getResumeText(), job.getJobDescription(), keywords);
+            timing.setTokensBefore(prompt.tokensBefore());
+            timing.setTokensAfter(prompt.tokensAfter());
+            metrics.recordPromptCompaction(prompt.tokensBefore(), prompt.tokensAfter());
+            return prompt;
+        } finally {
+            finishStage(job, timing, prompt == null ? "error" : "success");
+        }
+    }
+
+    /**
+     * Runs an LLM stage unless its generation is memoized. Fallback content is never memoized.
+     */
+    private String runLlmStage(OptimizationJob job, PipelineStage stage, CompactedPrompt prompt, Supplier<LlmResult> call) {
+        String inputHash = generationInput(job, stage, prompt);
+        Optional<String> memoized = memoized(job, stage, inputHash, StageMemo::getContent);
+        if (memoized.isPresent()) {
+            return memoized.get();
+        }
+        StageTiming timing = StageTiming.start(stage.stageName());
+        LlmResult result = null;
+        try {
+            result = call.get();
+            if (!result.isFallback()) {
+                memoStore.put(stage, inputHash, result.model(), StageMemo.ofContent(result.content()));
+            }
+            return result.content();
+        } finally {
+            finishLlmStage(job, timing, result);
+        }
+    }
+
+    /**
+     * An LLM stage whose result arrived through a batch submitted at {@code startedAt}.
+     */
+    private String recordLlmStage(OptimizationJob job, PipelineStage stage, Instant startedAt, LlmResult result) {
+        StageTiming timing = StageTiming.start(stage.stageName());
+        timing.setStartedAt(startedAt);
+        finishLlmStage(job, timing, result);
+        String inputHash = job.getStageInputs() != null ? job.getStageInputs().get(stage.stageName()) : null;
+        if (inputHash != null && !result.isFallback()) {
+            memoStore.put(stage, inputHash, result.model(), StageMemo.ofContent(result.content()));
+        }
+        return result.content();
+    }
+
+    private void finishLlmStage(OptimizationJob job, StageTiming timing, LlmResult result) {
+        if (result != null) {
+            timing.setAttempts(result.attempts());
+            timing.setCacheHit(result.cacheHit());
+            if (!result.isFallback()) {
+                timing.setPromptTokens(result.promptTokens());
+                timing.setCachedTokens(result.cachedTokens());
+            }
+        }
+        finishStage(job, timing, result == null ? "error"
+                : result.isFallback() ? "fallback:" + result.fallbackReason() : "success");
+    }
+
+    private void finishStage(OptimizationJob job, StageTiming timing, String outcome) {
+        timing.finish(outcome);
+        job.addStageTiming(timing);
+        metrics.recordStage(timing.getStage(), Duration.between(timing.getStartedAt(), timing.getEndedAt()).toNanos(), outcome);
+        if (timing.getTokensBefore() != null) {
+            events.info("event=stage stage={} outcome={} durationMs={} tokensBefore={} tokensAfter={}",
+                    timing.getStage(), outcome, timing.getDurationMs(), timing.getTokensBefore(), timing.getTokensAfter());
+        } else if (timing.getAttempts() != null) {
+            events.info("event=stage stage={} outcome={} durationMs={} attempts={} cacheHit={} promptTokens={} cachedTokens={}",
+                    timing.getStage(), outcome, timing.getDurationMs(), timing.getAttempts(), timing.getCacheHit(),
+                    timing.getPromptTokens(), timing.getCachedTokens());
+        } else {
+            events.info("event=stage stage={} outcome={} durationMs={}", timing.getStage(), outcome, timing.getDurationMs());
+        }
+    }
+
+    /**
+     * The final write cannot contain its own duration, so its timing is appended afterwards
+     * with a small $push instead of a second full save. The write only goes through while
+     * the lease is still held; otherwise another worker owns the job now.
+     */
+    private boolean saveFinal(OptimizationJob job, String leaseOwner) {
+        StageTiming timing = StageTiming.start(PipelineMetrics.STAGE_PERSISTENCE);
+        job.setLeaseOwner(null);
+        job.setLeaseExpiresAt(null);
+        boolean saved = repo.saveIfLeaseHeld(job, leaseOwner);
+        finishStage(job, timing, saved ? "success" : "lease_lost");
+        if (!saved) {
+            log.warn("Lease on job {} was lost before completion, discarding result", job.getId());
+            metrics.recordLeaseLost();
+            return false;
+        }
+        repo.appendStageTiming(job.getId(), timing);
+        return true;
+    }
+
+    /**
+     * Publishes a job the lease sweeper failed without going through {@link #fail}, so clients
+     * waiting on it are answered and its coalesced followers are detached right away.
+     */
+    public void publishSweptFailure(String jobId) {
+        repo.findById(jobId).filter(job -> job.getStatus() == OptimizationStatus.FAILED).ifPresent(job -> {
+            publishTerminal(job);
+            events.info("event=job outcome=failed error=lease_expired attempts={}", job.getProcessingAttempts());
+        });
+    }
+
+    private void publishTerminal(OptimizationJob job) {
+        OptimizationResultResponse result = OptimizationResultResponse.from(job);
+        resultCache.put(result, job.getUpdatedAt());
+        statusNotifier.publish(result);
+        if (coalescer.onLeaderFinished(job)) {
+            localWorker.ifAvailable(OptimizationJobWorker::wakeUp);
+        }
+    }
+
+    /**
+     * Id, status and {@code updatedAt} only, enough to check a conditional request.
+     */
+    public Optional<OptimizationJob> findStatus(String id) {
+        return repo.findStatusById(id);
     }
 
     public OptimizationJob getById(String id){
-        log.info("Fetching job by ID: {}", id);
         OptimizationJob job = repo.findById(id)
-                .orElseThrow(()-> {
-                    log.error("Job not found with ID: {}", id);
-                    return new NoSuchElementException("Optimization job not found with id: "+id);
-                });
-        log.info("Job found - ID: {}, Status: {}", job.getId(), job.getStatus());
+                .orElseThrow(()-> new NoSuchElementException("Optimization job not found with id: "+id));
+        log.debug("Job found - ID: {}, Status: {}", job.getId(), job.getStatus());
         return job;
     }
 
@@ -0,0 +1,57 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.dto.OptimizationRequest;
+import com.manoj.matchIQ.dto.ScoreResponse;
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Keyword extraction, ATS and semantic scoring without creating a job: nothing is persisted and no LLM
+ * is called. Runs on {@code scoringExecutor}, so a backlog of generation work on
+ * {@code optimizationExecutor} cannot delay it.
+ */
+@Service
+public class ScoreOnlyService {
+
+    private final KeywordExtractionService extractionService;
+    private final KeywordScoringService scoringService;
+    private final SemanticScoringService semanticScoringService;
+    private final Executor scoringExecutor;
+    private final PipelineMetrics metrics;
+
+    public ScoreOnlyService(
+            KeywordExtractionService extractionService,
+            KeywordScoringService scoringService,
+            SemanticScoringService semanticScoringService,
+            @Qualifier("scoringExecutor") Executor scoringExecutor,
+            PipelineMetrics metrics) {
+        this.extractionService = extractionService;
+        this.scoringService = scoringService;
+        this.semanticScoringService = semanticScoringService;
+        this.scoringExecutor = scoringExecutor;
+        this.metrics = metrics;
+    }
+
+    public CompletableFuture<ScoreResponse> score(OptimizationRequest request) {
+        return CompletableFuture.supplyAsync(() -> scoreNow(request), scoringExecutor);
+    }
+
+    private ScoreResponse scoreNow(OptimizationRequest request) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            List<String> keywords = extractionService.extractKeywords(request.jobDescription());
+            int score = scoringService.calculateAtsScore(request.resumeText(), keywords);
+            int semanticScore = semanticScoringService.calculateSemanticScore(request.resumeText(), request.jobDescription());
+            outcome = "success";
+            return new ScoreResponse(score, semanticScore, keywords);
+        } finally {
+            metrics.recordScoreOnly(System.nanoTime() - start, outcome);
+        }
+    }
+}
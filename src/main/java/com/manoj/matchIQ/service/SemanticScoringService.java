@@ -0,0 +1,52 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.similarity.HashedNgramVectorizer;
+import com.manoj.matchIQ.similarity.VectorOps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Match score that does not depend on literal keyword hits: the cosine similarity of the
+ * hashed n-gram vectors of resume and job description, computed in process on the CPU.
+ * Reported next to the ATS score; it rewards shared vocabulary and near-spellings, not true
+ * synonyms.
+ */
+@Service
+public class SemanticScoringService {
+    private static final Logger log = LoggerFactory.getLogger(SemanticScoringService.class);
+
+    private final HashedNgramVectorizer vectorizer;
+
+    public SemanticScoringService(@Value("${matchiq.similarity.dimensions:1024}") int dimensions) {
+        this.vectorizer = new HashedNgramVectorizer(dimensions);
+        log.info("SemanticScoringService configured - Dimensions: {}, SIMD: {}", dimensions, VectorOps.simd());
+    }
+
+    /**
+     * @return cosine similarity as a percentage, 0 for unrelated or empty texts
+     */
+    public int calculateSemanticScore(String resumeText, String jobDescription) {
+        return toScore(similarity(vectorize(resumeText), vectorize(jobDescription)));
+    }
+
+    /**
+     * Unit vector of {@code text}. To rank many resumes against one posting, vectorize the
+     * posting once and call {@link #similarity} per resume.
+     */
+    public float[] vectorize(String text) {
+        return vectorizer.vectorize(text);
+    }
+
+    /**
+     * Cosine similarity of two vectors from {@link #vectorize}, which are already unit length.
+     */
+    public float similarity(float[] a, float[] b) {
+        return VectorOps.dot(a, b);
+    }
+
+    public static int toScore(float similarity) {
+        return Math.round(Math.max(0f, Math.min(1f, similarity)) * 100f);
+    }
+}
@@ -0,0 +1,150 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.llm.LlmClient;
+import com.manoj.matchIQ.model.PipelineStage;
+import com.manoj.matchIQ.model.StageMemo;
+import com.manoj.matchIQ.repository.StageMemoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stage outputs keyed by stage and a hash of the stage's inputs, so a resubmission that changed
+ * only the resume or only the job description recomputes only the stages that read the change.
+ * <p>
+ * Every stage is memoized in a bounded in-memory LRU. LLM stages are also stored in
+ * {@code stage_memos}, so a resubmission claimed by another worker finds them; extraction and
+ * scoring take microseconds, less than a database round trip, so they are kept local only.
+ * A failing database is treated as a miss and never fails the job.
+ * <p>
+ * A generation is stored under the model that produced it. Lookups ask for {@code llm.model},
+ * so text written by a failover provider or the batch model is not served in its place.
+ */
+@Component
+public class StageMemoStore {
+    private static final Logger log = LoggerFactory.getLogger(StageMemoStore.class);
+
+    private final StageMemoRepository repo;
+    private final boolean enabled;
+    private final String llmKey;
+    private final String model;
+    private final Map<PipelineStage, String> templateHashes = new EnumMap<>(PipelineStage.class);
+    private final Map<String, StageMemo> local;
+
+    public StageMemoStore(
+            StageMemoRepository repo,
+            @Value("${matchiq.memo.enabled:true}") boolean enabled,
+            @Value("${matchiq.memo.max-entries:10000}") int maxEntries,
+            @Value("${matchiq.memo.llm-key:}") String llmKey,
+            @Value("${llm.model:}") String model,
+            @Value("${llm.prompts.location:classpath:prompts/}") String promptLocation) {
+        this.repo = repo;
+        this.enabled = enabled;
+        this.llmKey = llmKey;
+        this.model = model;
+        templateHashes.put(PipelineStage.BULLETS, LlmClient.promptHash(promptLocation, LlmClient.ATS_BULLETS_PROMPT));
+        templateHashes.put(PipelineStage.COVER_LETTER, LlmClient.promptHash(promptLocation, LlmClient.COVER_LETTER_PROMPT));
+        this.local = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StageMemo> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * SHA-256 over the stage and its inputs. Inputs of LLM stages also include the text of the
+     * stage's prompt template and {@code matchiq.memo.llm-key}, a version stamp to bump when
+     * something else that shapes the generations changes.
+     */
+    public String inputHash(PipelineStage stage, String... inputs) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(stage.stageName().getBytes(StandardCharsets.UTF_8));
+            if (stage.llm()) {
+                digest.update((byte) 0);
+                digest.update(templateHashes.getOrDefault(stage, "").getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(llmKey.getBytes(StandardCharsets.UTF_8));
+            }
+            for (String input : inputs) {
+                digest.update((byte) 0);
+                digest.update((input == null ? "" : input).getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * The memo of a stage; for LLM stages the one {@code llm.model} produced.
+     */
+    public Optional<StageMemo> get(PipelineStage stage, String inputHash) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String id = id(stage, inputHash, model);
+        StageMemo memo;
+        synchronized (local) {
+            memo = local.get(id);
+        }
+        if (memo != null || !stage.llm()) {
+            return Optional.ofNullable(memo);
+        }
+        try {
+            Optional<StageMemo> stored = repo.findById(id);
+            stored.ifPresent(found -> {
+                synchronized (local) {
+                    local.put(id, found);
+                }
+            });
+            return stored;
+        } catch (RuntimeException e) {
+            log.warn("Reading stage memo {} failed, recomputing: {}", id, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void put(PipelineStage stage, String inputHash, StageMemo memo) {
+        put(stage, inputHash, model, memo);
+    }
+
+    /**
+     * @param producedBy the model that generated an LLM stage's output; {@code null} for {@code llm.model}
+     */
+    public void put(PipelineStage stage, String inputHash, String producedBy, StageMemo memo) {
+        if (!enabled) {
+            return;
+        }
+        memo.setId(id(stage, inputHash, producedBy != null ? producedBy : model));
+        memo.setStage(stage);
+        memo.setCreatedAt(Instant.now());
+        synchronized (local) {
+            local.put(memo.getId(), memo);
+        }
+        if (stage.llm()) {
+            try {
+                repo.save(memo);
+            } catch (RuntimeException e) {
+                log.warn("Storing stage memo {} failed: {}", memo.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private static String id(PipelineStage stage, String inputHash, String model) {
+        String id = StageMemo.id(stage, inputHash);
+        return stage.llm() ? id + ":" + model : id;
+    }
+}
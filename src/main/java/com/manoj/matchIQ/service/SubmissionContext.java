@@ -0,0 +1,17 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.OptimizationJob;
+
+/**
+ * Who submitted a job and how urgently it is needed; drives fair-share scheduling.
+ */
+public record SubmissionContext(String tenantId, JobPriority priority) {
+
+    public static final SubmissionContext DEFAULT = new SubmissionContext(OptimizationJob.DEFAULT_TENANT, JobPriority.INTERACTIVE);
+
+    public static SubmissionContext of(String tenantId, JobPriority priority) {
+        return new SubmissionContext(tenantId == null || tenantId.isBlank() ? OptimizationJob.DEFAULT_TENANT : tenantId.strip(),
+                JobPriority.orDefault(priority));
+    }
+}
@@ -0,0 +1,22 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.model.JobPriority;
+
+/**
+ * The tenant an authenticated request acts for, resolved from its API key (see
+ * {@code TenantProperties}); a request can never pick its tenant itself.
+ *
+ * @param maxPriority most urgent priority the tenant may submit with
+ * @param analytics   whether the tenant may export resume and posting texts and generated content
+ */
+public record TenantPrincipal(String tenantId, JobPriority maxPriority, boolean analytics) {
+
+    /**
+     * Submission context for this tenant; a requested priority more urgent than
+     * {@link #maxPriority()} is lowered to it.
+     */
+    public SubmissionContext submission(JobPriority requested) {
+        JobPriority priority = JobPriority.orDefault(requested);
+        return SubmissionContext.of(tenantId, priority.compareTo(maxPriority) < 0 ? maxPriority : priority);
+    }
+}
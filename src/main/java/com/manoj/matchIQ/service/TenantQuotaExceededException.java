@@ -0,0 +1,7 @@
+package com.manoj.matchIQ.service;
+
+public class TenantQuotaExceededException extends RuntimeException {
+    public TenantQuotaExceededException(String tenantId, long limit) {
+        super("Tenant " + tenantId + " already has " + limit + " optimizations queued");
+    }
+}
@@ -0,0 +1,115 @@
+package com.manoj.matchIQ.similarity;
+
+import java.util.Arrays;
+
+/**
+ * Turns text into a fixed-size, unit-length {@code float[]} by feature hashing: every word and
+ * every character trigram of a word (with word boundaries, so {@code ^ja} and {@code va$} are
+ * features) is hashed to one of {@code dimensions} buckets with a hash-derived sign. Shared
+ * trigrams let inflections and near-spellings ("developer", "development"; "postgres",
+ * "postgresql") overlap where exact keywords do not. There is no vocabulary and no model, so
+ * any two vectors of the same dimensions can be compared, and vectorizing a resume takes
+ * microseconds.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class HashedNgramVectorizer {
+
+    public static final int DEFAULT_DIMENSIONS = 1024;
+
+    private static final int WORD_SEED = 0x9747b28c;
+    private static final int TRIGRAM_SEED = 0x5bd1e995;
+    private static final float WORD_WEIGHT = 1f;
+    private static final float TRIGRAM_WEIGHT = 0.5f;
+    private static final char BOUNDARY = '\u0000';
+
+    private final int dimensions;
+    private final int mask;
+
+    /**
+     * @param dimensions a power of two, at least 64
+     */
+    public HashedNgramVectorizer(int dimensions) {
+        if (dimensions < 64 || Integer.bitCount(dimensions) != 1) {
+            throw new IllegalArgumentException("dimensions must be a power of two >= 64, was " + dimensions);
+        }
+        this.dimensions = dimensions;
+        this.mask = dimensions - 1;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * @return a unit vector, or the zero vector for text without words
+     */
+    public float[] vectorize(String text) {
+        float[] vector = new float[dimensions];
+        if (text == null) {
+            return vector;
+        }
+        char[] word = new char[32];
+        int length = 0;
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? Character.toLowerCase(text.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(c) || c == '+' || c == '#') {
+                if (length == word.length) {
+                    word = Arrays.copyOf(word, length * 2);
+                }
+                word[length++] = c;
+            } else if (length > 0) {
+                addWord(vector, word, length);
+                length = 0;
+            }
+        }
+        // square-root damping: a word repeated ten times must not outweigh ten different words
+        for (int i = 0; i < dimensions; i++) {
+            float value = vector[i];
+            vector[i] = value < 0 ? (float) -Math.sqrt(-value) : (float) Math.sqrt(value);
+        }
+        VectorOps.normalize(vector);
+        return vector;
+    }
+
+    private void addWord(float[] vector, char[] word, int length) {
+        if (length < 2) {
+            return;
+        }
+        int hash = WORD_SEED;
+        for (int i = 0; i < length; i++) {
+            hash = mix(hash, word[i]);
+        }
+        add(vector, hash, WORD_WEIGHT);
+        for (int start = -1; start + 3 <= length + 1; start++) {
+            int trigram = mix(mix(mix(TRIGRAM_SEED, charAt(word, length, start)),
+                    charAt(word, length, start + 1)), charAt(word, length, start + 2));
+            add(vector, trigram, TRIGRAM_WEIGHT);
+        }
+    }
+
+    private void add(float[] vector, int hash, float weight) {
+        int h = finish(hash);
+        // the sign comes from the top bit, which the bucket index does not use
+        vector[h & mask] += h < 0 ? -weight : weight;
+    }
+
+    private static char charAt(char[] word, int length, int index) {
+        return index < 0 || index >= length ? BOUNDARY : word[index];
+    }
+
+    private static int mix(int hash, char c) {
+        // FNV-1a step
+        return (hash ^ c) * 0x01000193;
+    }
+
+    private static int finish(int hash) {
+        // MurmurHash3 finalizer, spreads the FNV state over all bits
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
@@ -0,0 +1,108 @@
+package com.manoj.matchIQ.similarity;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Dense {@code float[]} arithmetic for the similarity vectors. The dot product uses the Vector
+ * API ({@code SimdVectorOps}) when the jar was built with {@code -Psimd} and the JVM was started
+ * with {@code --add-modules jdk.incubator.vector}, and a scalar loop otherwise; the JIT does not
+ * vectorize a float reduction by itself because that would change the rounding.
+ * {@code -Dmatchiq.similarity.simd=false} forces the scalar loop.
+ */
+public final class VectorOps {
+
+    private static final String SIMD_KERNELS = "com.manoj.matchIQ.similarity.SimdVectorOps";
+    /** {@code SimdVectorOps.dot}; a constant, so the JIT inlines calls through it. */
+    private static final MethodHandle SIMD_DOT = findSimdDot();
+
+    private VectorOps() {
+    }
+
+    /**
+     * Whether {@link #dot} runs on the Vector API.
+     */
+    public static boolean simd() {
+        return SIMD_DOT != null;
+    }
+
+    public static float dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Vectors differ in length: " + a.length + " and " + b.length);
+        }
+        return SIMD_DOT != null ? simdDot(a, b) : scalarDot(a, b);
+    }
+
+    private static float simdDot(float[] a, float[] b) {
+        try {
+            return (float) SIMD_DOT.invokeExact(a, b);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Cosine of the angle between {@code a} and {@code b}; 0 when either is the zero vector.
+     */
+    public static float cosine(float[] a, float[] b) {
+        float norms = dot(a, a) * dot(b, b);
+        return norms == 0f ? 0f : (float) (dot(a, b) / Math.sqrt(norms));
+    }
+
+    /**
+     * Scales {@code vector} to unit length in place, so that the dot product of two normalized
+     * vectors is their cosine. The zero vector is left as it is.
+     */
+    public static void normalize(float[] vector) {
+        float norm = (float) Math.sqrt(dot(vector, vector));
+        if (norm == 0f) {
+            return;
+        }
+        float scale = 1f / norm;
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+
+    static float scalarDot(float[] a, float[] b) {
+        // independent accumulators, so consecutive multiply-adds do not wait on each other
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int i = 0;
+        for (int bound = a.length & ~3; i < bound; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static MethodHandle findSimdDot() {
+        if (!Boolean.parseBoolean(System.getProperty("matchiq.similarity.simd", "true"))) {
+            return null;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            Class<?> kernels = Class.forName(SIMD_KERNELS, true, VectorOps.class.getClassLoader());
+            MethodHandle dot = MethodHandles.lookup().findStatic(kernels, "dot",
+                    MethodType.methodType(float.class, float[].class, float[].class));
+            // links the Vector API now rather than failing on the first score
+            float ignored = (float) dot.invokeExact(new float[1], new float[1]);
+            return dot;
+        } catch (Throwable e) {
+            // built without -Psimd, or the Vector API cannot be linked on this JVM
+            return null;
+        }
+    }
+}
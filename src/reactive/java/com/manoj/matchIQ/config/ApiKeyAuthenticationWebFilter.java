@@ -0,0 +1,39 @@
+package com.manoj.matchIQ.config;
+
+import com.manoj.matchIQ.service.TenantPrincipal;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Reactive counterpart of {@link ApiKeyAuthenticationFilter}.
+ */
+public class ApiKeyAuthenticationWebFilter implements WebFilter {
+
+    private final TenantProperties tenants;
+
+    public ApiKeyAuthenticationWebFilter(TenantProperties tenants) {
+        this.tenants = tenants;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String apiKey = exchange.getRequest().getHeaders().getFirst(ApiKeyAuthenticationFilter.API_KEY_HEADER);
+        if (apiKey == null) {
+            return chain.filter(exchange);
+        }
+        Optional<TenantPrincipal> tenant = tenants.authenticate(apiKey);
+        if (tenant.isEmpty()) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                        ApiKeyAuthenticationFilter.authentication(tenant.get())));
+    }
+}
@@ -0,0 +1,66 @@
+package com.manoj.matchIQ.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive counterpart of {@link SecurityConfig} plus the schedulers the WebFlux controllers
+ * move non-reactive work onto. Both schedulers are bounded in threads and queued tasks, so a
+ * burst of uploads queues (and eventually fails fast) instead of growing threads.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(TenantProperties.class)
+public class ReactiveConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, TenantProperties tenants) {
+        http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .addFilterAt(new ApiKeyAuthenticationWebFilter(tenants), SecurityWebFiltersOrder.AUTHENTICATION)
+                .exceptionHandling(errors -> errors.authenticationEntryPoint(
+                        new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)));
+        if (tenants.anonymousAccess()) {
+            // requests without an API key act for the default tenant, but cannot export its jobs
+            http.anonymous(anonymous -> anonymous.principal(tenants.anonymous()))
+                    .authorizeExchange(exchange -> exchange
+                            .pathMatchers("/api/optimizations/export").authenticated()
+                            .anyExchange().permitAll());
+        } else {
+            http.authorizeExchange(exchange -> exchange
+                    .pathMatchers("/api/**").authenticated()
+                    .anyExchange().permitAll());
+        }
+        return http.build();
+    }
+
+    /**
+     * PDF/DOCX text extraction and HTML parsing of fetched postings.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler parsingScheduler(
+            @Value("${matchiq.reactive.parsing-threads:0}") int threads,
+            @Value("${matchiq.reactive.parsing-queue:1000}") int queue) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Schedulers.newBoundedElastic(size, queue, "Parsing");
+    }
+
+    /**
+     * Calls into the blocking MongoDB repository that the submit path still needs.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(@Value("${matchiq.reactive.blocking-threads:32}") int threads) {
+        return Schedulers.newBoundedElastic(threads, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "Blocking");
+    }
+}
@@ -0,0 +1,396 @@
+package com.manoj.matchIQ.controller;
+
+import com.manoj.matchIQ.dto.BulkUploadEntryResponse;
+import com.manoj.matchIQ.dto.OptimizationRequest;
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
+import com.manoj.matchIQ.dto.OptimizationSubmissionResponse;
+import com.manoj.matchIQ.dto.ScoreResponse;
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import com.manoj.matchIQ.model.PipelineStage;
+import com.manoj.matchIQ.model.StageTiming;
+import com.manoj.matchIQ.service.BulkResumeIngestionService;
+import com.manoj.matchIQ.service.DocumentParsingService;
+import com.manoj.matchIQ.service.JobExportQuery;
+import com.manoj.matchIQ.service.JobExportService;
+import com.manoj.matchIQ.service.OptimizationResultCache;
+import com.manoj.matchIQ.service.ReactiveJobDescriptionFetcher;
+import com.manoj.matchIQ.service.ReactiveOptimizationService;
+import com.manoj.matchIQ.service.ScoreOnlyService;
+import com.manoj.matchIQ.service.SubmissionContext;
+import com.manoj.matchIQ.service.TenantPrincipal;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebFlux mirror of {@link OptimizationController}: same paths, parameters and responses, but
+ * no request ever holds a thread while it waits on MongoDB, a job posting or a status change.
+ * Resume parsing runs on the bounded {@code parsingScheduler}.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/optimizations")
+public class ReactiveOptimizationController {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveOptimizationController.class);
+    private static final CacheControl TERMINAL_CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+
+    private final ReactiveOptimizationService optimizationService;
+    private final ScoreOnlyService scoreOnlyService;
+    private final DocumentParsingService documentParsingService;
+    private final ReactiveJobDescriptionFetcher jobFetcher;
+    private final OptimizationResultCache resultCache;
+    private final BulkResumeIngestionService bulkIngestionService;
+    private final JobExportService exportService;
+    private final Scheduler parsingScheduler;
+    private final Scheduler blockingScheduler;
+    private final long maxWaitSeconds;
+    private final long sseTimeoutSeconds;
+
+    public ReactiveOptimizationController(
+            ReactiveOptimizationService optimizationService,
+            ScoreOnlyService scoreOnlyService,
+            DocumentParsingService documentParsingService,
+            ReactiveJobDescriptionFetcher jobFetcher,
+            OptimizationResultCache resultCache,
+            BulkResumeIngestionService bulkIngestionService,
+            JobExportService exportService,
+            @Qualifier("parsingScheduler") Scheduler parsingScheduler,
+            @Qualifier("blockingScheduler") Scheduler blockingScheduler,
+            @Value("${matchiq.notifications.max-wait-seconds:60}") long maxWaitSeconds,
+            @Value("${matchiq.notifications.sse-timeout-seconds:600}") long sseTimeoutSeconds) {
+        this.optimizationService = optimizationService;
+        this.scoreOnlyService = scoreOnlyService;
+        this.documentParsingService = documentParsingService;
+        this.jobFetcher = jobFetcher;
+        this.resultCache = resultCache;
+        this.bulkIngestionService = bulkIngestionService;
+        this.exportService = exportService;
+        this.parsingScheduler = parsingScheduler;
+        this.blockingScheduler = blockingScheduler;
+        this.maxWaitSeconds = maxWaitSeconds;
+        this.sseTimeoutSeconds = sseTimeoutSeconds;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<OptimizationSubmissionResponse> submitOptimization(
+            @Valid @RequestBody OptimizationRequest request,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = OptimizationController.PRIORITY_HEADER, required = false) JobPriority priority) {
+        return submit(request, List.of(), tenant.submission(priority), "POST /api/optimizations");
+    }
+
+    @PostMapping("/score")
+    public Mono<ScoreResponse> score(@Valid @RequestBody OptimizationRequest request) {
+        log.debug("POST /api/optimizations/score");
+        return Mono.fromFuture(() -> scoreOnlyService.score(request));
+    }
+
+    @PostMapping("/upload")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<OptimizationSubmissionResponse> submitOptimizationWithFile(
+            @RequestPart("resumeFile") FilePart resumeFile,
+            @RequestPart("jobUrl") String jobUrl,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = OptimizationController.PRIORITY_HEADER, required = false) JobPriority priority) {
+        // parse and fetch concurrently; each keeps its own timing
+        return Mono.zip(parseResume(resumeFile), fetchJobDescription(jobUrl))
+                .flatMap(intake -> submit(
+                        new OptimizationRequest(intake.getT1().value(), intake.getT2().value()),
+                        List.of(intake.getT1().timing(), intake.getT2().timing()),
+                        tenant.submission(priority),
+                        "POST /api/optimizations/upload - Resume file: " + resumeFile.filename() + ", Job URL: " + jobUrl));
+    }
+
+    @PostMapping("/upload-resume")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<OptimizationSubmissionResponse> submitOptimizationWithResumeFile(
+            @RequestPart("resumeFile") FilePart resumeFile,
+            @RequestPart("jobDescription") String jobDescription,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = OptimizationController.PRIORITY_HEADER, required = false) JobPriority priority) {
+        return parseResume(resumeFile)
+                .flatMap(resume -> submit(
+                        new OptimizationRequest(resume.value(), jobDescription),
+                        List.of(resume.timing()),
+                        tenant.submission(priority),
+                        "POST /api/optimizations/upload-resume - Resume file: " + resumeFile.filename()));
+    }
+
+    /**
+     * Form fields are bound with {@code @ModelAttribute}: in WebFlux {@code @RequestParam} only
+     * sees the query string.
+     */
+    @PostMapping("/fetch-job")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<OptimizationSubmissionResponse> submitOptimizationWithJobUrl(
+            @ModelAttribute JobUrlForm form,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = OptimizationController.PRIORITY_HEADER, required = false) JobPriority priority) {
+        return fetchJobDescription(form.jobUrl())
+                .flatMap(posting -> submit(
+                        new OptimizationRequest(form.resumeText(), posting.value()),
+                        List.of(posting.timing()),
+                        tenant.submission(priority),
+                        "POST /api/optimizations/fetch-job - Job URL: " + form.jobUrl()));
+    }
+
+    /**
+     * The archive body is first written to a temporary file without blocking (at most one byte
+     * past {@code matchiq.bulk.max-archive-bytes}, so the ingestion reports it as too large), then
+     * read as a stream on {@code blockingScheduler} as in servlet mode; each line is emitted as
+     * soon as its file has been handled.
+     */
+    @PostMapping(value = "/bulk-upload", consumes = OptimizationController.ZIP_MEDIA_TYPE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkUploadEntryResponse> submitBulkUpload(
+            @RequestBody Flux<DataBuffer> body,
+            @RequestParam("jobDescription") String jobDescription,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = OptimizationController.PRIORITY_HEADER, required = false) JobPriority priority) {
+        SubmissionContext context = tenant.submission(priority != null ? priority : JobPriority.BULK);
+        log.debug("POST /api/optimizations/bulk-upload - Tenant: {}", context.tenantId());
+        return Flux.using(
+                () -> Files.createTempFile("matchiq-bulk-", ".zip"),
+                archive -> DataBufferUtils.write(
+                                DataBufferUtils.takeUntilByteCount(body, bulkIngestionService.getMaxArchiveBytes() + 1), archive)
+                        .thenMany(Flux.<BulkUploadEntryResponse>create(sink -> {
+                            try (InputStream in = Files.newInputStream(archive)) {
+                                bulkIngestionService.ingest(in, jobDescription, List.of(), context, line -> {
+                                    if (sink.isCancelled()) {
+                                        throw new CancellationException("Bulk upload response was cancelled");
+                                    }
+                                    sink.next(line);
+                                });
+                                sink.complete();
+                            } catch (IOException e) {
+                                sink.error(e);
+                            }
+                        }).subscribeOn(blockingScheduler)),
+                archive -> {
+                    try {
+                        Files.deleteIfExists(archive);
+                    } catch (IOException e) {
+                        log.warn("Could not delete bulk upload archive {}: {}", archive, e.getMessage());
+                    }
+                })
+                .subscribeOn(blockingScheduler);
+    }
+
+    @PostMapping("/{id}/rerun")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<OptimizationSubmissionResponse> rerunOptimization(
+            @PathVariable String id,
+            @RequestParam("fromStage") PipelineStage fromStage,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = OptimizationController.PRIORITY_HEADER, required = false) JobPriority priority) {
+        return optimizationService.rerun(id, fromStage, tenant.submission(priority))
+                .doOnNext(saved -> log.debug("POST /api/optimizations/{}/rerun - From stage: {}, Job ID: {}",
+                        id, fromStage, saved.getId()))
+                .map(saved -> new OptimizationSubmissionResponse(saved.getId(), saved.getStatus()));
+    }
+
+    /**
+     * The cursor is read and written on {@code blockingScheduler}; each flush of the export
+     * becomes a buffer of the response.
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<DataBuffer>> exportJobs(
+            @RequestParam(value = "status", required = false) List<OptimizationStatus> statuses,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(value = "fields", required = false) List<String> fields,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "0") int limit,
+            @AuthenticationPrincipal TenantPrincipal tenant,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        JobExportService.Export export = exportService.prepare(new JobExportQuery(statuses, from, to, fields, after, limit), tenant);
+        boolean gzip = OptimizationController.acceptsGzip(acceptEncoding);
+        log.debug("GET /api/optimizations/export - Tenant: {}, Status: {}, From: {}, To: {}, After: {}, Gzip: {}",
+                tenant.tenantId(), statuses, from, to, after, gzip);
+        Flux<DataBuffer> body = Flux.from(DataBufferUtils.outputStreamPublisher(out -> {
+            try {
+                export.writeTo(out, gzip);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, DefaultDataBufferFactory.sharedInstance, blockingScheduler::schedule));
+        return OptimizationController.exportResponse(gzip).body(body);
+    }
+
+    /**
+     * Same caching as {@link OptimizationController#getOptimizationResult}: cached terminal
+     * results (and 304s) are answered without touching MongoDB.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<OptimizationResultResponse>> getOptimizationResult(
+            @PathVariable String id,
+            @RequestParam(value = "timings", defaultValue = "false") boolean includeTimings,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("GET /api/optimizations/{} - timings: {}", id, includeTimings);
+
+        if (includeTimings) {
+            return optimizationService.getById(id)
+                    .map(job -> ResponseEntity.ok()
+                            .cacheControl(CacheControl.noCache())
+                            .body(OptimizationResultResponse.from(job, true)));
+        }
+
+        OptimizationResultCache.Entry cached = resultCache.get(id);
+        if (cached != null) {
+            return Mono.just(cachedResponse(cached, ifNoneMatch));
+        }
+        Mono<ResponseEntity<OptimizationResultResponse>> load = optimizationService.getById(id).map(job -> {
+            OptimizationResultResponse result = OptimizationResultResponse.from(job);
+            OptimizationResultCache.Entry entry = resultCache.put(result, job.getUpdatedAt());
+            if (entry == null) {
+                return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(result);
+            }
+            return cachedResponse(entry, ifNoneMatch);
+        });
+        if (ifNoneMatch == null) {
+            return load;
+        }
+        // not cached on this node: check the ETag against status and updatedAt before loading the texts
+        return optimizationService.findStatus(id)
+                .filter(version -> version.getStatus() != null && version.getStatus().isTerminal()
+                        && version.getUpdatedAt() != null)
+                .map(version -> OptimizationResultCache.etag(id, version.getStatus(), version.getUpdatedAt()))
+                .filter(etag -> OptimizationResultCache.matches(ifNoneMatch, etag))
+                .map(etag -> ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(TERMINAL_CACHE_CONTROL)
+                        .<OptimizationResultResponse>build())
+                .switchIfEmpty(load);
+    }
+
+    /**
+     * Long-poll, as in {@link OptimizationController#waitForStatusChange}.
+     */
+    @GetMapping("/{id}/wait")
+    public Mono<OptimizationResultResponse> waitForStatusChange(
+            @PathVariable String id,
+            @RequestParam(value = "since", required = false) OptimizationStatus since,
+            @RequestParam(value = "timeoutSeconds", defaultValue = "30") long timeoutSeconds) {
+        log.debug("GET /api/optimizations/{}/wait - since: {}, timeout: {}s", id, since, timeoutSeconds);
+
+        Duration timeout = Duration.ofSeconds(Math.max(1, Math.min(timeoutSeconds, maxWaitSeconds)));
+        Mono<OptimizationResultResponse> current = optimizationService.getById(id).map(OptimizationResultResponse::from);
+        return optimizationService.statusChanges(id)
+                .filter(update -> hasMovedOn(update.status(), since))
+                .next()
+                .timeout(timeout, current)
+                .switchIfEmpty(current);
+    }
+
+    /**
+     * Server-sent events: one {@code status} event per status change, the stream
+     * completes after the terminal event.
+     */
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<OptimizationResultResponse>> streamStatusEvents(@PathVariable String id) {
+        log.debug("GET /api/optimizations/{}/events - Opening status stream", id);
+        return optimizationService.statusChanges(id)
+                .map(update -> ServerSentEvent.builder(update)
+                        .event("status")
+                        .id(update.status().name())
+                        .build())
+                .take(Duration.ofSeconds(sseTimeoutSeconds));
+    }
+
+    private Mono<OptimizationSubmissionResponse> submit(OptimizationRequest request, List<StageTiming> intakeTimings,
+                                                         SubmissionContext context, String description) {
+        return optimizationService.submit(request, intakeTimings, context)
+                .doOnNext(saved -> log.debug("{}, Job ID: {}", description, saved.getId()))
+                .map(saved -> new OptimizationSubmissionResponse(saved.getId(), saved.getStatus()));
+    }
+
+    /**
+     * Buffers the upload (at most {@link DocumentParsingService#MAX_FILE_SIZE}) and extracts
+     * its text on the parsing scheduler.
+     */
+    private Mono<Timed> parseResume(FilePart resumeFile) {
+        return DataBufferUtils.join(resumeFile.content(), DocumentParsingService.MAX_FILE_SIZE)
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .onErrorMap(DataBufferLimitException.class,
+                        e -> new IllegalArgumentException("File size exceeds maximum allowed size of 10MB"))
+                .defaultIfEmpty(new byte[0])
+                .flatMap(bytes -> Mono.fromCallable(() -> {
+                    Instant parseStart = Instant.now();
+                    String text = documentParsingService.extractTextFromResume(resumeFile.filename(), bytes);
+                    return new Timed(text, StageTiming.between(PipelineMetrics.STAGE_PARSE, parseStart, Instant.now()));
+                }).subscribeOn(parsingScheduler));
+    }
+
+    private Mono<Timed> fetchJobDescription(String jobUrl) {
+        return Mono.defer(() -> {
+            Instant fetchStart = Instant.now();
+            return jobFetcher.fetchJobDescription(jobUrl)
+                    .map(text -> new Timed(text, StageTiming.between(PipelineMetrics.STAGE_FETCH, fetchStart, Instant.now())));
+        });
+    }
+
+    private static ResponseEntity<OptimizationResultResponse> cachedResponse(OptimizationResultCache.Entry cached,
+                                                                           String ifNoneMatch) {
+        if (cached.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(cached.etag())
+                    .cacheControl(TERMINAL_CACHE_CONTROL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(cached.etag())
+                .cacheControl(TERMINAL_CACHE_CONTROL)
+                .body(cached.result());
+    }
+
+    private static boolean hasMovedOn(OptimizationStatus current, OptimizationStatus since) {
+        return since == null ? current.isTerminal() : current != since;
+    }
+
+    /** Form body of {@code POST /fetch-job}. */
+    public record JobUrlForm(String resumeText, String jobUrl) {
+    }
+
+    /** An intake result with the stage timing measured for it. */
+    private record Timed(String value, StageTiming timing) {
+    }
+}
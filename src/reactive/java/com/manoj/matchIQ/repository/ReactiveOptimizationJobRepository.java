@@ -0,0 +1,27 @@
+package com.manoj.matchIQ.repository;
+
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking access to the same collection as {@link OptimizationJobRepository}, used by the
+ * WebFlux controllers. Workers keep using the blocking repository and its lease operations.
+ */
+public interface ReactiveOptimizationJobRepository extends ReactiveMongoRepository<OptimizationJob, String> {
+    Mono<Long> countByTenantIdInAndStatus(Collection<String> tenantIds, OptimizationStatus status);
+
+    /**
+     * PENDING jobs of a tenant, for its queue limit; see {@link OptimizationJob#storedTenantIds}.
+     */
+    default Mono<Long> countPending(String tenantId) {
+        return countByTenantIdInAndStatus(OptimizationJob.storedTenantIds(tenantId), OptimizationStatus.PENDING);
+    }
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'status': 1, 'updatedAt': 1 }")
+    Mono<OptimizationJob> findStatusById(String id);
+}
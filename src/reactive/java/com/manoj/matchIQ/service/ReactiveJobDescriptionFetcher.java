@@ -0,0 +1,88 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import io.netty.channel.ChannelOption;
+import org.jsoup.Jsoup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Non-blocking variant of {@link JobDescriptionFetcherService}: the page is downloaded with
+ * {@link WebClient} and only the HTML parsing runs on the parsing scheduler. Extraction and
+ * cleanup are shared with the blocking fetcher.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveJobDescriptionFetcher {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveJobDescriptionFetcher.class);
+
+    private static final int MAX_PAGE_SIZE = 2 * 1024 * 1024; // Jsoup's default body limit
+    private static final Duration TIMEOUT = Duration.ofMillis(JobDescriptionFetcherService.TIMEOUT);
+
+    private final WebClient webClient;
+    private final JobDescriptionFetcherService fetcher;
+    private final Scheduler parsingScheduler;
+    private final PipelineMetrics metrics;
+
+    public ReactiveJobDescriptionFetcher(
+            WebClient.Builder webClientBuilder,
+            JobDescriptionFetcherService fetcher,
+            @Qualifier("parsingScheduler") Scheduler parsingScheduler,
+            PipelineMetrics metrics) {
+        HttpClient httpClient = HttpClient.create()
+                .followRedirect(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, JobDescriptionFetcherService.TIMEOUT)
+                .responseTimeout(TIMEOUT);
+        this.webClient = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.USER_AGENT, JobDescriptionFetcherService.USER_AGENT)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(MAX_PAGE_SIZE))
+                .build();
+        this.fetcher = fetcher;
+        this.parsingScheduler = parsingScheduler;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Fetches job description from a URL; fails with {@link IOException} like the blocking fetcher
+     */
+    public Mono<String> fetchJobDescription(String url) {
+        return Mono.defer(() -> {
+            log.debug("Fetching job description from URL: {}", url);
+            fetcher.validateUrl(url);
+
+            long fetchStart = System.nanoTime();
+            return webClient.get()
+                    .uri(URI.create(url))
+                    .retrieve()
+                    .bodyToMono(byte[].class)
+                    .defaultIfEmpty(new byte[0])
+                    .timeout(TIMEOUT)
+                    // charset detection (BOM, <meta charset>) is left to Jsoup, as with connect().get()
+                    .flatMap(body -> Mono.fromCallable(() -> fetcher.toJobDescription(
+                                    Jsoup.parse(new ByteArrayInputStream(body), null, url), url))
+                            .subscribeOn(parsingScheduler))
+                    .doOnSuccess(jobDescription ->
+                            metrics.recordJobDescriptionFetch(System.nanoTime() - fetchStart, "success"))
+                    .onErrorMap(e -> {
+                        metrics.recordJobDescriptionFetch(System.nanoTime() - fetchStart, "error");
+                        log.error("    Failed to fetch job description from URL: {}", url, e);
+                        return new IOException("Failed to fetch job description: " + e.getMessage(), e);
+                    });
+        });
+    }
+}
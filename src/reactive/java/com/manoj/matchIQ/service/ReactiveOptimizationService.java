@@ -0,0 +1,108 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.dto.OptimizationRequest;
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.PipelineStage;
+import com.manoj.matchIQ.model.StageTiming;
+import com.manoj.matchIQ.repository.ReactiveOptimizationJobRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Submission and status reads for the WebFlux controllers. Jobs are stored and read through
+ * {@link ReactiveOptimizationJobRepository}; job construction, quota rules and the hand-off to
+ * coalescing and workers are those of {@link ResumeOptimizationService}, whose occasional
+ * blocking calls run on the bounded {@code blockingScheduler}. Processing itself is unchanged:
+ * workers claim the stored jobs as in servlet mode.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOptimizationService {
+
+    private final ResumeOptimizationService optimizationService;
+    private final ReactiveOptimizationJobRepository repo;
+    private final JobStatusNotifier statusNotifier;
+    private final Scheduler blockingScheduler;
+
+    public ReactiveOptimizationService(
+            ResumeOptimizationService optimizationService,
+            ReactiveOptimizationJobRepository repo,
+            JobStatusNotifier statusNotifier,
+            @Qualifier("blockingScheduler") Scheduler blockingScheduler) {
+        this.optimizationService = optimizationService;
+        this.repo = repo;
+        this.statusNotifier = statusNotifier;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    /**
+     * @see ResumeOptimizationService#submit(OptimizationRequest, List, SubmissionContext)
+     */
+    public Mono<OptimizationJob> submit(OptimizationRequest request, List<StageTiming> intakeTimings, SubmissionContext context) {
+        Mono<Void> quota = optimizationService.getTenantQueueLimit() > 0
+                ? repo.countPending(context.tenantId())
+                        .doOnNext(pending -> optimizationService.checkTenantQuota(context, pending))
+                        .then()
+                : Mono.empty();
+        return quota
+                .then(Mono.fromCallable(() -> optimizationService.newJob(request, intakeTimings, context))
+                        .subscribeOn(blockingScheduler))
+                .flatMap(repo::save)
+                .flatMap(saved -> Mono.fromRunnable(() -> optimizationService.afterSubmit(saved))
+                        .subscribeOn(blockingScheduler)
+                        .thenReturn(saved));
+    }
+
+    /**
+     * @see ResumeOptimizationService#rerun(String, PipelineStage, SubmissionContext)
+     */
+    public Mono<OptimizationJob> rerun(String id, PipelineStage fromStage, SubmissionContext context) {
+        return Mono.fromCallable(() -> optimizationService.rerun(id, fromStage, context))
+                .subscribeOn(blockingScheduler);
+    }
+
+    /**
+     * @see ResumeOptimizationService#findStatus(String)
+     */
+    public Mono<OptimizationJob> findStatus(String id) {
+        return repo.findStatusById(id);
+    }
+
+    public Mono<OptimizationJob> getById(String id) {
+        return repo.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Optimization job not found with id: " + id)));
+    }
+
+    /**
+     * The job's current state followed by each later status change, completing after the
+     * terminal one; see {@link JobStatusNotifier.UpdateFilter} for what is left out.
+     */
+    public Flux<OptimizationResultResponse> statusChanges(String id) {
+        return Flux.defer(() -> {
+            Flux<StatusUpdate> live = Flux.<OptimizationResultResponse>create(sink -> {
+                JobStatusNotifier.Subscription subscription = statusNotifier.subscribe(id, sink::next);
+                sink.onDispose(subscription::close);
+            }, FluxSink.OverflowStrategy.BUFFER).map(update -> new StatusUpdate(update, false));
+            Mono<StatusUpdate> current = getById(id).map(job -> new StatusUpdate(OptimizationResultResponse.from(job), true));
+
+            JobStatusNotifier.UpdateFilter filter = new JobStatusNotifier.UpdateFilter();
+            // subscribe before reading so a change between the read and the subscription is not lost
+            return Flux.merge(live, current)
+                    .filter(update -> filter.accept(update.response(), update.snapshot()))
+                    .map(StatusUpdate::response)
+                    .takeUntil(update -> update.status().isTerminal());
+        });
+    }
+
+    private record StatusUpdate(OptimizationResultResponse response, boolean snapshot) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.manoj.matchIQ.config;
+
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MatchIqRuntimeHintsTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    MatchIqRuntimeHintsTests() {
+        new MatchIqRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersPdfBoxAndPoiResources() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("org/apache/pdfbox/resources/glyphlist/glyphlist.txt"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("org/apache/poi/schemas/ooxml/element/URI_SHA_1_19646AEC388215C989FB75EDE3F402FF063BA490/document.xsb"))
+                .accepts(hints);
+    }
+
+    @Test
+    void registersXmlBeansTypesFoundOnTheClasspath() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.openxmlformats.schemas.wordprocessingml.x2006.main.impl.CTDocument1Impl")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDocument1")))
+                .accepts(hints);
+    }
+
+    @Test
+    void registersDtosForJsonBinding() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(OptimizationResultResponse.class)).accepts(hints);
+    }
+}
@@ -0,0 +1,81 @@
+package com.manoj.matchIQ.config;
+
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.service.SubmissionContext;
+import com.manoj.matchIQ.service.TenantPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TenantPropertiesTests {
+
+    private final TenantProperties tenants = new TenantProperties(true, Map.of(
+            "agency-42", new TenantProperties.Tenant("key-42", JobPriority.BULK, false),
+            "acme", new TenantProperties.Tenant("key-acme", JobPriority.INTERACTIVE, true),
+            OptimizationJob.DEFAULT_TENANT, new TenantProperties.Tenant(null, JobPriority.BATCH, true)));
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tenantComesFromTheApiKeyOnly() {
+        assertThat(tenants.authenticate("key-42")).contains(new TenantPrincipal("agency-42", JobPriority.BULK, false));
+        assertThat(tenants.authenticate("key-4")).isEmpty();
+        // the default tenant has no key, so an empty one must not match it
+        assertThat(tenants.authenticate("")).isEmpty();
+        // analytics access always needs a key
+        assertThat(tenants.anonymous()).isEqualTo(new TenantPrincipal(OptimizationJob.DEFAULT_TENANT, JobPriority.BATCH, false));
+        assertThat(new TenantProperties(true, Map.of()).anonymous().maxPriority()).isEqualTo(JobPriority.INTERACTIVE);
+    }
+
+    @Test
+    void requestedPriorityIsCappedAtTheTenantsMaximum() {
+        TenantPrincipal bulkOnly = new TenantPrincipal("agency-42", JobPriority.BULK, false);
+
+        assertThat(bulkOnly.submission(JobPriority.INTERACTIVE)).isEqualTo(SubmissionContext.of("agency-42", JobPriority.BULK));
+        assertThat(bulkOnly.submission(null).priority()).isEqualTo(JobPriority.BULK);
+        assertThat(bulkOnly.submission(JobPriority.BATCH).priority()).isEqualTo(JobPriority.BATCH);
+        assertThat(new TenantPrincipal("acme", JobPriority.INTERACTIVE, false).submission(null).priority())
+                .isEqualTo(JobPriority.INTERACTIVE);
+    }
+
+    @Test
+    void filterAuthenticatesKnownKeysAndRejectsUnknownOnes() throws Exception {
+        ApiKeyAuthenticationFilter filter = new ApiKeyAuthenticationFilter(tenants);
+
+        MockHttpServletRequest known = new MockHttpServletRequest("POST", "/api/optimizations");
+        known.addHeader(ApiKeyAuthenticationFilter.API_KEY_HEADER, "key-acme");
+        Authentication[] seen = new Authentication[1];
+        filter.doFilter(known, new MockHttpServletResponse(), (request, response) ->
+                seen[0] = SecurityContextHolder.getContext().getAuthentication());
+        assertThat(seen[0].getPrincipal()).isEqualTo(new TenantPrincipal("acme", JobPriority.INTERACTIVE, true));
+        assertThat(AuthorityUtils.authorityListToSet(seen[0].getAuthorities())).containsExactlyInAnyOrder("ROLE_TENANT", "ROLE_ANALYTICS");
+
+        MockHttpServletRequest unknown = new MockHttpServletRequest("POST", "/api/optimizations");
+        unknown.addHeader(ApiKeyAuthenticationFilter.API_KEY_HEADER, "stolen");
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(unknown, rejected, chain);
+        assertThat(rejected.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void defaultTenantOwnsJobsStoredWithoutOne() {
+        assertThat(OptimizationJob.storedTenantIds(OptimizationJob.DEFAULT_TENANT))
+                .containsExactly(OptimizationJob.DEFAULT_TENANT, null);
+        assertThat(OptimizationJob.storedTenantIds("acme")).containsExactly("acme");
+    }
+}
@@ -0,0 +1,135 @@
+package com.manoj.matchIQ.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import com.manoj.matchIQ.repository.OptimizationJobRepository;
+import com.manoj.matchIQ.service.JobStatusNotifier;
+import com.manoj.matchIQ.service.KeywordExtractionService;
+import com.manoj.matchIQ.service.KeywordScoringService;
+import com.manoj.matchIQ.service.ResumeOptimizationService;
+import com.manoj.matchIQ.service.ScoreOnlyService;
+import com.manoj.matchIQ.service.SemanticScoringService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoints on a standalone MockMvc; collaborators an endpoint does not use are null.
+ */
+public class OptimizationControllerTests {
+
+    private static final String SCORE_REQUEST = """
+            {"resumeText": "Software engineer building Java and Spring Boot services on AWS.",
+             "jobDescription": "We are looking for a software engineer with Java, Spring Boot and AWS experience."}
+            """;
+
+    @Test
+    void scoreAnswersTheScoresAndKeywords() throws Exception {
+        MockMvc mvc = mockMvc(Runnable::run);
+
+        MvcResult started = mvc.perform(post("/api/optimizations/score")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(SCORE_REQUEST))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.atsScore").isNumber())
+                .andExpect(jsonPath("$.semanticScore").isNumber())
+                .andExpect(jsonPath("$.extractedKeywords").isArray());
+    }
+
+    @Test
+    void scoreAnswers503WhenTheScoringExecutorRejects() throws Exception {
+        MockMvc mvc = mockMvc(task -> {
+            throw new TaskRejectedException("scoringExecutor is full");
+        });
+
+        mvc.perform(post("/api/optimizations/score")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(SCORE_REQUEST))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("Too many optimizations in progress, please retry shortly"));
+    }
+
+    @Test
+    void scoreRejectsABlankResume() throws Exception {
+        mockMvc(Runnable::run).perform(post("/api/optimizations/score")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"resumeText\": \" \", \"jobDescription\": \"Java engineer\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void eventsFollowARequeuedJobUntilItFinishes() throws Exception {
+        OptimizationJob job = new OptimizationJob();
+        job.setId("job-1");
+        job.setStatus(OptimizationStatus.PROCESSING);
+        JobStatusNotifier notifier = new JobStatusNotifier();
+        MockMvc mvc = mockMvc(Runnable::run, jobs(job), notifier);
+
+        MvcResult result = mvc.perform(get("/api/optimizations/job-1/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // the lease expired, the sweeper requeued the job and another worker claimed it
+        notifier.publish(update("job-1", OptimizationStatus.PENDING));
+        notifier.publish(update("job-1", OptimizationStatus.PROCESSING));
+        notifier.publish(update("job-1", OptimizationStatus.PROCESSING));
+        notifier.publish(update("job-1", OptimizationStatus.COMPLETED));
+
+        assertThat(result.getResponse().getContentAsString().lines().filter(line -> line.startsWith("id:")))
+                .containsExactly("id:PROCESSING", "id:PENDING", "id:PROCESSING", "id:COMPLETED");
+        assertThat(notifier.hasSubscribers("job-1")).isFalse();
+    }
+
+    private static OptimizationResultResponse update(String id, OptimizationStatus status) {
+        return new OptimizationResultResponse(id, status, null, null, null, null, null, null, null);
+    }
+
+    private static ResumeOptimizationService jobs(OptimizationJob... jobs) {
+        OptimizationJobRepository repo = (OptimizationJobRepository) Proxy.newProxyInstance(
+                OptimizationControllerTests.class.getClassLoader(), new Class<?>[]{OptimizationJobRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Arrays.stream(jobs).filter(job -> job.getId().equals(args[0])).findFirst();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return new ResumeOptimizationService(repo, null, null, null, null, null, null, null,
+                new PipelineMetrics(new SimpleMeterRegistry()), null, null, null, 120, 0);
+    }
+
+    private static MockMvc mockMvc(Executor scoringExecutor) {
+        return mockMvc(scoringExecutor, null, null);
+    }
+
+    private static MockMvc mockMvc(Executor scoringExecutor, ResumeOptimizationService optimizationService,
+                                   JobStatusNotifier notifier) {
+        ScoreOnlyService scoreOnlyService = new ScoreOnlyService(new KeywordExtractionService(),
+                new KeywordScoringService(), new SemanticScoringService(1024), scoringExecutor,
+                new PipelineMetrics(new SimpleMeterRegistry()));
+        OptimizationController controller = new OptimizationController(optimizationService, scoreOnlyService, null,
+                null, notifier, null, null, new ObjectMapper(), null, 60, 600);
+        return MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+}
@@ -0,0 +1,177 @@
+package com.manoj.matchIQ.llm;
+
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ApiLlmClientFailoverTests {
+
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    void failsOverToNextProviderOnError() throws IOException {
+        LlmProvider broken = stub("broken", 503, 0, null);
+        LlmProvider healthy = stub("healthy", 200, 0, null);
+        ApiLlmClient client = client(List.of(broken, healthy), hedging(false));
+
+        LlmResult result = client.generateAtsBullets("resume", "job", List.of("java"));
+
+        assertThat(result.isFallback()).isFalse();
+        assertThat(result.content()).isEqualTo("- from healthy");
+        assertThat(result.attempts()).isEqualTo(2);
+    }
+
+    @Test
+    void hedgesSlowProviderAndCancelsTheLoser() throws Exception {
+        CountDownLatch slowAborted = new CountDownLatch(1);
+        LlmProvider slow = stub("slow", 200, 5000, slowAborted);
+        LlmProvider fast = stub("fast", 200, 0, null);
+        ApiLlmClient client = client(List.of(slow, fast), hedging(true));
+
+        long start = System.nanoTime();
+        LlmResult result = client.generateAtsBullets("resume", "job", List.of("java"));
+
+        assertThat(result.content()).isEqualTo("- from fast");
+        assertThat(result.attempts()).isEqualTo(2);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        assertThat(slowAborted.await(3, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void fallsBackWhenEveryProviderFails() throws IOException {
+        ApiLlmClient client = client(List.of(stub("a", 500, 0, null), stub("b", 502, 0, null)), hedging(true));
+
+        LlmResult result = client.generateTailoredCoverLetter("resume", "job", List.of("java"));
+
+        assertThat(result.isFallback()).isTrue();
+        assertThat(result.attempts()).isEqualTo(2);
+        assertThat(result.content()).contains("Dear Hiring Manager");
+    }
+
+    @Test
+    void retriesTransientErrorsOnTheSameProvider() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        LlmProvider flaky = stub("flaky", 503, 0, null, requests, 2);
+        ApiLlmClient client = client(List.of(flaky), hedging(false), 3, breaker(false));
+
+        LlmResult result = client.generateAtsBullets("resume", "job", List.of("java"));
+
+        assertThat(result.content()).isEqualTo("- from flaky");
+        assertThat(result.attempts()).isEqualTo(3);
+        assertThat(requests).hasValue(3);
+    }
+
+    @Test
+    void openCircuitServesFallbackWithoutCallingTheProvider() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        LlmProvider down = stub("down", 500, 0, null, requests, Integer.MAX_VALUE);
+        ApiLlmClient client = client(List.of(down), hedging(false), 1, breaker(true));
+
+        client.generateAtsBullets("resume", "job", List.of("java"));
+        client.generateAtsBullets("resume", "job", List.of("java"));
+        LlmResult result = client.generateAtsBullets("resume", "job", List.of("java"));
+
+        assertThat(result.fallbackReason()).isEqualTo("circuit_open");
+        assertThat(result.attempts()).isZero();
+        assertThat(requests).hasValue(2);
+    }
+
+    private ApiLlmClient client(List<LlmProvider> providers, HedgeSettings hedging) {
+        return client(providers, hedging, 1, breaker(false));
+    }
+
+    private ApiLlmClient client(List<LlmProvider> providers, HedgeSettings hedging, int maxAttempts,
+                                CircuitBreakerSettings breaker) {
+        return new ApiLlmClient(new RestTemplateBuilder(), new PipelineMetrics(new SimpleMeterRegistry()),
+                providers, hedging, new RetrySettings(maxAttempts, Duration.ofMillis(10), Duration.ofMillis(20)),
+                breaker, Clock.systemUTC(), 0.0);
+    }
+
+    private static CircuitBreakerSettings breaker(boolean enabled) {
+        return new CircuitBreakerSettings(enabled, 2, 2, 0.5, Duration.ofSeconds(30), 1.0, Duration.ofSeconds(30), 1);
+    }
+
+    private static HedgeSettings hedging(boolean enabled) {
+        return new HedgeSettings(enabled, 0.95, Duration.ofMillis(50), Duration.ofMillis(200), 1.0);
+    }
+
+    /**
+     * OpenAI-compatible stub answering with {@code status} after {@code delayMs}; counts down
+     * {@code aborted} when the client hangs up before the delay is over.
+     */
+    private LlmProvider stub(String name, int status, long delayMs, CountDownLatch aborted) throws IOException {
+        return stub(name, status, delayMs, aborted, new AtomicInteger(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #stub(String, int, long, CountDownLatch)}, but only the first {@code failures}
+     * requests get {@code status}; later ones succeed.
+     */
+    private LlmProvider stub(String name, int status, long delayMs, CountDownLatch aborted,
+                             AtomicInteger requests, int failures) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            int responseStatus = requests.incrementAndGet() <= failures ? status : 200;
+            try {
+                if (delayMs > 0) {
+                    exchange.sendResponseHeaders(200, 0);
+                    OutputStream body = exchange.getResponseBody();
+                    long deadline = System.currentTimeMillis() + delayMs;
+                    // keep writing so a closed connection is noticed
+                    while (System.currentTimeMillis() < deadline) {
+                        body.write(' ');
+                        body.flush();
+                        Thread.sleep(50);
+                    }
+                    body.write(completion(name));
+                    body.close();
+                    return;
+                }
+                byte[] body = responseStatus == 200 ? completion(name) : "{\"error\":\"down\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(responseStatus, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            } catch (IOException e) {
+                if (aborted != null) {
+                    aborted.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.setExecutor(null);
+        server.start();
+        servers.add(server);
+        return new LlmProvider(name, "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions",
+                "test-key", "test-model");
+    }
+
+    private static byte[] completion(String name) {
+        return ("{\"choices\":[{\"message\":{\"content\":\"- from " + name + "\"}}],"
+                + "\"usage\":{\"prompt_tokens\":10,\"completion_tokens\":5}}").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,102 @@
+package com.manoj.matchIQ.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTests {
+
+    private static final Duration FAST = Duration.ofMillis(200);
+    private static final Duration SLOW = Duration.ofSeconds(45);
+
+    private final MutableClock clock = new MutableClock();
+    private final CircuitBreaker breaker = new CircuitBreaker(
+            new CircuitBreakerSettings(true, 4, 4, 0.5, Duration.ofSeconds(30), 0.8, Duration.ofSeconds(30), 2), clock);
+
+    @Test
+    void opensOnFailuresAndClosesAfterFastProbes() {
+        open();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        clock.advance(Duration.ofSeconds(31));
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess(FAST);
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess(FAST);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opensOnSlowCalls() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onSuccess(SLOW);
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void aSlowProbeOpensTheBreakerAgain() {
+        open();
+        clock.advance(Duration.ofSeconds(31));
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess(FAST);
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess(SLOW);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void aFailedProbeOpensTheBreakerAgain() {
+        open();
+        clock.advance(Duration.ofSeconds(31));
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-05-01T08:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
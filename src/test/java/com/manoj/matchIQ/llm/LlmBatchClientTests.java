@@ -0,0 +1,128 @@
+package com.manoj.matchIQ.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LlmBatchClientTests {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<JsonNode> inputLines = new ArrayList<>();
+    private HttpServer server;
+    private int polls;
+
+    /**
+     * A batch API that reports the batch completed on the second poll and answers every request
+     * of the input file except the cover letter of {@code job-2}.
+     */
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/files", exchange -> {
+            if ("POST".equals(exchange.getRequestMethod())) {
+                String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                String file = form.substring(form.indexOf("\r\n\r\n", form.indexOf("filename=")) + 4);
+                for (String line : file.substring(0, file.indexOf("\r\n--")).split("\n")) {
+                    inputLines.add(mapper.readTree(line));
+                }
+                respond(exchange, "{\"id\":\"file-in\",\"purpose\":\"batch\"}");
+            } else {
+                respond(exchange, output());
+            }
+        });
+        server.createContext("/v1/batches", exchange -> {
+            if ("POST".equals(exchange.getRequestMethod())) {
+                JsonNode request = mapper.readTree(exchange.getRequestBody());
+                assertThat(request.path("input_file_id").asText()).isEqualTo("file-in");
+                respond(exchange, "{\"id\":\"batch-1\",\"status\":\"validating\"}");
+            } else {
+                respond(exchange, ++polls < 2
+                        ? "{\"id\":\"batch-1\",\"status\":\"in_progress\",\"output_file_id\":null}"
+                        : "{\"id\":\"batch-1\",\"status\":\"completed\",\"output_file_id\":\"file-out\"}");
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void submitsPollsAndCollectsResults() {
+        LlmBatchClient client = new LlmBatchClient(new RestTemplateBuilder(),
+                new PipelineMetrics(new SimpleMeterRegistry()),
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/", "key", "test-model", "24h",
+                PromptTemplate.DEFAULT_LOCATION);
+
+        String batchId = client.submit(List.of(
+                LlmBatchClient.Item.of("job-1", LlmBatchClient.Prompt.ATS_BULLETS, "Resume one", "Posting", List.of("java")),
+                LlmBatchClient.Item.of("job-1", LlmBatchClient.Prompt.COVER_LETTER, "Resume one", "Posting", List.of("java")),
+                LlmBatchClient.Item.of("job-2", LlmBatchClient.Prompt.ATS_BULLETS, "Resume \"two\"", "Posting", List.of("go")),
+                LlmBatchClient.Item.of("job-2", LlmBatchClient.Prompt.COVER_LETTER, "Resume \"two\"", "Posting", List.of("go"))));
+
+        assertThat(batchId).isEqualTo("batch-1");
+        assertThat(inputLines).hasSize(4);
+        JsonNode first = inputLines.get(0);
+        assertThat(first.path("custom_id").asText()).isEqualTo("job-1:ats-bullets");
+        assertThat(first.path("url").asText()).isEqualTo("/v1/chat/completions");
+        assertThat(first.path("body").path("model").asText()).isEqualTo("test-model");
+        assertThat(first.path("body").path("messages").get(0).path("role").asText()).isEqualTo("system");
+        assertThat(inputLines.get(2).path("body").path("messages").get(1).path("content").asText())
+                .contains("Resume \"two\"");
+
+        assertThat(client.status(batchId).terminal()).isFalse();
+        LlmBatchClient.BatchStatus status = client.status(batchId);
+        assertThat(status.terminal()).isTrue();
+        assertThat(status.outputFileId()).isEqualTo("file-out");
+
+        Map<String, LlmResult> results = client.results(status.outputFileId());
+        assertThat(results).containsOnlyKeys("job-1:ats-bullets", "job-1:cover-letter", "job-2:ats-bullets");
+        assertThat(results.get("job-1:cover-letter").content()).isEqualTo("answer to job-1:cover-letter");
+        assertThat(results.get("job-2:ats-bullets").cachedTokens()).isEqualTo(64);
+    }
+
+    private String output() {
+        StringBuilder output = new StringBuilder();
+        for (JsonNode line : inputLines) {
+            String customId = line.path("custom_id").asText();
+            if ("job-2:cover-letter".equals(customId)) {
+                output.append("{\"custom_id\":\"").append(customId).append("\",\"response\":null,")
+                        .append("\"error\":{\"code\":\"server_error\",\"message\":\"overloaded\"}}\n");
+            } else {
+                output.append("{\"id\":\"req\",\"custom_id\":\"").append(customId).append("\",\"response\":{")
+                        .append("\"status_code\":200,\"body\":{\"choices\":[{\"message\":{\"content\":\"answer to ")
+                        .append(customId).append("\"}}],\"usage\":{\"prompt_tokens\":100,\"completion_tokens\":20,")
+                        .append("\"prompt_tokens_details\":{\"cached_tokens\":64}}}},\"error\":null}\n");
+            }
+        }
+        return output.toString();
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.manoj.matchIQ.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LlmJsonCodecTests {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void writesAnEscapedChatCompletionRequest() throws IOException {
+        String prompt = "Resume:\n\"Lead\" engineer \\ café ✓\tend";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        LlmJsonCodec.writeRequest(out, LlmJsonCodec.requestStart("Be \"brief\".\nNo fluff."), "gpt-test", prompt);
+
+        JsonNode request = mapper.readTree(out.toByteArray());
+        assertThat(request.path("model").asText()).isEqualTo("gpt-test");
+        assertThat(request.path("messages").get(0).path("role").asText()).isEqualTo("system");
+        assertThat(request.path("messages").get(0).path("content").asText()).isEqualTo("Be \"brief\".\nNo fluff.");
+        assertThat(request.path("messages").get(1).path("role").asText()).isEqualTo("user");
+        assertThat(request.path("messages").get(1).path("content").asText()).isEqualTo(prompt);
+        assertThat(request.path("max_tokens").asInt()).isEqualTo(1000);
+        assertThat(request.path("temperature").asDouble()).isEqualTo(0.7);
+    }
+
+    @Test
+    void readsFirstChoiceAndUsageSkippingTheRest() throws IOException {
+        LlmJsonCodec.Completion completion = read("""
+                {"id":"x","object":"chat.completion","system_fingerprint":{"nested":[1,2,{"a":"b"}]},
+                 "choices":[{"index":0,"logprobs":null,"message":{"role":"assistant","content":"  - bullet one\\n- two  "}},
+                            {"index":1,"message":{"content":"ignored"}}],
+                 "usage":{"prompt_tokens":900,"completion_tokens":120,
+                          "prompt_tokens_details":{"cached_tokens":768,"audio_tokens":0}}}
+                """);
+
+        assertThat(completion.content()).isEqualTo("- bullet one\n- two");
+        assertThat(completion.promptTokens()).isEqualTo(900);
+        assertThat(completion.completionTokens()).isEqualTo(120);
+        assertThat(completion.cachedTokens()).isEqualTo(768);
+    }
+
+    @Test
+    void joinsContentParts() throws IOException {
+        LlmJsonCodec.Completion completion = read("""
+                {"usage":{"prompt_tokens":5},
+                 "choices":[{"message":{"content":[{"type":"output_text","text":"first"},"second"]}}]}
+                """);
+
+        assertThat(completion.content()).isEqualTo("first\nsecond");
+        assertThat(completion.promptTokens()).isEqualTo(5);
+        assertThat(completion.cachedTokens()).isZero();
+    }
+
+    @Test
+    void reportsMissingChoices() throws IOException {
+        assertThat(read("{\"choices\":[]}").content()).isNull();
+        assertThat(read("{\"error\":{\"message\":\"nope\"}}").content()).isNull();
+    }
+
+    private static LlmJsonCodec.Completion read(String json) throws IOException {
+        return LlmJsonCodec.readResponse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
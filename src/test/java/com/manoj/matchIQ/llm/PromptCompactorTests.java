@@ -0,0 +1,85 @@
+package com.manoj.matchIQ.llm;
+
+import com.manoj.matchIQ.llm.PromptCompactor.CompactedPrompt;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PromptCompactorTests {
+
+    @Test
+    void dropsDuplicateSentencesAndBoilerplateLines() {
+        PromptCompactor compactor = new PromptCompactor(true, 3000, 1500);
+        String posting = "We need a Java engineer.\n"
+                + "Accept all cookies to continue.\n"
+                + "You will build Spring Boot services. We need a Java engineer.\n"
+                + "Benefits\n"
+                + "Dental and 401(k) matching.\n"
+                + "Acme is an equal opportunity employer and values diversity of every kind at our company.";
+
+        CompactedPrompt prompt = compactor.compact("Built Java services.", posting, List.of("java", "spring"));
+
+        assertThat(prompt.jobDescription())
+                .isEqualTo("We need a Java engineer.\nYou will build Spring Boot services.");
+        assertThat(prompt.tokensAfter()).isLessThan(prompt.tokensBefore());
+    }
+
+    @Test
+    void keepsRequirementsThatMentionBoilerplateWords() {
+        PromptCompactor compactor = new PromptCompactor(true, 3000, 1500);
+        String posting = "Sign in\n"
+                + "Requirements\n"
+                + "Build dental practice software and handle incidental on-call duty.\n"
+                + "Support telecommuter and commuter benefits platforms, including subscription billing.\n"
+                + "Implement login and SSO flows with cookie-based sessions.\n"
+                + "Experience with copyright and wellness data is a plus.\n"
+                + "Privacy policy\n"
+                + "© 2024 Acme Corp.";
+
+        CompactedPrompt prompt = compactor.compact("Built Java services.", posting, List.of("java"));
+
+        assertThat(prompt.jobDescription()).isEqualTo("Requirements\n"
+                + "Build dental practice software and handle incidental on-call duty.\n"
+                + "Support telecommuter and commuter benefits platforms, including subscription billing.\n"
+                + "Implement login and SSO flows with cookie-based sessions.\n"
+                + "Experience with copyright and wellness data is a plus.");
+    }
+
+    @Test
+    void keepsMostRelevantSentencesWithinBudget() {
+        PromptCompactor compactor = new PromptCompactor(true, 30, 15);
+        String resume = "Organised the office holiday party for forty people.\n"
+                + "Built Java and Spring Boot microservices on AWS.\n"
+                + "Enjoys hiking, cooking and reading novels on weekends.";
+
+        CompactedPrompt prompt = compactor.compact(resume, "Java, Spring and AWS.", List.of("java", "spring", "aws."));
+
+        assertThat(prompt.resumeText()).isEqualTo("Built Java and Spring Boot microservices on AWS.");
+        assertThat(prompt.tokensAfter()).isLessThanOrEqualTo(30);
+    }
+
+    @Test
+    void cutsThePostingTheSameWayWhateverTheResume() {
+        PromptCompactor compactor = new PromptCompactor(true, 60, 30);
+        String posting = "Build Java services on Kafka.\n"
+                + "Tune PostgreSQL queries for reporting.\n"
+                + "Mentor engineers in code review and design.\n"
+                + "Run Kubernetes deployments with Helm.";
+        List<String> keywords = List.of("java", "kafka", "kubernetes");
+        PromptTemplate template = PromptTemplate.load(PromptTemplate.DEFAULT_LOCATION, "ats-bullets");
+
+        CompactedPrompt shortResume = compactor.compact("Wrote Java.", posting, keywords);
+        CompactedPrompt longResume = compactor.compact("Wrote Java services on Kafka for payments. ".repeat(20),
+                posting, keywords);
+
+        assertThat(shortResume.jobDescription()).isEqualTo(longResume.jobDescription())
+                .isEqualTo("Build Java services on Kafka.\nRun Kubernetes deployments with Helm.");
+        String shortPrompt = template.render(shortResume.jobDescription(), keywords, shortResume.resumeText()).user();
+        String longPrompt = template.render(longResume.jobDescription(), keywords, longResume.resumeText()).user();
+        String prefix = shortPrompt.substring(0, shortPrompt.indexOf("Wrote Java."));
+        assertThat(longPrompt).startsWith(prefix);
+        assertThat(longResume.tokensAfter()).isLessThanOrEqualTo(60);
+    }
+}
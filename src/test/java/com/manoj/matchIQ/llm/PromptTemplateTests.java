@@ -0,0 +1,34 @@
+package com.manoj.matchIQ.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PromptTemplateTests {
+
+    @Test
+    void rendersJobDescriptionBeforeTheResume() {
+        PromptTemplate template = PromptTemplate.load(PromptTemplate.DEFAULT_LOCATION, "ats-bullets");
+
+        LlmPrompt first = template.render("Senior Java role", List.of("java", "kafka"), "Resume A");
+        LlmPrompt second = template.render("Senior Java role", List.of("java", "kafka"), "Resume B, longer");
+
+        assertThat(first.user()).startsWith("Job Description:\nSenior Java role");
+        assertThat(first.user()).contains("Keywords: java, kafka");
+        assertThat(first.user()).endsWith("Resume:\nResume A");
+        // candidates for the same posting share everything up to their resume
+        String sharedPrefix = first.user().substring(0, first.user().indexOf("Resume A"));
+        assertThat(second.user()).startsWith(sharedPrefix);
+        assertThat(second.requestStart()).isSameAs(first.requestStart());
+    }
+
+    @Test
+    void rejectsUnknownPlaceholders() {
+        assertThatThrownBy(() -> PromptTemplate.parse("broken", "System\n---\n{{salary}}"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("{{salary}}");
+    }
+}
@@ -0,0 +1,30 @@
+package com.manoj.matchIQ.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PipelineMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PipelineMetrics metrics = new PipelineMetrics(registry);
+
+    @Test
+    void reusesMetersPerTagValues() {
+        metrics.recordStage(PipelineMetrics.STAGE_SCORING, 1_000, "success");
+        metrics.recordStage(PipelineMetrics.STAGE_SCORING, 3_000, "success");
+        metrics.recordStage(PipelineMetrics.STAGE_SCORING, 2_000, "error");
+        metrics.recordLlmFailover("primary", "timeout");
+        metrics.recordLlmRetry("primary", "timeout");
+        metrics.recordLeaseLost();
+        metrics.recordLeaseLost();
+
+        assertThat(registry.get("matchiq.pipeline.stage").tag("outcome", "success").timer().count()).isEqualTo(2);
+        assertThat(registry.get("matchiq.pipeline.stage").tag("outcome", "error").timer().count()).isEqualTo(1);
+        // same tag values under another name are another meter
+        assertThat(registry.get("matchiq.llm.failover").counter().count()).isEqualTo(1);
+        assertThat(registry.get("matchiq.llm.retry").counter().count()).isEqualTo(1);
+        assertThat(registry.get("matchiq.worker.lease.lost").counter().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,214 @@
+package com.manoj.matchIQ.repository;
+
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import com.manoj.matchIQ.model.StageTiming;
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OptimizationJobRepositoryCustomImplTests {
+
+    private static final Duration LEASE = Duration.ofSeconds(60);
+
+    private final RecordingMongoTemplate mongo = new RecordingMongoTemplate();
+    private final OptimizationJobRepositoryCustomImpl repo = new OptimizationJobRepositoryCustomImpl(mongo);
+
+    @Test
+    void claimTakesTheOldestUnattachedPendingJobOfTheFlowUnderALease() {
+        Instant before = Instant.now();
+        repo.claimNextPending("worker-1", LEASE, OptimizationJob.DEFAULT_TENANT, JobPriority.INTERACTIVE);
+
+        Document query = mongo.queries.get(0).getQueryObject();
+        assertThat(query.get("status")).isEqualTo(OptimizationStatus.PENDING);
+        assertThat(query.get("coalescedWith")).isNull();
+        assertThat(query.containsKey("coalescedWith")).isTrue();
+        // jobs stored before tenants and priorities existed belong to the default flow
+        assertThat(query.get("tenantId", Document.class).get("$in", List.class))
+                .containsExactly(OptimizationJob.DEFAULT_TENANT, null);
+        assertThat(query.get("priority", Document.class).get("$in", List.class))
+                .containsExactly(JobPriority.INTERACTIVE, null);
+        assertThat(mongo.queries.get(0).getSortObject()).isEqualTo(new Document("createdAt", 1));
+
+        Document set = mongo.updates.get(0).getUpdateObject().get("$set", Document.class);
+        assertThat(set.get("status")).isEqualTo(OptimizationStatus.PROCESSING);
+        assertThat(set.get("leaseOwner")).isEqualTo("worker-1");
+        assertThat((Instant) set.get("leaseExpiresAt")).isAfterOrEqualTo(before.plus(LEASE));
+        assertThat(mongo.updates.get(0).getUpdateObject().get("$inc", Document.class).get("processingAttempts"))
+                .isEqualTo(1);
+        assertThat(mongo.returnedNew).isTrue();
+    }
+
+    @Test
+    void appendStageTimingPushesOntoTheStoredTimings() {
+        StageTiming timing = StageTiming.start(PipelineMetrics.STAGE_PERSISTENCE).finish("success");
+
+        repo.appendStageTiming("job-1", timing);
+
+        assertThat(mongo.queries.get(0).getQueryObject()).isEqualTo(new Document("_id", "job-1"));
+        assertThat(mongo.updates.get(0).getUpdateObject()).isEqualTo(new Document("$push", new Document("stageTimings", timing)));
+    }
+
+    @Test
+    void claimForAnotherTenantOrBatchLeavesTheDefaultFlowAlone() {
+        repo.claimNextPending("worker-1", LEASE, "acme", JobPriority.BATCH);
+
+        Document query = mongo.queries.get(0).getQueryObject();
+        assertThat(query.get("tenantId", Document.class).get("$in", List.class)).containsExactly("acme");
+        assertThat(query.get("priority", Document.class).get("$in", List.class)).containsExactly(JobPriority.BATCH);
+    }
+
+    @Test
+    void renewSucceedsOnlyWhileTheWorkerStillHoldsTheLease() {
+        mongo.matching.add("job-1");
+
+        assertThat(repo.renewLease("job-1", "worker-1", LEASE)).isTrue();
+        assertThat(repo.renewLease("job-2", "worker-1", LEASE)).isFalse();
+
+        Document held = mongo.queries.get(0).getQueryObject();
+        assertThat(held.get("_id")).isEqualTo("job-1");
+        assertThat(held.get("status")).isEqualTo(OptimizationStatus.PROCESSING);
+        assertThat(held.get("leaseOwner")).isEqualTo("worker-1");
+        assertThat(mongo.updates.get(0).getUpdateObject().get("$set", Document.class)).containsKey("leaseExpiresAt");
+    }
+
+    @Test
+    void sweepFailsExhaustedJobsAndReportsOnlyThoseItFailed() {
+        mongo.found.addAll(List.of(job("job-1"), job("job-2")));
+        // job-2 was renewed between the read and the update
+        mongo.matching.add("job-1");
+
+        List<String> failed = repo.failExhaustedLeases(3, LEASE);
+
+        assertThat(failed).containsExactly("job-1");
+        Document exhausted = mongo.queries.get(0).getQueryObject();
+        assertThat(exhausted.get("status")).isEqualTo(OptimizationStatus.PROCESSING);
+        assertThat(exhausted.get("processingAttempts", Document.class).get("$gte")).isEqualTo(3);
+        assertThat(exhausted).containsKey("$or");
+
+        UpdateDefinition fail = mongo.updates.get(0);
+        assertThat(fail.getUpdateObject().get("$set", Document.class).get("status")).isEqualTo(OptimizationStatus.FAILED);
+        assertThat(fail.getUpdateObject().get("$unset", Document.class)).containsKeys("leaseOwner", "leaseExpiresAt");
+        assertThat(mongo.queries.get(1).getQueryObject().get("_id")).isEqualTo("job-1");
+        assertThat(mongo.queries.get(1).getQueryObject()).containsKey("$and");
+    }
+
+    @Test
+    void sweepRequeuesTheRemainingExpiredLeases() {
+        mongo.matching.addAll(List.of("job-1", "job-2"));
+
+        assertThat(repo.requeueExpiredLeases(LEASE)).isEqualTo(2);
+
+        assertThat(mongo.queries.get(0).getQueryObject().get("status")).isEqualTo(OptimizationStatus.PROCESSING);
+        Document set = mongo.updates.get(0).getUpdateObject().get("$set", Document.class);
+        assertThat(set.get("status")).isEqualTo(OptimizationStatus.PENDING);
+    }
+
+    private static OptimizationJob job(String id) {
+        OptimizationJob job = new OptimizationJob();
+        job.setId(id);
+        return job;
+    }
+
+    /**
+     * Records the queries and updates sent by the repository instead of running them. Updates
+     * by id match when the id is in {@link #matching}; multi updates match all of them.
+     */
+    private static final class RecordingMongoTemplate extends MongoTemplate {
+        final List<Query> queries = new ArrayList<>();
+        final List<UpdateDefinition> updates = new ArrayList<>();
+        final List<OptimizationJob> found = new ArrayList<>();
+        final Set<String> matching = new HashSet<>();
+        boolean returnedNew;
+
+        RecordingMongoTemplate() {
+            super(new UnusedDatabaseFactory());
+        }
+
+        @Override
+        public <T> T findAndModify(Query query, UpdateDefinition update, FindAndModifyOptions options, Class<T> entityClass) {
+            queries.add(query);
+            updates.add(update);
+            returnedNew = options.isReturnNew();
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> find(Query query, Class<T> entityClass) {
+            queries.add(query);
+            return (List<T>) found;
+        }
+
+        @Override
+        public UpdateResult updateFirst(Query query, UpdateDefinition update, Class<?> entityClass) {
+            queries.add(query);
+            updates.add(update);
+            long matched = matching.contains(query.getQueryObject().get("_id")) ? 1 : 0;
+            return UpdateResult.acknowledged(matched, matched, null);
+        }
+
+        @Override
+        public UpdateResult updateMulti(Query query, UpdateDefinition update, Class<?> entityClass) {
+            queries.add(query);
+            updates.add(update);
+            return UpdateResult.acknowledged(matching.size(), (long) matching.size(), null);
+        }
+    }
+
+    private static final class UnusedDatabaseFactory implements MongoDatabaseFactory {
+
+        @Override
+        public MongoDatabase getMongoDatabase() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MongoDatabase getMongoDatabase(String dbName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PersistenceExceptionTranslator getExceptionTranslator() {
+            return new MongoExceptionTranslator();
+        }
+
+        @Override
+        public CodecRegistry getCodecRegistry() {
+            return MongoClientSettings.getDefaultCodecRegistry();
+        }
+
+        @Override
+        public ClientSession getSession(ClientSessionOptions options) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MongoDatabaseFactory withSession(ClientSession session) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.llm.LlmBatchClient;
+import com.manoj.matchIQ.llm.LlmResult;
+import com.manoj.matchIQ.llm.PromptCompactor.CompactedPrompt;
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.LlmBatch;
+import com.manoj.matchIQ.model.LlmBatchStatus;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import com.manoj.matchIQ.repository.LlmBatchRepository;
+import com.manoj.matchIQ.repository.OptimizationJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchGenerationServiceTests {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+    private final Map<String, OptimizationJob> jobs = new LinkedHashMap<>();
+    private final Deque<OptimizationJob> pending = new ArrayDeque<>();
+    private final Map<String, LlmBatch> batches = new LinkedHashMap<>();
+    private final List<String> calls = new ArrayList<>();
+    private final StubBatchClient batchClient = new StubBatchClient();
+    private boolean failBatchSave;
+
+    private final BatchGenerationService service = new BatchGenerationService(jobRepository(), batchRepository(),
+            new StubOptimizationService(), batchClient, metrics, 5000, 60, 30, 26, MAX_ATTEMPTS);
+
+    @Test
+    void collectSubmitsTheClaimedJobsAsOneBatch() {
+        queue("job-1", "job-2");
+
+        service.collect();
+
+        assertThat(batchClient.submitted).extracting(LlmBatchClient.Item::customId).containsExactly(
+                "job-1:ats-bullets", "job-1:cover-letter", "job-2:ats-bullets", "job-2:cover-letter");
+        assertThat(batches.values()).singleElement().satisfies(batch -> {
+            assertThat(batch.getStatus()).isEqualTo(LlmBatchStatus.SUBMITTED);
+            assertThat(batch.getProviderBatchId()).isEqualTo("provider-1");
+            assertThat(batch.getJobIds()).containsExactly("job-1", "job-2");
+            assertThat(jobs.get("job-1").getLeaseOwner()).isEqualTo(batch.leaseOwner());
+        });
+        assertThat(calls).containsExactly("prepare:job-1", "prepare:job-2");
+    }
+
+    @Test
+    void collectRequeuesTheJobsWhenTheSubmissionFails() {
+        queue("job-1", "job-2");
+        batchClient.submitFails = true;
+
+        service.collect();
+
+        assertThat(batches).isEmpty();
+        assertThat(calls).containsExactly("prepare:job-1", "prepare:job-2", "release:job-1", "release:job-2");
+    }
+
+    @Test
+    void collectCancelsAProviderBatchItCouldNotRecord() {
+        queue("job-1");
+        failBatchSave = true;
+
+        service.collect();
+
+        assertThat(batchClient.cancelled).containsExactly("provider-1");
+        assertThat(calls).containsExactly("prepare:job-1", "release:job-1");
+    }
+
+    @Test
+    void collectKeepsTheJobsLeasedWhenAnUnrecordedBatchCannotBeCancelled() {
+        queue("job-1");
+        failBatchSave = true;
+        batchClient.cancelFails = true;
+
+        service.collect();
+
+        // job-1 still runs in the provider batch, so it must not be queued again
+        assertThat(calls).containsExactly("prepare:job-1");
+        assertThat(jobs.get("job-1").getStatus()).isEqualTo(OptimizationStatus.PROCESSING);
+    }
+
+    @Test
+    void pollWaitsForTheProviderToFinish() {
+        queue("job-1");
+        service.collect();
+        batchClient.status = new LlmBatchClient.BatchStatus("in_progress", false, null, null);
+
+        service.poll();
+
+        assertThat(batches.values()).singleElement().extracting(LlmBatch::getStatus).isEqualTo(LlmBatchStatus.SUBMITTED);
+        assertThat(calls).containsExactly("prepare:job-1");
+    }
+
+    @Test
+    void pollCompletesAnsweredJobsAndRequeuesOrFailsTheRest() {
+        queue("job-1", "job-2", "job-3");
+        service.collect();
+        jobs.get("job-3").setProcessingAttempts(MAX_ATTEMPTS);
+        calls.clear();
+        batchClient.results = Map.of(
+                "job-1:ats-bullets", result("bullets"), "job-1:cover-letter", result("letter"),
+                // job-2 only got half of its generations
+                "job-2:ats-bullets", result("bullets"));
+
+        service.poll();
+
+        assertThat(calls).containsExactly("complete:job-1", "release:job-2", "fail:job-3");
+        assertThat(batches.values()).singleElement().satisfies(batch -> {
+            assertThat(batch.getStatus()).isEqualTo(LlmBatchStatus.COLLECTED);
+            assertThat(batch.getProviderStatus()).isEqualTo("completed");
+            assertThat(batch.getCollectedAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void aFailedCollectionIsPolledAndCollectedAgain() {
+        queue("job-1");
+        service.collect();
+        calls.clear();
+        batchClient.resultsFail = true;
+
+        service.poll();
+
+        assertThat(batches.values()).singleElement().extracting(LlmBatch::getStatus).isEqualTo(LlmBatchStatus.SUBMITTED);
+        assertThat(calls).isEmpty();
+
+        batchClient.resultsFail = false;
+        batchClient.results = Map.of("job-1:ats-bullets", result("bullets"), "job-1:cover-letter", result("letter"));
+        service.poll();
+
+        assertThat(batches.values()).singleElement().extracting(LlmBatch::getStatus).isEqualTo(LlmBatchStatus.COLLECTED);
+        assertThat(calls).containsExactly("complete:job-1");
+    }
+
+    @Test
+    void batchesLeftCollectingByAStoppedNodeAreCollectedAgain() {
+        LlmBatch stalled = new LlmBatch();
+        stalled.setId("stalled");
+        stalled.setStatus(LlmBatchStatus.COLLECTING);
+        stalled.setCollectingSince(Instant.now().minusSeconds(3600));
+        stalled.setJobIds(List.of());
+        batches.put(stalled.getId(), stalled);
+        LlmBatch running = new LlmBatch();
+        running.setId("running");
+        running.setStatus(LlmBatchStatus.COLLECTING);
+        running.setCollectingSince(Instant.now());
+        batches.put(running.getId(), running);
+
+        service.poll();
+
+        assertThat(stalled.getStatus()).isEqualTo(LlmBatchStatus.COLLECTED);
+        assertThat(running.getStatus()).isEqualTo(LlmBatchStatus.COLLECTING);
+    }
+
+    private void queue(String... ids) {
+        for (String id : ids) {
+            OptimizationJob job = new OptimizationJob();
+            job.setId(id);
+            job.setPriority(JobPriority.BATCH);
+            job.setStatus(OptimizationStatus.PENDING);
+            job.setProcessingAttempts(0);
+            jobs.put(id, job);
+            pending.add(job);
+        }
+    }
+
+    private static LlmResult result(String content) {
+        return new LlmResult(content, 1, null, 100, 50, 0, "test-model");
+    }
+
+    /**
+     * Claims from {@link #pending} and records releases; every other method fails the test.
+     */
+    @SuppressWarnings("unchecked")
+    private OptimizationJobRepository jobRepository() {
+        return (OptimizationJobRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{OptimizationJobRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "claimNextPending" -> {
+                        assertThat(args[args.length - 1]).isEqualTo(JobPriority.BATCH);
+                        OptimizationJob job = pending.poll();
+                        if (job != null) {
+                            job.setStatus(OptimizationStatus.PROCESSING);
+                            job.setLeaseOwner((String) args[0]);
+                            job.setProcessingAttempts(job.getProcessingAttempts() + 1);
+                        }
+                        yield Optional.ofNullable(job);
+                    }
+                    case "releaseToPending" -> {
+                        calls.add("release:" + args[0]);
+                        OptimizationJob job = jobs.get((String) args[0]);
+                        job.setStatus(OptimizationStatus.PENDING);
+                        job.setLeaseOwner(null);
+                        yield true;
+                    }
+                    case "findAllById" -> {
+                        List<OptimizationJob> found = new ArrayList<>();
+                        ((Iterable<String>) args[0]).forEach(id -> found.add(jobs.get(id)));
+                        yield found;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Keeps the batches in {@link #batches}, with the status transitions of the real queries.
+     */
+    private LlmBatchRepository batchRepository() {
+        return (LlmBatchRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{LlmBatchRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> {
+                        if (failBatchSave) {
+                            throw new IllegalStateException("MongoDB unavailable");
+                        }
+                        LlmBatch batch = (LlmBatch) args[0];
+                        batches.put(batch.getId(), batch);
+                        yield batch;
+                    }
+                    case "findByStatus" -> batches.values().stream().filter(batch -> batch.getStatus() == args[0]).toList();
+                    case "startCollecting" -> {
+                        LlmBatch batch = batches.get((String) args[0]);
+                        if (batch.getStatus() != LlmBatchStatus.SUBMITTED) {
+                            yield 0L;
+                        }
+                        batch.setStatus(LlmBatchStatus.COLLECTING);
+                        batch.setProviderStatus((String) args[1]);
+                        batch.setCollectingSince((Instant) args[2]);
+                        yield 1L;
+                    }
+                    case "resumePolling" -> {
+                        batches.get((String) args[0]).setStatus(LlmBatchStatus.SUBMITTED);
+                        yield 1L;
+                    }
+                    case "resumeStalledCollections" -> {
+                        List<LlmBatch> stalled = batches.values().stream()
+                                .filter(batch -> batch.getStatus() == LlmBatchStatus.COLLECTING)
+                                .filter(batch -> batch.getCollectingSince().isBefore((Instant) args[0]))
+                                .toList();
+                        stalled.forEach(batch -> batch.setStatus(LlmBatchStatus.SUBMITTED));
+                        yield (long) stalled.size();
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Stands in for the pipeline stages around the batch; records which job went where.
+     */
+    private final class StubOptimizationService extends ResumeOptimizationService {
+
+        StubOptimizationService() {
+            super(null, null, null, null, null, null, null, null, metrics, null, null, null, 120, 0);
+        }
+
+        @Override
+        public Optional<CompactedPrompt> prepareForBatch(OptimizationJob job, String leaseOwner) {
+            calls.add("prepare:" + job.getId());
+            return Optional.of(new CompactedPrompt("Resume of " + job.getId(), "Posting", 10, 10));
+        }
+
+        @Override
+        public void completeFromBatch(OptimizationJob job, String leaseOwner, Instant submittedAt,
+                                      LlmResult bullets, LlmResult coverLetter) {
+            assertThat(leaseOwner).isEqualTo(job.getLeaseOwner());
+            calls.add("complete:" + job.getId());
+            job.setStatus(OptimizationStatus.COMPLETED);
+        }
+
+        @Override
+        public void failFromBatch(OptimizationJob job, String leaseOwner, Instant submittedAt, String errorMessage) {
+            calls.add("fail:" + job.getId());
+            job.setStatus(OptimizationStatus.FAILED);
+        }
+    }
+
+    /**
+     * A batch API that answers from fields instead of HTTP.
+     */
+    private final class StubBatchClient extends LlmBatchClient {
+        final List<Item> submitted = new ArrayList<>();
+        final List<String> cancelled = new ArrayList<>();
+        BatchStatus status = new BatchStatus("completed", true, "file-out", null);
+        Map<String, LlmResult> results = Map.of();
+        boolean submitFails;
+        boolean cancelFails;
+        boolean resultsFail;
+
+        StubBatchClient() {
+            super(new RestTemplateBuilder(), metrics, "http://127.0.0.1:1/v1", "key", "test-model", "24h", "classpath:prompts/");
+        }
+
+        @Override
+        public String submit(List<Item> items) {
+            if (submitFails) {
+                throw new IllegalStateException("upload failed");
+            }
+            submitted.addAll(items);
+            return "provider-1";
+        }
+
+        @Override
+        public void cancel(String batchId) {
+            if (cancelFails) {
+                throw new IllegalStateException("cancel failed");
+            }
+            cancelled.add(batchId);
+        }
+
+        @Override
+        public BatchStatus status(String batchId) {
+            return status;
+        }
+
+        @Override
+        public Map<String, LlmResult> results(String outputFileId) {
+            if (resultsFail) {
+                throw new IllegalStateException("download failed");
+            }
+            return results;
+        }
+    }
+}
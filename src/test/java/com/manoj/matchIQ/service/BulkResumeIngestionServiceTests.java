@@ -0,0 +1,191 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.dto.BulkUploadEntryResponse;
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import com.manoj.matchIQ.repository.OptimizationJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class BulkResumeIngestionServiceTests {
+
+    private static final SubmissionContext ACME = SubmissionContext.of("acme", JobPriority.BULK);
+
+    private final PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+    /** Size of every repo.insert call, in order. */
+    private final List<Integer> inserts = Collections.synchronizedList(new ArrayList<>());
+    private final List<BulkUploadEntryResponse> lines = new ArrayList<>();
+    private long pending;
+    private final ThreadPoolTaskExecutor parsingExecutor = new ThreadPoolTaskExecutor();
+
+    BulkResumeIngestionServiceTests() {
+        // one parsing thread, so entries are stored in archive order
+        parsingExecutor.setCorePoolSize(1);
+        parsingExecutor.setMaxPoolSize(1);
+        parsingExecutor.setQueueCapacity(1);
+        parsingExecutor.initialize();
+    }
+
+    @AfterEach
+    void shutDownExecutor() {
+        parsingExecutor.shutdown();
+    }
+
+    @Test
+    void storesParsedResumesInBatches() throws IOException {
+        service(0, 1000, 2).ingest(archive("a.txt", "b.txt", "c.txt", "d.txt", "e.txt"), "Backend engineer", List.of(), ACME, lines::add);
+
+        assertThat(inserts).containsExactly(2, 2, 1);
+        assertThat(lines).extracting(BulkUploadEntryResponse::file).containsExactly("a.txt", "b.txt", "c.txt", "d.txt", "e.txt");
+        assertThat(lines).allSatisfy(line -> {
+            assertThat(line.jobId()).isNotNull();
+            assertThat(line.status()).isEqualTo(OptimizationStatus.PENDING);
+        });
+    }
+
+    @Test
+    void rejectsTheEntriesOfABatchThatExceedTheTenantQueue() throws IOException {
+        pending = 1;
+
+        service(3, 1000, 10).ingest(archive("a.txt", "b.txt", "c.txt", "d.txt"), "Backend engineer", List.of(), ACME, lines::add);
+
+        // the PENDING count is read once and the batch's own jobs are added to it
+        assertThat(inserts).containsExactly(2);
+        assertThat(lines).filteredOn(line -> line.jobId() != null)
+                .extracting(BulkUploadEntryResponse::file).containsExactly("a.txt", "b.txt");
+        assertThat(lines).filteredOn(line -> line.error() != null).extracting(BulkUploadEntryResponse::file, BulkUploadEntryResponse::error)
+                .containsExactly(
+                        tuple("c.txt", "Tenant acme already has 3 optimizations queued"),
+                        tuple("d.txt", "Tenant acme already has 3 optimizations queued"));
+    }
+
+    @Test
+    void stopsAfterTheListenerFails() throws IOException {
+        Consumer<BulkUploadEntryResponse> disconnected = line -> {
+            lines.add(line);
+            throw new IllegalStateException("Broken pipe");
+        };
+
+        service(0, 1000, 1).ingest(archive("a.txt", "b.txt", "c.txt", "d.txt", "e.txt"), "Backend engineer", List.of(), ACME, disconnected);
+
+        // the stored job keeps running; nothing after it is parsed, stored or reported
+        assertThat(lines).extracting(BulkUploadEntryResponse::file).containsExactly("a.txt");
+        assertThat(inserts).containsExactly(1);
+    }
+
+    @Test
+    void reportsAnArchiveLongerThanTheLimit() throws IOException {
+        service(0, 100, 10).ingest(archive("a.txt", "b.txt", "c.txt"), "Backend engineer", List.of(), ACME, lines::add);
+
+        assertThat(lines).last().satisfies(line -> {
+            assertThat(line.file()).isNull();
+            assertThat(line.error()).isEqualTo("Could not read ZIP archive: Archive is larger than 100 bytes");
+        });
+
+        InputStream limited = new BulkResumeIngestionService.LimitedInputStream(new ByteArrayInputStream(new byte[10]), 8);
+        assertThat(limited.readNBytes(8)).hasSize(8);
+        assertThatThrownBy(limited::read).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void skipsArchiverMetadata() {
+        assertThat(BulkResumeIngestionService.isResumeEntry("jane.pdf")).isTrue();
+        assertThat(BulkResumeIngestionService.isResumeEntry("2024/backend/john.docx")).isTrue();
+        assertThat(BulkResumeIngestionService.isResumeEntry("__MACOSX/2024/._jane.pdf")).isFalse();
+        assertThat(BulkResumeIngestionService.isResumeEntry("2024/.DS_Store")).isFalse();
+        assertThat(BulkResumeIngestionService.isResumeEntry("2024/")).isFalse();
+    }
+
+    @Test
+    void readsEntriesUpToTheLimitAndMovesOnPastLargerOnes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("big.txt"));
+            zip.write("x".repeat(1000).getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("small.txt"));
+            zip.write("Java developer".getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("exact.txt"));
+            zip.write("y".repeat(100).getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertThat(zip.getNextEntry().getName()).isEqualTo("big.txt");
+            assertThat(BulkResumeIngestionService.readEntry(zip, 100)).isNull();
+
+            assertThat(zip.getNextEntry().getName()).isEqualTo("small.txt");
+            assertThat(new String(BulkResumeIngestionService.readEntry(zip, 100), StandardCharsets.UTF_8))
+                    .isEqualTo("Java developer");
+
+            assertThat(zip.getNextEntry().getName()).isEqualTo("exact.txt");
+            assertThat(BulkResumeIngestionService.readEntry(zip, 100)).hasSize(100);
+            assertThat(zip.getNextEntry()).isNull();
+        }
+    }
+
+    private BulkResumeIngestionService service(long tenantQueueLimit, long maxArchiveBytes, int insertBatchSize) {
+        OptimizationJobRepository repo = repository();
+        ResumeOptimizationService optimizationService = new ResumeOptimizationService(repo, null, null, null, null, null,
+                null, null, metrics, new JobCoalescer(repo, new JobStatusNotifier(), true, false), null,
+                new DefaultListableBeanFactory().getBeanProvider(OptimizationJobWorker.class), 120, tenantQueueLimit);
+        return new BulkResumeIngestionService(new DocumentParsingService(metrics), optimizationService, repo,
+                parsingExecutor, metrics, maxArchiveBytes, DocumentParsingService.MAX_FILE_SIZE, 1000, insertBatchSize);
+    }
+
+    /**
+     * Answers the PENDING count and records bulk inserts; every other repository method fails
+     * the test.
+     */
+    @SuppressWarnings("unchecked")
+    private OptimizationJobRepository repository() {
+        return (OptimizationJobRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{OptimizationJobRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "countPending" -> pending;
+                    case "insert" -> {
+                        List<OptimizationJob> jobs = new ArrayList<>();
+                        ((Iterable<OptimizationJob>) args[0]).forEach(jobs::add);
+                        jobs.forEach(job -> job.setId(UUID.randomUUID().toString()));
+                        inserts.add(jobs.size());
+                        yield jobs;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * A ZIP with one resume per name, each with its own text so that none is coalesced.
+     */
+    private static InputStream archive(String... names) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (String name : names) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write(("Java developer " + name).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,48 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.repository.JobFlowCount;
+import com.manoj.matchIQ.service.FairShareScheduler.Flow;
+import com.manoj.matchIQ.service.FairShareScheduler.Round;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FairShareSchedulerTests {
+
+    @Test
+    void sharesWorkersByPriorityWeight() {
+        FairShareScheduler scheduler = new FairShareScheduler(8, 2, 1, 1000);
+        Round round = scheduler.newRound(List.of(
+                new JobFlowCount("agency", JobPriority.BULK, 500, 0),
+                new JobFlowCount("alice", JobPriority.INTERACTIVE, 500, 0)));
+
+        Map<JobPriority, Integer> served = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            Flow flow = round.next().orElseThrow();
+            served.merge(flow.priority(), 1, Integer::sum);
+        }
+
+        assertThat(served.get(JobPriority.INTERACTIVE)).isEqualTo(80);
+        assertThat(served.get(JobPriority.BULK)).isEqualTo(20);
+    }
+
+    @Test
+    void skipsTenantsAtTheirConcurrencyLimit() {
+        FairShareScheduler scheduler = new FairShareScheduler(8, 2, 1, 2);
+        Round round = scheduler.newRound(List.of(
+                new JobFlowCount("busy", JobPriority.INTERACTIVE, 50, 1),
+                new JobFlowCount("quiet", JobPriority.BATCH, 1, 0)));
+
+        assertThat(round.next()).contains(new Flow("busy", JobPriority.INTERACTIVE));
+        assertThat(round.next()).contains(new Flow("quiet", JobPriority.BATCH));
+        Optional<Flow> none = round.next();
+
+        assertThat(none).isEmpty();
+    }
+}
@@ -0,0 +1,144 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.dto.OptimizationRequest;
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import com.manoj.matchIQ.repository.OptimizationJobRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobCoalescerTests {
+
+    private static final OptimizationRequest REQUEST = new OptimizationRequest("Java developer", "Backend engineer");
+    private static final SubmissionContext ACME = SubmissionContext.of("acme", JobPriority.INTERACTIVE);
+
+    private final JobStatusNotifier notifier = new JobStatusNotifier();
+    private final List<String> calls = new ArrayList<>();
+    private Optional<OptimizationJob> storedLeader = Optional.empty();
+    private final JobCoalescer coalescer = new JobCoalescer(repository(), notifier, true, false);
+
+    @Test
+    void keySeparatesTenantsAndPriorities() {
+        String key = JobCoalescer.contentKey(REQUEST, ACME);
+
+        assertThat(JobCoalescer.contentKey(new OptimizationRequest(" Java developer\n", "Backend engineer"), ACME))
+                .isEqualTo(key);
+        assertThat(JobCoalescer.contentKey(REQUEST, SubmissionContext.of("globex", JobPriority.INTERACTIVE)))
+                .isNotEqualTo(key);
+        assertThat(JobCoalescer.contentKey(REQUEST, SubmissionContext.of("acme", JobPriority.BATCH)))
+                .isNotEqualTo(key);
+        assertThat(JobCoalescer.contentKey(new OptimizationRequest("Java developer", "Frontend engineer"), ACME))
+                .isNotEqualTo(key);
+    }
+
+    @Test
+    void followsOnlyALeaderOfTheSameTenantAndPriority() {
+        coalescer.registerLeader(leader("leader-1", OptimizationStatus.PROCESSING));
+
+        assertThat(coalescer.findLeader(JobCoalescer.contentKey(REQUEST, ACME))).contains("leader-1");
+        assertThat(coalescer.findLeader(JobCoalescer.contentKey(REQUEST, SubmissionContext.of("globex", JobPriority.INTERACTIVE))))
+                .isEmpty();
+        // an interactive submission never waits behind a BATCH job, nor the other way round
+        assertThat(coalescer.findLeader(JobCoalescer.contentKey(REQUEST, SubmissionContext.of("acme", JobPriority.BATCH))))
+                .isEmpty();
+        assertThat(new JobCoalescer(repository(), notifier, false, false).findLeader(JobCoalescer.contentKey(REQUEST, ACME)))
+                .isEmpty();
+    }
+
+    @Test
+    void completedLeaderCompletesAndNotifiesItsFollowers() {
+        OptimizationJob leader = leader("leader-1", OptimizationStatus.COMPLETED);
+        leader.setAtsScore(87);
+        coalescer.registerLeader(leader);
+        List<OptimizationResultResponse> received = new ArrayList<>();
+        notifier.subscribe("follower-1", received::add);
+
+        assertThat(coalescer.onLeaderFinished(leader)).isFalse();
+
+        assertThat(calls).containsExactly("completeFollowers:leader-1");
+        assertThat(received).singleElement().satisfies(result -> {
+            assertThat(result.id()).isEqualTo("follower-1");
+            assertThat(result.status()).isEqualTo(OptimizationStatus.COMPLETED);
+            assertThat(result.atsScore()).isEqualTo(87);
+        });
+        assertThat(coalescer.findLeader(leader.getContentKey())).isEmpty();
+    }
+
+    @Test
+    void failedLeaderDetachesItsFollowers() {
+        OptimizationJob leader = leader("leader-1", OptimizationStatus.FAILED);
+        coalescer.registerLeader(leader);
+
+        assertThat(coalescer.onLeaderFinished(leader)).isTrue();
+
+        assertThat(calls).containsExactly("detachFollowers:leader-1");
+        assertThat(coalescer.findLeader(leader.getContentKey())).isEmpty();
+    }
+
+    @Test
+    void followerStoredAfterItsLeaderFinishedIsCompletedRightAway() {
+        storedLeader = Optional.of(leader("leader-1", OptimizationStatus.COMPLETED));
+        OptimizationJob follower = follower("follower-2", "leader-1");
+        List<OptimizationResultResponse> received = new ArrayList<>();
+        notifier.subscribe("follower-2", received::add);
+
+        assertThat(coalescer.afterFollowerSaved(follower)).isFalse();
+
+        assertThat(calls).containsExactly("completeFollower:follower-2");
+        assertThat(received).extracting(OptimizationResultResponse::status).containsExactly(OptimizationStatus.COMPLETED);
+    }
+
+    @Test
+    void followerOfARunningLeaderKeepsWaiting() {
+        storedLeader = Optional.of(leader("leader-1", OptimizationStatus.PROCESSING));
+
+        assertThat(coalescer.afterFollowerSaved(follower("follower-2", "leader-1"))).isFalse();
+        assertThat(calls).isEmpty();
+    }
+
+    private static OptimizationJob leader(String id, OptimizationStatus status) {
+        OptimizationJob job = new OptimizationJob();
+        job.setId(id);
+        job.setStatus(status);
+        job.setContentKey(JobCoalescer.contentKey(REQUEST, ACME));
+        return job;
+    }
+
+    private static OptimizationJob follower(String id, String leaderId) {
+        OptimizationJob job = leader(id, OptimizationStatus.PENDING);
+        job.setCoalescedWith(leaderId);
+        return job;
+    }
+
+    /**
+     * Answers the follower hand-off calls the coalescer makes and records them; every other
+     * repository method fails the test.
+     */
+    private OptimizationJobRepository repository() {
+        return (OptimizationJobRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{OptimizationJobRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> storedLeader;
+                    case "completeFollowers" -> {
+                        calls.add("completeFollowers:" + ((OptimizationJob) args[0]).getId());
+                        yield List.of("follower-1");
+                    }
+                    case "completeFollower" -> {
+                        calls.add("completeFollower:" + args[0]);
+                        yield true;
+                    }
+                    case "detachFollowers" -> {
+                        calls.add("detachFollowers:" + args[0]);
+                        yield 1L;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
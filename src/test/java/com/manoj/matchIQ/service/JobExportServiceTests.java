@@ -0,0 +1,132 @@
+package com.manoj.matchIQ.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.mongodb.MongoClientSettings;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JobExportServiceTests {
+
+    private static final TenantPrincipal ACME = new TenantPrincipal("acme", JobPriority.INTERACTIVE, false);
+    private static final TenantPrincipal ANALYTICS = new TenantPrincipal("acme", JobPriority.INTERACTIVE, true);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    // prepare() only validates and builds the query, MongoDB is not used
+    private final JobExportService service = new JobExportService(null, mapper, 500);
+
+    @Test
+    void writesRequestedFieldsWithAContinuationCursor() throws IOException {
+        ObjectId id = new ObjectId();
+        Instant createdAt = Instant.parse("2024-05-01T08:12:44.120Z");
+        Document job = new Document("_id", id)
+                .append("status", "COMPLETED")
+                .append("atsScore", 82)
+                .append("createdAt", Date.from(createdAt))
+                .append("stageTimings", List.of(new Document("stage", "scoring").append("durationMs", 3L)));
+
+        StringWriter out = new StringWriter();
+        try (JsonGenerator json = mapper.getFactory().createGenerator(out)) {
+            JobExportService.writeLine(json, job, List.of("id", "status", "atsScore", "semanticScore", "stageTimings"));
+        }
+
+        assertThat(out.toString()).endsWith("\n");
+        JsonNode line = mapper.readTree(out.toString());
+        assertThat(line.get("id").asText()).isEqualTo(id.toHexString());
+        assertThat(line.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(line.get("atsScore").asInt()).isEqualTo(82);
+        assertThat(line.has("semanticScore")).isFalse();
+        assertThat(line.has("createdAt")).isFalse();
+        assertThat(line.get("stageTimings").get(0).get("durationMs").asLong()).isEqualTo(3L);
+
+        JobExportService.ExportCursor cursor = JobExportService.ExportCursor.decode(line.get("cursor").asText());
+        assertThat(cursor.createdAt()).isEqualTo(createdAt);
+        assertThat(cursor.id()).isEqualTo(id);
+    }
+
+    @Test
+    void rejectsUnknownFieldsAndMalformedTokens() {
+        assertThatThrownBy(() -> service.prepare(new JobExportQuery(null, null, null, List.of("id", "leaseOwner"), null, 0), ANALYTICS))
+                .isInstanceOf(InvalidExportQueryException.class)
+                .hasMessageContaining("leaseOwner");
+        assertThatThrownBy(() -> service.prepare(new JobExportQuery(null, null, null, null, "not a token", 0), ACME))
+                .isInstanceOf(InvalidExportQueryException.class);
+        Instant now = Instant.now();
+        assertThatThrownBy(() -> service.prepare(new JobExportQuery(null, now, now, null, null, 0), ACME))
+                .isInstanceOf(InvalidExportQueryException.class);
+        assertThat(service.prepare(new JobExportQuery(null, null, now, List.of(" id", "status "), null, 10), ACME)).isNotNull();
+    }
+
+    @Test
+    void exportsOnlyTheCallersJobs() throws IOException {
+        List<Query> queries = new ArrayList<>();
+        JobExportService recording = new JobExportService(new MongoTemplate(unusedDatabaseFactory()) {
+            @Override
+            public <T> Stream<T> stream(Query query, Class<T> entityType, String collectionName) {
+                queries.add(query);
+                return Stream.empty();
+            }
+        }, mapper, 500);
+
+        JobExportQuery all = new JobExportQuery(null, null, null, null, null, 0);
+        recording.prepare(all, ACME).writeTo(new ByteArrayOutputStream());
+        recording.prepare(all, new TenantPrincipal(OptimizationJob.DEFAULT_TENANT, JobPriority.INTERACTIVE, false))
+                .writeTo(new ByteArrayOutputStream());
+
+        assertThat(tenantIds(queries.get(0))).containsExactly("acme");
+        // jobs stored before tenants existed belong to the default tenant
+        assertThat(tenantIds(queries.get(1))).containsExactly(OptimizationJob.DEFAULT_TENANT, null);
+    }
+
+    @Test
+    void contentFieldsNeedAnAnalyticsTenant() {
+        for (String field : JobExportService.CONTENT_FIELDS) {
+            JobExportQuery query = new JobExportQuery(null, null, null, List.of("id", field), null, 0);
+            assertThatThrownBy(() -> service.prepare(query, ACME))
+                    .isInstanceOf(AccessDeniedException.class)
+                    .hasMessageContaining(field);
+            assertThat(service.prepare(query, ANALYTICS)).isNotNull();
+        }
+        assertThat(JobExportService.DEFAULT_FIELDS).doesNotContainAnyElementsOf(JobExportService.CONTENT_FIELDS);
+    }
+
+    private static List<Object> tenantIds(Query query) {
+        List<?> conditions = (List<?>) query.getQueryObject().get("$and");
+        Document tenant = (Document) ((Document) conditions.get(0)).get("tenantId");
+        return tenant.getList("$in", Object.class);
+    }
+
+    /**
+     * Enough for a {@link MongoTemplate} that never reaches MongoDB.
+     */
+    private static MongoDatabaseFactory unusedDatabaseFactory() {
+        return (MongoDatabaseFactory) Proxy.newProxyInstance(JobExportServiceTests.class.getClassLoader(),
+                new Class<?>[]{MongoDatabaseFactory.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getExceptionTranslator" -> new MongoExceptionTranslator();
+                    case "getCodecRegistry" -> MongoClientSettings.getDefaultCodecRegistry();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
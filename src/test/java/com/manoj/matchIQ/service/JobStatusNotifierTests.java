@@ -0,0 +1,82 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobStatusNotifierTests {
+
+    private final JobStatusNotifier notifier = new JobStatusNotifier();
+
+    @Test
+    void deliversUpdatesUntilTheTerminalOne() {
+        List<OptimizationStatus> received = new ArrayList<>();
+        JobStatusNotifier.Subscription subscription = notifier.subscribe("job-1", update -> received.add(update.status()));
+        notifier.subscribe("job-2", update -> received.add(null));
+
+        notifier.publish(update("job-1", OptimizationStatus.PROCESSING));
+        notifier.publish(update("job-1", OptimizationStatus.COMPLETED));
+
+        assertThat(received).containsExactly(OptimizationStatus.PROCESSING, OptimizationStatus.COMPLETED);
+        assertThat(notifier.hasSubscribers("job-1")).isFalse();
+        assertThat(notifier.hasSubscribers("job-2")).isTrue();
+        subscription.close();
+    }
+
+    @Test
+    void closedSubscriptionsReceiveNothing() {
+        List<OptimizationStatus> received = new ArrayList<>();
+        notifier.subscribe("job-1", update -> received.add(update.status())).close();
+
+        notifier.publish(update("job-1", OptimizationStatus.PROCESSING));
+
+        assertThat(received).isEmpty();
+        assertThat(notifier.hasSubscribers("job-1")).isFalse();
+    }
+
+    @Test
+    void aFailingListenerDoesNotStopTheOthers() {
+        List<OptimizationStatus> received = new ArrayList<>();
+        notifier.subscribe("job-1", update -> {
+            throw new IllegalStateException("client went away");
+        });
+        notifier.subscribe("job-1", update -> received.add(update.status()));
+
+        notifier.publish(update("job-1", OptimizationStatus.PROCESSING));
+
+        assertThat(received).containsExactly(OptimizationStatus.PROCESSING);
+    }
+
+    @Test
+    void filterFollowsARequeuedJob() {
+        JobStatusNotifier.UpdateFilter filter = new JobStatusNotifier.UpdateFilter();
+
+        assertThat(filter.accept(update("job-1", OptimizationStatus.PROCESSING), false)).isTrue();
+        // the lease expired and the sweeper put the job back in the queue
+        assertThat(filter.accept(update("job-1", OptimizationStatus.PENDING), false)).isTrue();
+        assertThat(filter.accept(update("job-1", OptimizationStatus.PROCESSING), false)).isTrue();
+        assertThat(filter.accept(update("job-1", OptimizationStatus.PROCESSING), false)).isFalse();
+        assertThat(filter.accept(update("job-1", OptimizationStatus.COMPLETED), false)).isTrue();
+        assertThat(filter.accept(update("job-1", OptimizationStatus.FAILED), false)).isFalse();
+    }
+
+    @Test
+    void filterDropsTheSnapshotOnceALiveUpdateWentOut() {
+        JobStatusNotifier.UpdateFilter first = new JobStatusNotifier.UpdateFilter();
+        assertThat(first.accept(update("job-1", OptimizationStatus.PENDING), true)).isTrue();
+        assertThat(first.accept(update("job-1", OptimizationStatus.PROCESSING), false)).isTrue();
+
+        JobStatusNotifier.UpdateFilter raced = new JobStatusNotifier.UpdateFilter();
+        assertThat(raced.accept(update("job-1", OptimizationStatus.PROCESSING), false)).isTrue();
+        assertThat(raced.accept(update("job-1", OptimizationStatus.PENDING), true)).isFalse();
+    }
+
+    static OptimizationResultResponse update(String id, OptimizationStatus status) {
+        return new OptimizationResultResponse(id, status, null, null, null, null, null, null, null);
+    }
+}
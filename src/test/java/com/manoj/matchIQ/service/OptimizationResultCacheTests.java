@@ -0,0 +1,42 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OptimizationResultCacheTests {
+
+    private final OptimizationResultCache cache = new OptimizationResultCache(10);
+
+    @Test
+    void etagOfACachedResultMatchesTheOneComputedFromTheStoredVersion() {
+        // saved in memory with microseconds, read back from MongoDB with milliseconds
+        Instant updatedAt = Instant.parse("2024-05-01T08:12:44.120456Z");
+        OptimizationResultCache.Entry entry = cache.put(result("job-1", OptimizationStatus.COMPLETED), updatedAt);
+
+        String stored = OptimizationResultCache.etag("job-1", OptimizationStatus.COMPLETED,
+                updatedAt.truncatedTo(ChronoUnit.MILLIS));
+        assertThat(entry.etag()).isEqualTo(stored);
+        assertThat(entry.matches("W/" + stored)).isTrue();
+        assertThat(OptimizationResultCache.matches("\"other\", " + stored, stored)).isTrue();
+        assertThat(OptimizationResultCache.etag("job-1", OptimizationStatus.FAILED, updatedAt)).isNotEqualTo(stored);
+        assertThat(OptimizationResultCache.etag("job-2", OptimizationStatus.COMPLETED, updatedAt)).isNotEqualTo(stored);
+    }
+
+    @Test
+    void onlyCachesTerminalResultsWithAKnownVersion() {
+        assertThat(cache.put(result("job-1", OptimizationStatus.PROCESSING), Instant.now())).isNull();
+        assertThat(cache.put(result("job-1", OptimizationStatus.COMPLETED), null)).isNull();
+        assertThat(cache.get("job-1")).isNull();
+    }
+
+    private static OptimizationResultResponse result(String id, OptimizationStatus status) {
+        return new OptimizationResultResponse(id, status, 80, 60, List.of("java"), "bullets", "letter", null, null);
+    }
+}
@@ -0,0 +1,146 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.dto.OptimizationResultResponse;
+import com.manoj.matchIQ.llm.LlmResult;
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import com.manoj.matchIQ.model.JobPriority;
+import com.manoj.matchIQ.model.OptimizationJob;
+import com.manoj.matchIQ.model.OptimizationStatus;
+import com.manoj.matchIQ.model.PipelineStage;
+import com.manoj.matchIQ.model.StageTiming;
+import com.manoj.matchIQ.repository.OptimizationJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ResumeOptimizationServiceTests {
+
+    private final Map<String, OptimizationJob> stored = new LinkedHashMap<>();
+    private final List<OptimizationJob> saved = new ArrayList<>();
+    private final List<StageTiming> appendedTimings = new ArrayList<>();
+    private final JobStatusNotifier notifier = new JobStatusNotifier();
+    private final ResumeOptimizationService service = service();
+
+    @Test
+    void rerunsAJobOfTheSameTenant() {
+        store("job-1", "acme");
+
+        OptimizationJob rerun = service.rerun("job-1", PipelineStage.BULLETS, new SubmissionContext("acme", JobPriority.INTERACTIVE));
+
+        assertThat(rerun.getRerunOf()).isEqualTo("job-1");
+        assertThat(rerun.getTenantId()).isEqualTo("acme");
+        assertThat(rerun.getResumeText()).isEqualTo("Resume of job-1");
+        assertThat(saved).containsExactly(rerun);
+    }
+
+    @Test
+    void refusesToRerunAnotherTenantsJob() {
+        store("job-1", "acme");
+        store("legacy", null);
+
+        assertThatThrownBy(() -> service.rerun("job-1", PipelineStage.BULLETS, new SubmissionContext("globex", JobPriority.INTERACTIVE)))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessage("Optimization job not found with id: job-1");
+        assertThatThrownBy(() -> service.rerun("legacy", PipelineStage.BULLETS, new SubmissionContext("globex", JobPriority.INTERACTIVE)))
+                .isInstanceOf(NoSuchElementException.class);
+        assertThat(saved).isEmpty();
+    }
+
+    @Test
+    void jobsWithoutATenantBelongToTheDefaultTenant() {
+        store("legacy", null);
+
+        OptimizationJob rerun = service.rerun("legacy", PipelineStage.SCORING, SubmissionContext.DEFAULT);
+
+        assertThat(rerun.getRerunOf()).isEqualTo("legacy");
+    }
+
+    @Test
+    void completionStoresTheStageTimingsWithTheJob() {
+        OptimizationJob job = new OptimizationJob();
+        job.setId("job-1");
+        job.setStatus(OptimizationStatus.PROCESSING);
+        job.setLeaseOwner("batch:1");
+        job.addStageTiming(StageTiming.between(PipelineMetrics.STAGE_QUEUE_WAIT,
+                Instant.parse("2024-05-01T08:00:00Z"), Instant.parse("2024-05-01T08:00:02Z")));
+        List<OptimizationResultResponse> published = new ArrayList<>();
+        notifier.subscribe("job-1", published::add);
+
+        service.completeFromBatch(job, "batch:1", Instant.now().minusSeconds(60),
+                new LlmResult("- bullet", 1, null, 120, 40, 100, "model-a"),
+                new LlmResult("Dear team", 1, null, 130, 90, 0, "model-a"));
+
+        OptimizationJob written = saved.get(0);
+        assertThat(written.getStatus()).isEqualTo(OptimizationStatus.COMPLETED);
+        assertThat(written.getLeaseOwner()).isNull();
+        assertThat(written.getStageTimings()).extracting(StageTiming::getStage).containsExactly(
+                PipelineMetrics.STAGE_QUEUE_WAIT, PipelineMetrics.STAGE_BULLETS, PipelineMetrics.STAGE_COVER_LETTER);
+        assertThat(written.getStageTimings().get(0).getDurationMs()).isEqualTo(2000);
+        assertThat(written.getStageTimings().get(1)).satisfies(bullets -> {
+            assertThat(bullets.getDurationMs()).isGreaterThanOrEqualTo(60_000);
+            assertThat(bullets.getPromptTokens()).isEqualTo(120);
+            assertThat(bullets.getCachedTokens()).isEqualTo(100);
+            assertThat(bullets.getCacheHit()).isTrue();
+        });
+        // the final write cannot contain its own duration, so it is pushed afterwards
+        assertThat(appendedTimings).singleElement().satisfies(persistence -> {
+            assertThat(persistence.getStage()).isEqualTo(PipelineMetrics.STAGE_PERSISTENCE);
+            assertThat(persistence.getOutcome()).isEqualTo("success");
+            assertThat(persistence.getDurationMs()).isNotNull();
+        });
+        assertThat(published).extracting(OptimizationResultResponse::status).containsExactly(OptimizationStatus.COMPLETED);
+    }
+
+    private void store(String id, String tenantId) {
+        OptimizationJob job = new OptimizationJob();
+        job.setId(id);
+        job.setTenantId(tenantId);
+        job.setStatus(OptimizationStatus.COMPLETED);
+        job.setResumeText("Resume of " + id);
+        job.setJobDescription("Java engineer");
+        stored.put(id, job);
+    }
+
+    private ResumeOptimizationService service() {
+        OptimizationJobRepository repo = (OptimizationJobRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{OptimizationJobRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(stored.get((String) args[0]));
+                    case "save" -> {
+                        OptimizationJob job = (OptimizationJob) args[0];
+                        job.setId("rerun-" + saved.size());
+                        saved.add(job);
+                        yield job;
+                    }
+                    case "saveIfLeaseHeld" -> {
+                        OptimizationJob job = (OptimizationJob) args[0];
+                        // the stored copy, not the one the service keeps changing
+                        OptimizationJob copy = new OptimizationJob();
+                        copy.setId(job.getId());
+                        copy.setStatus(job.getStatus());
+                        copy.setLeaseOwner(job.getLeaseOwner());
+                        job.getStageTimings().forEach(copy::addStageTiming);
+                        saved.add(copy);
+                        yield true;
+                    }
+                    case "appendStageTiming" -> appendedTimings.add((StageTiming) args[1]);
+                    case "completeFollowers" -> List.of();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+        return new ResumeOptimizationService(repo, null, null, null, null, null, notifier,
+                new OptimizationResultCache(10), metrics, new JobCoalescer(repo, notifier, true, false), null,
+                new DefaultListableBeanFactory().getBeanProvider(OptimizationJobWorker.class), 120, 0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.dto.OptimizationRequest;
+import com.manoj.matchIQ.dto.ScoreResponse;
+import com.manoj.matchIQ.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ScoreOnlyServiceTests {
+
+    private static final OptimizationRequest REQUEST = new OptimizationRequest(
+            "Software engineer building Java and Spring Boot services on AWS.",
+            "We are looking for a software engineer with Java, Spring Boot and AWS experience.");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PipelineMetrics metrics = new PipelineMetrics(registry);
+
+    @Test
+    void scoresOnTheScoringExecutor() throws Exception {
+        ThreadPoolTaskExecutor executor = executor(1, 10);
+        try {
+            ScoreResponse response = service(executor).score(REQUEST).get(5, TimeUnit.SECONDS);
+
+            assertThat(response.extractedKeywords()).contains("java", "spring", "aws");
+            assertThat(response.atsScore()).isEqualTo(new KeywordScoringService()
+                    .calculateAtsScore(REQUEST.resumeText(), response.extractedKeywords()));
+            assertThat(response.semanticScore()).isEqualTo(new SemanticScoringService(1024)
+                    .calculateSemanticScore(REQUEST.resumeText(), REQUEST.jobDescription()));
+            assertThat(registry.get("matchiq.score.request").tag("outcome", "success").timer().count()).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsWhenTheScoringExecutorIsFull() throws Exception {
+        ThreadPoolTaskExecutor executor = executor(1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            assertThatThrownBy(() -> service(executor).score(REQUEST)).isInstanceOf(TaskRejectedException.class);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private ScoreOnlyService service(ThreadPoolTaskExecutor executor) {
+        return new ScoreOnlyService(new KeywordExtractionService(), new KeywordScoringService(),
+                new SemanticScoringService(1024), executor, metrics);
+    }
+
+    private static ThreadPoolTaskExecutor executor(int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,122 @@
+package com.manoj.matchIQ.service;
+
+import com.manoj.matchIQ.model.PipelineStage;
+import com.manoj.matchIQ.model.StageMemo;
+import com.manoj.matchIQ.repository.StageMemoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StageMemoStoreTests {
+
+    private static final String PROMPTS = "classpath:prompts/";
+
+    // extraction and scoring are memoized in memory only, so no repository is needed
+    private final StageMemoStore store = new StageMemoStore(null, true, 2, "", "model-a", PROMPTS);
+
+    @Test
+    void rerunFromAStageIncludesEverythingDownstream() {
+        assertThat(PipelineStage.EXTRACTION.withDownstream()).containsExactly(PipelineStage.EXTRACTION,
+                PipelineStage.SCORING, PipelineStage.PROMPT_PREP, PipelineStage.BULLETS, PipelineStage.COVER_LETTER);
+        assertThat(PipelineStage.SIMILARITY.withDownstream()).containsExactly(PipelineStage.SIMILARITY);
+        assertThat(PipelineStage.SCORING.withDownstream()).containsExactly(PipelineStage.SCORING);
+        assertThat(PipelineStage.PROMPT_PREP.withDownstream())
+                .containsExactly(PipelineStage.PROMPT_PREP, PipelineStage.BULLETS, PipelineStage.COVER_LETTER);
+        assertThat(PipelineStage.COVER_LETTER.withDownstream()).containsExactly(PipelineStage.COVER_LETTER);
+    }
+
+    @Test
+    void inputHashDependsOnStageInputsAndLlmKey() {
+        String bullets = store.inputHash(PipelineStage.BULLETS, "resume", "posting");
+
+        assertThat(store.inputHash(PipelineStage.BULLETS, "resume", "posting")).isEqualTo(bullets);
+        assertThat(store.inputHash(PipelineStage.COVER_LETTER, "resume", "posting")).isNotEqualTo(bullets);
+        assertThat(store.inputHash(PipelineStage.BULLETS, "resume!", "posting")).isNotEqualTo(bullets);
+        // input boundaries count: ("ab", "c") is not ("a", "bc")
+        assertThat(store.inputHash(PipelineStage.BULLETS, "resumep", "osting")).isNotEqualTo(bullets);
+        assertThat(new StageMemoStore(null, true, 2, "v2", "model-a", PROMPTS).inputHash(PipelineStage.BULLETS, "resume", "posting"))
+                .isNotEqualTo(bullets);
+        assertThat(new StageMemoStore(null, true, 2, "v2", "model-a", PROMPTS).inputHash(PipelineStage.SCORING, "resume"))
+                .isEqualTo(store.inputHash(PipelineStage.SCORING, "resume"));
+    }
+
+    @Test
+    void keepsTheMostRecentlyUsedMemos() {
+        String first = store.inputHash(PipelineStage.EXTRACTION, "posting one");
+        String second = store.inputHash(PipelineStage.EXTRACTION, "posting two");
+        String third = store.inputHash(PipelineStage.EXTRACTION, "posting three");
+        store.put(PipelineStage.EXTRACTION, first, StageMemo.ofKeywords(List.of("java")));
+        store.put(PipelineStage.EXTRACTION, second, StageMemo.ofKeywords(List.of("go")));
+        store.get(PipelineStage.EXTRACTION, first);
+        store.put(PipelineStage.EXTRACTION, third, StageMemo.ofKeywords(List.of("rust")));
+
+        assertThat(store.get(PipelineStage.EXTRACTION, first)).get()
+                .extracting(StageMemo::getKeywords).isEqualTo(List.of("java"));
+        assertThat(store.get(PipelineStage.EXTRACTION, second)).isEmpty();
+        assertThat(store.get(PipelineStage.SCORING, first)).isEmpty();
+    }
+
+    @Test
+    void disabledStoreNeverHits() {
+        StageMemoStore disabled = new StageMemoStore(null, false, 2, "", "model-a", PROMPTS);
+        String hash = disabled.inputHash(PipelineStage.SCORING, "resume");
+        disabled.put(PipelineStage.SCORING, hash, StageMemo.ofScore(80));
+
+        assertThat(disabled.get(PipelineStage.SCORING, hash)).isEmpty();
+    }
+
+    @Test
+    void inputHashChangesWithThePromptTemplate(@TempDir Path prompts) throws IOException {
+        Files.writeString(prompts.resolve("ats-bullets.txt"), "Write 5 bullets.\n---\n{{jobDescription}}\n{{resume}}");
+        Files.writeString(prompts.resolve("cover-letter.txt"), "Write a letter.\n---\n{{jobDescription}}\n{{resume}}");
+        String location = prompts.toUri().toString();
+        StageMemoStore edited = new StageMemoStore(null, true, 2, "", "model-a", location);
+
+        assertThat(edited.inputHash(PipelineStage.BULLETS, "resume", "posting"))
+                .isNotEqualTo(store.inputHash(PipelineStage.BULLETS, "resume", "posting"));
+        assertThat(edited.inputHash(PipelineStage.COVER_LETTER, "resume", "posting"))
+                .isNotEqualTo(store.inputHash(PipelineStage.COVER_LETTER, "resume", "posting"));
+        assertThat(edited.inputHash(PipelineStage.EXTRACTION, "posting"))
+                .isEqualTo(store.inputHash(PipelineStage.EXTRACTION, "posting"));
+    }
+
+    @Test
+    void servesOnlyGenerationsOfTheConfiguredModel() {
+        Map<String, StageMemo> saved = new HashMap<>();
+        StageMemoRepository repo = (StageMemoRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StageMemoRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> {
+                        StageMemo memo = (StageMemo) args[0];
+                        saved.put(memo.getId(), memo);
+                        yield memo;
+                    }
+                    case "findById" -> Optional.ofNullable(saved.get((String) args[0]));
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        StageMemoStore writer = new StageMemoStore(repo, true, 10, "", "model-a", PROMPTS);
+        StageMemoStore reader = new StageMemoStore(repo, true, 10, "", "model-a", PROMPTS);
+        String failedOver = writer.inputHash(PipelineStage.BULLETS, "resume", "posting one");
+        String primary = writer.inputHash(PipelineStage.BULLETS, "resume", "posting two");
+
+        writer.put(PipelineStage.BULLETS, failedOver, "backup-model", StageMemo.ofContent("- from the backup"));
+        writer.put(PipelineStage.BULLETS, primary, "model-a", StageMemo.ofContent("- from the primary"));
+
+        assertThat(saved).hasSize(2);
+        assertThat(reader.get(PipelineStage.BULLETS, failedOver)).isEmpty();
+        assertThat(writer.get(PipelineStage.BULLETS, failedOver)).isEmpty();
+        assertThat(reader.get(PipelineStage.BULLETS, primary)).get()
+                .extracting(StageMemo::getContent).isEqualTo("- from the primary");
+        assertThat(new StageMemoStore(repo, true, 10, "", "backup-model", PROMPTS).get(PipelineStage.BULLETS, failedOver))
+                .get().extracting(StageMemo::getContent).isEqualTo("- from the backup");
+    }
+}
@@ -0,0 +1,50 @@
+package com.manoj.matchIQ.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class HashedNgramVectorizerTests {
+
+    private final HashedNgramVectorizer vectorizer = new HashedNgramVectorizer(HashedNgramVectorizer.DEFAULT_DIMENSIONS);
+
+    @Test
+    void nearMatchesScoreAboveUnrelatedText() {
+        float[] posting = vectorizer.vectorize("Backend developer: Java, Spring Boot, PostgreSQL, Kubernetes deployments");
+        float[] related = vectorizer.vectorize("Developed Java services with Spring and Postgres, deployed on Kubernetes");
+        float[] unrelated = vectorizer.vectorize("Pastry chef experienced with laminated doughs and wedding cakes");
+
+        assertThat(VectorOps.dot(posting, related)).isGreaterThan(0.3f);
+        assertThat(VectorOps.dot(posting, unrelated)).isLessThan(0.15f);
+        assertThat(VectorOps.dot(posting, posting)).isCloseTo(1f, within(1e-5f));
+    }
+
+    @Test
+    void textWithoutWordsIsTheZeroVector() {
+        assertThat(vectorizer.vectorize(" - ! ")).containsOnly(0f);
+        assertThat(vectorizer.vectorize(null)).hasSize(HashedNgramVectorizer.DEFAULT_DIMENSIONS).containsOnly(0f);
+        assertThat(VectorOps.cosine(vectorizer.vectorize(""), vectorizer.vectorize("java"))).isZero();
+    }
+
+    @Test
+    void simdAndScalarDotProductsAgree() {
+        Random random = new Random(7);
+        for (int length : new int[] {1, 3, 16, 100, 1024, 1031}) {
+            float[] a = new float[length];
+            float[] b = new float[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = random.nextFloat() - 0.5f;
+                b[i] = random.nextFloat() - 0.5f;
+            }
+            double exact = 0;
+            for (int i = 0; i < length; i++) {
+                exact += (double) a[i] * b[i];
+            }
+            assertThat((double) VectorOps.scalarDot(a, b)).isCloseTo(exact, within(1e-4));
+            assertThat((double) VectorOps.dot(a, b)).isCloseTo(exact, within(1e-4));
+        }
+    }
+}